@@ -2,9 +2,11 @@ package com.project.dawker;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 // For now, the spring application is not using Eureka, so we don't have to think on it.
 @SpringBootApplication()
+@EnableScheduling
 public class DawkerApplication {
 
     public static void main(String[] args) {
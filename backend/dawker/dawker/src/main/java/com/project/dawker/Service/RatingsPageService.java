@@ -1,32 +1,67 @@
 package com.project.dawker.service;
 
 import com.project.dawker.kafka.KafkaLogProducer;
+import com.project.dawker.kafka.LogLevel;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.project.dawker.dto.leaderboardEntryDTO;
 import com.project.dawker.dto.ratingsPageDTO;
+import com.project.dawker.dto.ratingsPageHeaderDTO;
 import com.project.dawker.dto.recievedDto.recievedRatingsCommentDTO;
 import com.project.dawker.entity.daw_specific.RatingsPage;
+import com.project.dawker.exception.InvalidCursorException;
+import com.project.dawker.exception.NonPositiveNumberException;
 import com.project.dawker.exception.RatingsPageNotFoundException;
 import com.project.dawker.entity.daw_specific.RatingsComment;
 import com.project.dawker.repository.RatingsCommentRepository;
 import com.project.dawker.repository.RatingsPageRepository;
+import com.project.dawker.repository.dto.RatingsCommentExportDTO;
+import com.project.dawker.repository.dto.RatingsPageExportDTO;
+import com.project.dawker.repository.interfaces.RatingsCommentSummary;
 
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 @Service
 public class RatingsPageService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    private static final String CURSOR_SEPARATOR = "|";
+
     private final RatingsCommentRepository commentRepo;
     private final RatingsPageRepository ratingsRepo;
     private final KafkaLogProducer logger;
+    private final TransactionTemplate newPageTransaction;
+    private final RatingsLeaderboard leaderboard;
 
-    public RatingsPageService(RatingsCommentRepository commentRepo, RatingsPageRepository ratingsRepo, KafkaLogProducer logProducer) {
+    public RatingsPageService(RatingsCommentRepository commentRepo, RatingsPageRepository ratingsRepo, KafkaLogProducer logProducer,
+                              PlatformTransactionManager transactionManager, RatingsLeaderboard leaderboard) {
         this.commentRepo = commentRepo;
         this.ratingsRepo = ratingsRepo;
         logger = logProducer;
+        this.leaderboard = leaderboard;
+        this.newPageTransaction = new TransactionTemplate(transactionManager);
+        this.newPageTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     // Comment object created:
@@ -41,62 +76,87 @@ public class RatingsPageService {
     @Transactional
     public ratingsPageDTO createRatingsPage(recievedRatingsCommentDTO dto) {
         logger.info("service-calls", "", "RatingsPageService", "createRatingsPage");
-        // 1. Find or initialize the page (ID is still null if new)
-        RatingsPage page = ratingsRepo.findByDawId(dto.getDawId())
-                .orElseGet(() -> {
-                    RatingsPage newPage = new RatingsPage();
-                    newPage.setDawId(dto.getDawId());
-                    newPage.setRating(0.0);
-                    newPage.setComments(new ArrayList<>());
-                    return newPage;
-                });
-        RatingsPage savedPage = ratingsRepo.save(page);
-
-        // 2. Create the Comment Entity (ID is null)
-        RatingsComment newComment = new RatingsComment();
-        newComment.setDawId(dto.getDawId());
-        newComment.setRating(dto.getRating());
-        newComment.setUserId(dto.getUserId());
-        newComment.setUsername(dto.getUsername());
-        newComment.setComment(dto.getComment());
-        newComment.setCreatedAt(LocalDateTime.now());
-
-        // 3. LINK BOTH SIDES (This is purely in-memory right now)
-        newComment.setRatingsPage(savedPage);
-
-        RatingsComment savedComment = this.commentRepo.save(newComment);
-        savedPage.getComments().add(savedComment);
-
-        // 4. Recalculate Average Score
-        double newAvg = savedPage.getComments().stream()
-                .mapToDouble(RatingsComment::getRating)
-                .average()
-                .orElse(0.0);
-        savedPage.setRating(newAvg);
-
-        System.out.println("After changing everything, these are the objects");
-        System.out.println("The page itself: ");
-        System.out.println(savedPage);
-        System.out.println("The comment itself: ");
-        System.out.println(savedComment);
-
-        logger.trace("service-calls", "After changing everything, these are the objects", "RatingsPageService", "createRatingsPage");
-        logger.trace("service-calls", "The page itself:", "RatingsPageService", "createRatingsPage");
-        logger.trace("service-calls", savedPage.toString(), "RatingsPageService", "createRatingsPage");
-        logger.trace("service-calls", "The comment itself:", "RatingsPageService", "createRatingsPage");
-        logger.trace("service-calls", savedComment.toString(), "RatingsPageService", "createRatingsPage");
+        // 1. Find or create the page; only its id is needed from here on
+        Long pageId = ratingsRepo.findIdByDawId(dto.getDawId())
+                .orElseGet(() -> createPage(dto.getDawId()));
+
+        // 2. Lock the page, so a concurrent request from the same user can't insert or change
+        // their rating between the check below and the write
+        ratingsRepo.lockById(pageId)
+                .orElseThrow(() -> new RatingsPageNotFoundException("Ratings page " + pageId + " disappeared while rating it"));
+
+        // 3. One rating per user per DAW: a repeat replaces the user's earlier rating and comment
+        // (and moves it to the top of the list). Anonymous ratings can't be matched, so always add.
+        Optional<RatingsComment> previous = dto.getUserId() == null
+                ? Optional.empty()
+                : commentRepo.findByUserIdAndDawId(dto.getUserId(), dto.getDawId());
+        Double oldRating = previous.map(RatingsComment::getRating).orElse(null);
+        RatingsComment comment = previous.orElseGet(RatingsComment::new);
+        comment.setDawId(dto.getDawId());
+        comment.setRating(dto.getRating());
+        comment.setUserId(dto.getUserId());
+        comment.setUsername(dto.getUsername());
+        comment.setComment(dto.getComment());
+        comment.setCreatedAt(LocalDateTime.now());
+        comment.setRatingsPage(ratingsRepo.getReferenceById(pageId));
+        RatingsComment savedComment = this.commentRepo.save(comment);
 
-        // 5. THE CRITICAL CHANGE: Save the PAGE only.
-        // DELETE 'commentRepo.save(newComment)' from before.
-        // Hibernate will see the Page is new (or dirty), save it, get the ID,
-        // and then save the comment with that ID automatically.
-        RatingsPage finalSavedPage = ratingsRepo.save(savedPage);
+        // 4. Apply the rating to the page's running sum/count in one UPDATE, rather than loading
+        // every comment and averaging them; a replaced rating only moves the sum by the difference.
+        // Then re-rank the DAW on the leaderboard, once the rating can no longer roll back.
+        String dawId = dto.getDawId();
+        double rating = dto.getRating();
+        if (oldRating == null) {
+            ratingsRepo.addRating(pageId, rating, stars(rating));
+            afterCommit(() -> leaderboard.recordRating(dawId, rating));
+        } else {
+            ratingsRepo.changeRating(pageId, oldRating, rating, stars(oldRating), stars(rating));
+            afterCommit(() -> leaderboard.replaceRating(dawId, oldRating, rating));
+        }
 
-        System.out.println("FIXED STATE: " + finalSavedPage);
-        logger.trace("service-calls", "FIXED STATE: " + finalSavedPage, "RatingsPageService", "createRatingsPage");
+        logger.trace("service-calls", "The comment itself:", "RatingsPageService", "createRatingsPage");
+        logger.trace("service-calls", savedComment::toString, "RatingsPageService", "createRatingsPage");
+
+        RatingsPage finalSavedPage = ratingsRepo.findById(pageId)
+                .orElseThrow(() -> new RatingsPageNotFoundException("Ratings page " + pageId + " disappeared while rating it"));
+        logger.trace("service-calls", () -> "FIXED STATE: " + finalSavedPage, "RatingsPageService", "createRatingsPage");
         return convertToDTO(finalSavedPage);
     }
 
+    // The new page is committed in its own transaction, so when two first ratings for a DAW
+    // race, the second insert hits the unique dawId instead of making a second page, and that
+    // rater uses the page that won.
+    private Long createPage(String dawId) {
+        try {
+            return newPageTransaction.execute(status -> {
+                RatingsPage newPage = new RatingsPage();
+                newPage.setDawId(dawId);
+                newPage.setComments(new ArrayList<>());
+                return ratingsRepo.saveAndFlush(newPage).getId();
+            });
+        } catch (DataIntegrityViolationException e) {
+            return ratingsRepo.findIdByDawId(dawId).orElseThrow(() -> e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // The 1..5 star bucket a rating is counted in
+    static int stars(double rating) {
+        return (int) Math.max(1, Math.min(5, Math.round(rating)));
+    }
+
     private recievedRatingsCommentDTO mapCommentToDTO(RatingsComment comment) {
         recievedRatingsCommentDTO dto = new recievedRatingsCommentDTO();
         dto.setDawId(comment.getDawId());
@@ -126,4 +186,102 @@ public class RatingsPageService {
                 .orElseThrow(() -> new RatingsPageNotFoundException(
                         "Ratings page you are looking for could not be found in database")));
     }
-}
\ No newline at end of file
+
+    // The page's aggregate only (average, count, star histogram); one row, no comments loaded
+    public ratingsPageHeaderDTO getRatingsHeaderByDawId(String dawId) {
+        logger.info("service-calls", "", "RatingsPageService", "getRatingsHeaderByDawId");
+        RatingsPage page = ratingsRepo.findByDawId(dawId)
+                .orElseThrow(() -> new RatingsPageNotFoundException(
+                        "Ratings page you are looking for could not be found in database"));
+        return new ratingsPageHeaderDTO(page.getId(), page.getDawId(), page.getRating(), page.getRatingCount(),
+                new long[] { page.getStars1(), page.getStars2(), page.getStars3(), page.getStars4(), page.getStars5() });
+    }
+
+    // Top-rated DAWs by Bayesian average, served from memory
+    public List<leaderboardEntryDTO> getLeaderboard(int limit) {
+        logger.info("service-calls", "", "RatingsPageService", "getLeaderboard");
+        if (limit <= 0) {
+            throw new NonPositiveNumberException("Leaderboard limit must be positive, got " + limit);
+        }
+        return leaderboard.top(limit);
+    }
+
+    // Every ratings page's aggregate as NDJSON, one object per line, written as the rows are read
+    @Transactional(readOnly = true)
+    public void exportRatingsPages(OutputStream out) throws IOException {
+        logger.info("service-calls", "", "RatingsPageService", "exportRatingsPages");
+        try (Stream<RatingsPageExportDTO> rows = ratingsRepo.streamExport()) {
+            writeNdjson(rows, out, "exportRatingsPages");
+        }
+    }
+
+    // Every ratings comment as NDJSON, one object per line, written as the rows are read
+    @Transactional(readOnly = true)
+    public void exportRatingsComments(OutputStream out) throws IOException {
+        logger.info("service-calls", "", "RatingsPageService", "exportRatingsComments");
+        try (Stream<RatingsCommentExportDTO> rows = commentRepo.streamExport()) {
+            writeNdjson(rows, out, "exportRatingsComments");
+        }
+    }
+
+    // Only the row being written is held; the response buffer goes out as it fills
+    private <T> void writeNdjson(Stream<T> rows, OutputStream out, String method) throws IOException {
+        boolean trace = logger.isEnabled("service-calls", LogLevel.TRACE, "RatingsPageService");
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            out.write(JsonMapper.shared().writeValueAsBytes(row));
+            out.write('\n');
+            if (trace) {
+                logger.trace("service-calls", row.toString(), "RatingsPageService", method);
+            }
+        }
+        out.flush();
+    }
+
+    // A DAW's reviews, newest first, keyset-paginated on (createdAt, id).
+    // cursor is the value returned by nextCursor for the previous page, or null for the first page.
+    public List<RatingsCommentSummary> getRatingsComments(String dawId, String cursor, int size) {
+        logger.info("service-calls", "", "RatingsPageService", "getRatingsComments");
+        if (size <= 0) {
+            throw new NonPositiveNumberException("Page size must be positive, got " + size);
+        }
+        Long pageId = ratingsRepo.findIdByDawId(dawId)
+                .orElseThrow(() -> new RatingsPageNotFoundException(
+                        "Ratings page you are looking for could not be found in database"));
+        Pageable page = PageRequest.of(0, Math.min(size, MAX_PAGE_SIZE));
+        if (cursor == null || cursor.isBlank()) {
+            return commentRepo.findSummaries(pageId, page);
+        }
+
+        CommentCursor after = decodeCursor(cursor);
+        return commentRepo.findSummariesAfter(pageId, after.createdAt(), after.id(), page);
+    }
+
+    // Cursor pointing after the last comment of a page, or null when the page was the last one
+    public static String nextCursor(List<RatingsCommentSummary> page, int size) {
+        if (page.isEmpty() || page.size() < Math.min(size, MAX_PAGE_SIZE)) {
+            return null;
+        }
+        RatingsCommentSummary last = page.get(page.size() - 1);
+        String key = last.getCreatedAt() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record CommentCursor(LocalDateTime createdAt, Long id) {
+    }
+
+    private static CommentCursor decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0 || separator == key.length() - 1) {
+                throw new IllegalArgumentException("malformed cursor");
+            }
+            return new CommentCursor(LocalDateTime.parse(key.substring(0, separator)),
+                    Long.valueOf(key.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid ratings comment cursor: " + cursor);
+        }
+    }
+}
@@ -150,8 +150,8 @@ public class useService {
                 if (userDto.getEmail() != null && userRepository.findByEmailContainingIgnoreCase(userDto.getEmail()).isPresent()) {
                         logger.debug("service-calls", "email contained in an already existing email", "useService", "registerUser");
                         logger.warn("service-calls", "user registration may fail even if this exact email (ignoring case) isn't already being used", "useService", "registerUser");
-                        logger.trace("service-calls", "email attempting to register with: " + userDto.getEmail(), "useService", "registerUser");
-                        logger.trace("service-calls", "already existing email failing user registration: " + userRepository.findByEmailContainingIgnoreCase(userDto.getEmail()).get().getEmail(), "useService", "registerUser");
+                        logger.trace("service-calls", () -> "email attempting to register with: " + userDto.getEmail(), "useService", "registerUser");
+                        logger.trace("service-calls", () -> "already existing email failing user registration: " + userRepository.findByEmailContainingIgnoreCase(userDto.getEmail()).get().getEmail(), "useService", "registerUser");
                         return null;
                 }
 
@@ -1,31 +1,36 @@
 package com.project.dawker.controller;
 
 import com.project.dawker.kafka.KafkaLogProducer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.project.dawker.dto.dawDTO;
 import com.project.dawker.dto.forumPostDTO;
+import com.project.dawker.dto.leaderboardEntryDTO;
 import com.project.dawker.dto.ratingsPageDTO;
+import com.project.dawker.dto.ratingsPageHeaderDTO;
 import com.project.dawker.dto.userDTO;
 import com.project.dawker.dto.recievedDto.receivedCommentDTO;
 import com.project.dawker.dto.recievedDto.receivedForumDTO;
 import com.project.dawker.dto.recievedDto.recievedLoginRequest;
 import com.project.dawker.dto.recievedDto.recievedRatingsCommentDTO;
 import com.project.dawker.dto.recievedDto.recievedSessionNotesDTO;
+import com.project.dawker.dto.recievedDto.recievedSettingsPatchDTO;
 import com.project.dawker.entity.User;
-import com.project.dawker.entity.daw_specific.RatingsComment;
-import com.project.dawker.entity.daw_specific.RatingsPage;
-import com.project.dawker.repository.RatingsCommentRepository;
-import com.project.dawker.repository.RatingsPageRepository;
+import com.project.dawker.repository.interfaces.DawSummary;
+import com.project.dawker.repository.interfaces.RatingsCommentSummary;
+import com.project.dawker.service.DawAutosaveService;
 import com.project.dawker.service.DawService;
 import com.project.dawker.service.RatingsPageService;
 import com.project.dawker.service.forumService;
@@ -38,6 +43,7 @@ import org.springframework.http.HttpStatus;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
 import java.util.List;
+import java.util.Map;
 
 // DAW CONTROLLER PRANAV!!!!
 @RestController
@@ -45,29 +51,28 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:5173")
 public class dawController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final DawService dawService;
+    private final DawAutosaveService autosaveService;
     private final useService useService;
     private final forumService forumService;
     private final RatingsPageService ratingsService;
-    private final RatingsPageRepository ratingsRepo;
-    private final RatingsCommentRepository ratingsCommentRepo;
     private final sessionNotesService notesService;
     private final KafkaLogProducer logger;
 
     public dawController(DawService dawService,
+                         DawAutosaveService autosaveService,
                          useService useService,
                          forumService forumService,
                          RatingsPageService ratingsService,
-                         RatingsPageRepository ratingsRepo,
-                         RatingsCommentRepository ratingsCommentRepo,
                          KafkaLogProducer logProducer,
                          sessionNotesService notesService) {
         this.dawService = dawService;
+        this.autosaveService = autosaveService;
         this.useService = useService;
         this.forumService = forumService;
         this.ratingsService = ratingsService;
-        this.ratingsRepo = ratingsRepo;
-        this.ratingsCommentRepo = ratingsCommentRepo;
         logger = logProducer;
         this.notesService = notesService;
     }
@@ -79,24 +84,35 @@ public class dawController {
     public List<dawDTO> getDawsByUserId(@RequestParam Long userId) {
         System.out.println("Fetching DAWs for User ID: " + userId);
         logger.info("api-calls", "Getting daws by user id", "dawController", "getDawsByUserId");
-        logger.debug("api-calls", "Fetching DAWs for User ID: " + userId, "dawController", "getDawsByUserId");
+        logger.debug("api-calls", () -> "Fetching DAWs for User ID: " + userId, "dawController", "getDawsByUserId");
         return dawService.getDawsByUserId(userId);
     }
 
     @GetMapping("/search/daw")
     public dawDTO getDawById(@RequestParam String dawId) {
         System.out.println("Fetching DAW with ID: " + dawId);
-        System.out.println("Does the config work" + dawService.getDawById(dawId).getListOfConfigs().toString());
         logger.info("api-calls", "Getting daw by id", "dawController", "getDawById");
-        logger.debug("api-calls", "Fetching DAW with ID: " + dawId, "dawController", "getDawById");
-        logger.debug("api-calls", "Does the config work" + dawService.getDawById(dawId).getListOfConfigs().toString(), "dawController", "getDawById");
-        return dawService.getDawById(dawId);
+        logger.debug("api-calls", () -> "Fetching DAW with ID: " + dawId, "dawController", "getDawById");
+
+        // Load the tree once and reuse it; the config dump is only rendered when DEBUG is enabled
+        dawDTO daw = dawService.getDawById(dawId);
+        logger.debug("api-calls", () -> "Does the config work" + daw.getListOfConfigs(), "dawController", "getDawById");
+        return daw;
     }
 
+    // Summary listing, newest first. The next page's cursor comes back in the X-Next-Cursor
+    // header (absent on the last page); the full tree is only served by /search/daw.
     @GetMapping("/search/allDaws")
-    public List<dawDTO> getAllDaws() {
+    @CrossOrigin(exposedHeaders = NEXT_CURSOR_HEADER)
+    public ResponseEntity<List<DawSummary>> getAllDaws(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "20") int size) {
         logger.info("api-calls", "Getting all daws", "dawController", "getAllDaws");
-        return dawService.getAllDaws();
+        List<DawSummary> page = dawService.getDawSummaries(cursor, size);
+        String next = DawService.nextCursor(page, size);
+        if (next == null) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, next).body(page);
     }
 
     @GetMapping("/search/allUsers")
@@ -130,32 +146,62 @@ public class dawController {
     }
 
     // -------------------- ratings specific --------------
+    // The whole page with every comment, as the ratings view has always loaded it. Prefer
+    // the header + paged comments below for DAWs with many reviews.
     @GetMapping("/search/ratingsPage")
     public ratingsPageDTO getRatingsPageById(@RequestParam String dawId) {
         logger.info("api-calls", "", "dawController", "getRatingsPageById");
         return this.ratingsService.getRatingsPageByDawId(dawId);
     }
 
+    // Average, count and star histogram only
+    @GetMapping("/search/ratingsPage/header")
+    public ratingsPageHeaderDTO getRatingsHeader(@RequestParam String dawId) {
+        logger.info("api-calls", "", "dawController", "getRatingsHeader");
+        return this.ratingsService.getRatingsHeaderByDawId(dawId);
+    }
+
+    // Reviews, newest first. The next page's cursor comes back in the X-Next-Cursor
+    // header (absent on the last page).
+    @GetMapping("/search/ratingsPage/comments")
+    @CrossOrigin(exposedHeaders = NEXT_CURSOR_HEADER)
+    public ResponseEntity<List<RatingsCommentSummary>> getRatingsComments(@RequestParam String dawId,
+                                                                           @RequestParam(required = false) String cursor,
+                                                                           @RequestParam(defaultValue = "20") int size) {
+        logger.info("api-calls", "", "dawController", "getRatingsComments");
+        List<RatingsCommentSummary> page = ratingsService.getRatingsComments(dawId, cursor, size);
+        String next = RatingsPageService.nextCursor(page, size);
+        if (next == null) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, next).body(page);
+    }
+
+    // Top-rated DAWs, best first, ranked by Bayesian average so a DAW with a single 5-star
+    // review doesn't top the list. Reads a precomputed in-memory ranking.
+    @GetMapping("/search/ratingsPage/leaderboard")
+    public List<leaderboardEntryDTO> getLeaderboard(@RequestParam(defaultValue = "10") int limit) {
+        logger.info("api-calls", "", "dawController", "getLeaderboard");
+        return this.ratingsService.getLeaderboard(limit);
+    }
+
+    // Every ratings page's aggregate (comments are exported separately), as NDJSON: one JSON
+    // object per line, streamed from a database cursor so memory stays flat however many rows.
     @GetMapping("/search/allRatingsPagesRepo")
-    public List<RatingsPage> getAllRatingsPages() {
-        System.out.println("All ratings pages within the database should be outputted here: ");
+    public ResponseEntity<StreamingResponseBody> getAllRatingsPages() {
         logger.info("api-calls", "", "dawController", "getAllRatingsPages");
-        logger.debug("api-calls", "All ratings pages within the database should be outputted here", "dawController", "getAllRatingsPages");
-        this.ratingsRepo.findAll().forEach(System.out::println);
-        this.ratingsRepo.findAll().forEach(x -> logger.trace("api-calls", x.toString(), "dawController", "getAllRatingsPages"));
-        return this.ratingsRepo.findAll();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ratingsService::exportRatingsPages);
     }
 
+    // Every ratings comment as NDJSON, streamed the same way
     @GetMapping("/search/allRatingsCommentsRepo")
-    public List<RatingsComment> getAllRatingsComments() {
-
-        System.out.println("The comments in the repository should be outputted here: ");
-        this.ratingsCommentRepo.findAll().forEach(System.out::println);
+    public ResponseEntity<StreamingResponseBody> getAllRatingsComments() {
         logger.info("api-calls", "", "dawController", "getAllRatingsComments");
-        logger.debug("api-calls", "The comments in the repository should be outputted here", "dawController", "getAllRatingsComments");
-        this.ratingsCommentRepo.findAll().forEach(x -> logger.trace("api-calls", x.toString(), "dawController", "getAllRatingsComments"));
-
-        return this.ratingsCommentRepo.findAll();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ratingsService::exportRatingsComments);
     }
 
     // ---------------------------------------------------------------------
@@ -194,15 +240,42 @@ public class dawController {
 
         logger.info("api-calls", "", "dawController", "saveDaw");
         logger.trace("api-calls", "The payload that got to the backend", "dawController", "saveDaw");
-        logger.trace("api-calls", payload.toString(), "dawController", "saveDaw");
+        logger.trace("api-calls", payload::toString, "dawController", "saveDaw");
         logger.trace("api-calls", "and the settings values:", "dawController", "saveDaw");
-        logger.trace("api-calls", payload.getListOfConfigs().get(0).getComponents().get(0).getSettings().toString(), "dawController", "saveDaw");
+        logger.trace("api-calls", () -> payload.getListOfConfigs().get(0).getComponents().get(0).getSettings().toString(), "dawController", "saveDaw");
 
         dawService.saveDaw(payload);
 
         return ResponseEntity.ok(payload);
 
     }
+    // Autosave goes through the write-behind buffer: 202 means it is buffered and will be
+    // flushed shortly (reads already see it); a DAW without an id yet is saved immediately.
+    @PostMapping("/save/Daw/autosave")
+    public ResponseEntity<Void> autosaveDaw(@RequestBody dawDTO payload) {
+        logger.info("api-calls", "", "dawController", "autosaveDaw");
+        boolean buffered = autosaveService.autosave(payload);
+        return buffered ? ResponseEntity.accepted().build() : ResponseEntity.ok().build();
+    }
+
+    // Live knob tweak for one component: the body is a JSON merge patch of its parameters
+    @PatchMapping(value = "/save/Daw/{dawId}/components/{instanceId}/settings",
+            consumes = { "application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<Void> patchComponentSettings(@PathVariable String dawId, @PathVariable String instanceId,
+                                                       @RequestBody Map<String, Object> patch) {
+        logger.info("api-calls", "", "dawController", "patchComponentSettings");
+        dawService.patchSettings(dawId, List.of(new recievedSettingsPatchDTO(instanceId, patch)));
+        return ResponseEntity.noContent().build();
+    }
+
+    // Several knob tweaks (e.g. one drag across the rack) applied in a single transaction
+    @PatchMapping("/save/Daw/{dawId}/settings")
+    public ResponseEntity<Map<String, Integer>> patchSettings(@PathVariable String dawId,
+                                                              @RequestBody List<recievedSettingsPatchDTO> patches) {
+        logger.info("api-calls", "", "dawController", "patchSettings");
+        int updated = dawService.patchSettings(dawId, patches);
+        return ResponseEntity.ok(Map.of("updatedComponents", updated));
+    }
     // ---------------------------------------------------------------------
 
     // ------------------------------- Forum specific
@@ -213,7 +286,7 @@ public class dawController {
 
         System.out.println("Saving Forum with userID: " + payload.getUserId());
         logger.info("api-calls", "", "dawController", "saveForum");
-        logger.debug("api-calls", "Saving Forum with userID: " + payload.getUserId(), "dawController", "saveForum");
+        logger.debug("api-calls", () -> "Saving Forum with userID: " + payload.getUserId(), "dawController", "saveForum");
         forumService.saveForum(payload);
         return ResponseEntity.ok(payload);
 
@@ -228,7 +301,7 @@ public class dawController {
         System.out.println(
                 "Saving comment with userID: " + payload.getUserId() + ", on post: " + payload.getParentPostId());
         logger.info("api-calls", "", "dawController", "saveComment");
-        logger.debug("api-calls", "Saving comment with userID: " + payload.getUserId() + ", on post: " + payload.getParentPostId(), "dawController", "saveComment");
+        logger.debug("api-calls", () -> "Saving comment with userID: " + payload.getUserId() + ", on post: " + payload.getParentPostId(), "dawController", "saveComment");
 
         forumService.saveComment(payload);
 
@@ -311,9 +384,9 @@ public class dawController {
 
         logger.info("api-calls", "", "dawController", "createRatingsPage");
         logger.debug("api-calls", "The comment got to the backend right?", "dawController", "createRatingsPage");
-        logger.trace("api-calls", comment.toString(), "dawController", "createRatingsPage");
+        logger.trace("api-calls", comment::toString, "dawController", "createRatingsPage");
         logger.trace("api-calls", "This is the DTO returned to the controller before going to the user: ", "dawController", "createRatingsPage");
-        logger.trace("api-calls", dto.toString(), "dawController", "createRatingsPage");
+        logger.trace("api-calls", dto::toString, "dawController", "createRatingsPage");
 
         return dto;
     }
@@ -341,9 +414,9 @@ public class dawController {
 
         logger.info("api-calls", "", "dawController", "createSessionNotes");
         logger.debug("api-calls", "The comment got to the backend right?", "dawController", "createSessionNotes");
-        logger.trace("api-calls", note.toString(), "dawController", "createSessionNotes");
+        logger.trace("api-calls", note::toString, "dawController", "createSessionNotes");
         logger.trace("api-calls", "This is the DTO returned to the controller before going to the user: ", "dawController", "createSessionNotes");
-        logger.trace("api-calls", dto.toString(), "dawController", "createSessionNotes");
+        logger.trace("api-calls", dto::toString, "dawController", "createSessionNotes");
 
         return dto;
     }
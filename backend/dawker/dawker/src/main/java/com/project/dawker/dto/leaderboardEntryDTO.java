@@ -0,0 +1,19 @@
+package com.project.dawker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row of the top-rated DAW leaderboard. score is the Bayesian average the list is
+// ranked by; rating is the plain average shown on the DAW's ratings page.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class leaderboardEntryDTO {
+
+    private int rank;
+    private String dawId;
+    private double score;
+    private double rating;
+    private long ratingCount;
+}
@@ -0,0 +1,19 @@
+package com.project.dawker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The aggregate part of a ratings page, without its comments (those are paged separately).
+// stars[0] is how many ratings rounded to 1 star, ..., stars[4] to 5 stars.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ratingsPageHeaderDTO {
+
+    private Long id;
+    private String dawId;
+    private double rating;
+    private long ratingCount;
+    private long[] stars;
+}
@@ -0,0 +1,19 @@
+package com.project.dawker.dto.recievedDto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One knob change from the editor: a JSON merge patch for the parameters of the
+// component with this instanceId. A null value removes the key.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class recievedSettingsPatchDTO {
+
+    private String instanceId;
+    private Map<String, Object> parameters;
+
+}
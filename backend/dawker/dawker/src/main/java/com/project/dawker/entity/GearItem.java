@@ -16,7 +16,8 @@ import java.util.List;
 public class GearItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gear_items_seq")
+    @SequenceGenerator(name = "gear_items_seq", sequenceName = "gear_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -19,7 +19,8 @@ import java.util.List;
 public class Preset {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "presets_seq")
+    @SequenceGenerator(name = "presets_seq", sequenceName = "presets_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -16,7 +16,8 @@ import lombok.*;
 public class PresetAmp {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "preset_amp_seq")
+    @SequenceGenerator(name = "preset_amp_seq", sequenceName = "preset_amp_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
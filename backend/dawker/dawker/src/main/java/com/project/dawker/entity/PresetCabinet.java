@@ -16,7 +16,8 @@ import lombok.*;
 public class PresetCabinet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "preset_cabinet_seq")
+    @SequenceGenerator(name = "preset_cabinet_seq", sequenceName = "preset_cabinet_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -16,7 +16,8 @@ import lombok.*;
 public class PresetCategory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "preset_categories_seq")
+    @SequenceGenerator(name = "preset_categories_seq", sequenceName = "preset_categories_seq", allocationSize = 50)
     private Long id;
 
     // many to one with preset
@@ -14,7 +14,8 @@ import lombok.*;
 public class PresetGear {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "preset_gear_seq")
+    @SequenceGenerator(name = "preset_gear_seq", sequenceName = "preset_gear_seq", allocationSize = 50)
     private Long id;
 
     // many to one with preset
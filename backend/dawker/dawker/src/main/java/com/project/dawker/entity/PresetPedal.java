@@ -13,7 +13,8 @@ import lombok.*;
 public class PresetPedal {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "preset_pedal_seq")
+    @SequenceGenerator(name = "preset_pedal_seq", sequenceName = "preset_pedal_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -8,6 +8,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Data;
 
 // CORRECT ENTITIES FOLDER PRANAV!!!!
@@ -16,7 +17,8 @@ import lombok.Data;
 public class ComponentEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "component_entity_seq")
+    @SequenceGenerator(name = "component_entity_seq", sequenceName = "component_entity_seq", allocationSize = 50)
     private Long id;
 
     private String instanceId; // From React Date.now()
@@ -15,6 +15,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import lombok.Data;
 
@@ -35,6 +37,7 @@ import lombok.Data;
 
 @Entity
 @Data
+@NamedEntityGraph(name = "DawEntity.withConfigs", attributeNodes = @NamedAttributeNode("listOfConfigs"))
 public class DawEntity {
 
     @Id
@@ -17,6 +17,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
 
@@ -25,7 +26,8 @@ import lombok.Data;
 @Table(name = "forum_posts")
 public class ForumPost {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "forum_posts_seq")
+    @SequenceGenerator(name = "forum_posts_seq", sequenceName = "forum_posts_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -6,18 +6,27 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+// The index backs the keyset-paginated comment listing (RatingsCommentRepository.findSummaries);
+// the constraint allows one rating per user per DAW, which RatingsPageService upserts
+@Table(indexes = @Index(name = "idx_ratings_comment_page_created", columnList = "ratings_page_id, created_at, id"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_ratings_comment_user_daw", columnNames = { "user_id", "daw_id" }))
 @Data
 @NoArgsConstructor
 public class RatingsComment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ratings_comment_seq")
+    @SequenceGenerator(name = "ratings_comment_seq", sequenceName = "ratings_comment_seq", allocationSize = 50)
     private Long id;
 
     private Long userId;
@@ -4,11 +4,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,12 +22,27 @@ import lombok.NoArgsConstructor;
 public class RatingsPage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ratings_page_seq")
+    @SequenceGenerator(name = "ratings_page_seq", sequenceName = "ratings_page_seq", allocationSize = 50)
     private Long id;
 
+    // One page per DAW; concurrent first ratings race on this (see RatingsPageService)
+    @Column(unique = true)
     private String dawId;
+    // Average, kept equal to ratingSum / ratingCount
     private double rating;
 
+    // Running totals, bumped in SQL per rating (RatingsPageRepository.addRating),
+    // so the average never needs the comments loaded
+    private double ratingSum;
+    private long ratingCount;
+    // How many ratings rounded to 1..5 stars
+    private long stars1;
+    private long stars2;
+    private long stars3;
+    private long stars4;
+    private long stars5;
+
     // FIX: Change RatingsComment[] to List<RatingsComment>
     // 'cascade' ensures if you save the Page, the Comments save too
     // 'orphanRemoval' ensures if you remove a comment from the list, it's deleted
@@ -46,6 +63,7 @@ public class RatingsPage {
                 "id=" + id +
                 ", dawId='" + dawId + '\'' +
                 ", avgRating=" + rating +
+                ", ratingCount=" + ratingCount +
                 ", commentCount=" + (comments != null ? comments.size() : 0) +
                 '}';
     }
@@ -11,6 +11,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Data;
 
 @Entity
@@ -19,15 +20,17 @@ public class SettingsEntity {
 
     // Generate a new ID for each settings entity
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "settings_entity_seq")
+    @SequenceGenerator(name = "settings_entity_seq", sequenceName = "settings_entity_seq", allocationSize = 50)
     private Long id;
 
     private String technology; // 'RNBO' | 'TONEJS'
     private String exportName;
 
     // Use a JSON column to store dynamic parameters
+    // (the PostgreSQL dialect maps SqlTypes.JSON to jsonb, H2 to its native JSON type)
     @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "parameters", columnDefinition = "jsonb")
+    @Column(name = "parameters")
     private Map<String, Object> parameters = new HashMap<>();
     // Note: We store values as Strings and cast them in the front-end to handle
     // mixed types
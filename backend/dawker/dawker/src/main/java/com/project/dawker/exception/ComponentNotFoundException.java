@@ -0,0 +1,7 @@
+package com.project.dawker.exception;
+
+public class ComponentNotFoundException extends RuntimeException {
+    public ComponentNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -76,6 +76,16 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ComponentNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleComponentNotFound(ComponentNotFoundException ex) {
+        return buildErrorResponse(ex, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursor(InvalidCursorException ex) {
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(dawNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleDawNotFound(dawNotFoundException ex) {
         return buildErrorResponse(ex, HttpStatus.NOT_FOUND);
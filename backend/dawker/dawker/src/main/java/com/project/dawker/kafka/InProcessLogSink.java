@@ -0,0 +1,173 @@
+package com.project.dawker.kafka;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.revature.logging.LevelFileWriter;
+import com.revature.logging.LogLineFormatter;
+import com.revature.logging.RotationPolicy;
+import com.revature.logging.StackTraceDictionary;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// dawker.logging.sink=in-process: writes the files the log consumer would, without Kafka. Records
+// travel request thread -> KafkaLogProducer's lock-free ring buffer -> drain thread -> here, where
+// they're formatted and appended to one file per level (and every more verbose one) with the
+// consumer's own classes from log-common, as its "files" storage does. Each drained batch is
+// flushed in one go.
+//
+// Unlike the consumer, the folder isn't cleared on startup: this is the only copy of the logs.
+// Full stack traces go to stacktraces.log once per fingerprint, as in the consumer; the
+// fingerprints already in it are loaded, so a restart doesn't repeat them.
+@Component
+@ConditionalOnProperty(name = "dawker.logging.sink", havingValue = "in-process")
+public class InProcessLogSink implements LogSink {
+
+    static final List<String> LEVELS = List.of("TRACE", "DEBUG", "INFO", "WARN", "ERROR");
+    private static final int DEFAULT_LEVEL = LEVELS.indexOf("INFO");
+    private final LevelFileWriter[] writers = new LevelFileWriter[LEVELS.size()];
+    private final RotationPolicy policy;
+    private final ExecutorService compressor;
+    // Drain thread only
+    private final LogLineFormatter formatter = new LogLineFormatter();
+    private final StackTraceDictionary stackTraces;
+
+    private final Counter written;
+    private final Counter failed;
+
+    @Autowired
+    public InProcessLogSink(@Value("${dawker.logging.in-process.dir:logs}") String dir,
+                            @Value("${dawker.logging.in-process.buffer-size:65536}") int bufferSize,
+                            @Value("${dawker.logging.in-process.rotate.max-bytes:104857600}") long maxBytes,
+                            @Value("${dawker.logging.in-process.rotate.max-age:24h}") Duration maxAge,
+                            @Value("${dawker.logging.in-process.rotate.gzip:true}") boolean gzip,
+                            MeterRegistry registry) throws IOException {
+        this(Paths.get(dir), bufferSize, new RotationPolicy(maxBytes, maxAge, gzip), registry);
+    }
+
+    InProcessLogSink(Path dir, int bufferSize, RotationPolicy policy, MeterRegistry registry) throws IOException {
+        this.policy = policy;
+        this.compressor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "log-gzip");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Files.createDirectories(dir);
+        stackTraces = new StackTraceDictionary(dir);
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = new LevelFileWriter(dir, LEVELS.get(i), bufferSize, policy, this::rolled);
+        }
+        written = Counter.builder("dawker.logging.in-process.written")
+                .description("Log records written to the level files")
+                .register(registry);
+        failed = Counter.builder("dawker.logging.in-process.failed")
+                .description("Log records that couldn't be written to a level file")
+                .register(registry);
+    }
+
+    @Override
+    public void send(String topic, String key, long timestampMillis, Map<String, String> payload) {
+        String fingerprint = payload.get("fingerprint");
+        // The first record of a fingerprint carries the full trace; repeats only its first line
+        if (fingerprint != null && payload.get("repeat") == null && payload.get("exception") != null) {
+            stackTraces.record(fingerprint, payload.get("exception"));
+        }
+        int length = formatter.format(payload, timestampMillis);
+        int levelIndex = levelIndex(payload.get("level"));
+        boolean ok = true;
+        for (int i = 0; i <= levelIndex; i++) {
+            try {
+                writers[i].append(formatter.bytes(), length);
+            } catch (IOException e) {
+                System.err.printf("Error while trying to write to %s.log: %s%n", writers[i].level(), e.getMessage());
+                ok = false;
+            }
+        }
+        if (ok) {
+            written.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    // Once per drained batch; also where age-based rotation is checked
+    @Override
+    public void endOfBatch() {
+        long now = System.currentTimeMillis();
+        for (LevelFileWriter writer : writers) {
+            try {
+                writer.flushAndRotateIfDue(now);
+            } catch (IOException e) {
+                System.err.println("WARNING: Could not flush " + writer.level() + ".log: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        endOfBatch();
+    }
+
+    @PreDestroy
+    public void close() {
+        for (LevelFileWriter writer : writers) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("WARNING: Could not close " + writer.level() + ".log: " + e.getMessage());
+            }
+        }
+        // Lets queued compressions finish
+        compressor.shutdown();
+        try {
+            compressor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static int levelIndex(String level) {
+        int logIndex = LEVELS.indexOf(level);
+        return logIndex == -1 ? DEFAULT_LEVEL : logIndex;
+    }
+
+    private void rolled(Path file) {
+        if (policy.gzip()) {
+            compressor.execute(() -> gzip(file));
+        }
+    }
+
+    private static void gzip(Path file) {
+        Path target = file.resolveSibling(file.getFileName() + ".gz");
+        try (InputStream in = Files.newInputStream(file);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), 64 * 1024)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not compress " + file + ": " + e.getMessage());
+            return;
+        }
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not delete " + file + " after compressing: " + e.getMessage());
+        }
+    }
+}
@@ -1,59 +1,333 @@
 package com.project.dawker.kafka;
 
-import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
+// Request threads only build a LogRecord and offer it to a bounded lock-free ring buffer;
+// a single daemon thread drains it in batches into the LogSink (Kafka, or the log files
+// directly in in-process mode). When the buffer backs up (slow or unreachable broker) records
+// are sampled or dropped per the overflow policy, never waited on, so request latency doesn't
+// depend on Kafka being healthy.
 @Component
 public class KafkaLogProducer {
 
-    private final KafkaTemplate<String, Map<String, String>> kafkaTemplate;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final Duration DEFAULT_STACK_TRACE_WINDOW = Duration.ofMinutes(5);
+    private static final int MAX_FINGERPRINTS = 1024;
+    private static final Duration DEFAULT_SUMMARY_INTERVAL = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_REPLAY_RETRY = Duration.ofSeconds(5);
+
+    private final LogSink sink;
+    // Swapped wholesale on change; reading it is the only cost of a disabled log call
+    private final AtomicReference<LogLevelThresholds> thresholds;
+    private final LogRingBuffer<LogRecord> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final int highWaterMark;
+    private final int batchSize;
+    private final LogRateLimiter rateLimiter;
+    private final long summaryIntervalNanos;
+    // Drain thread only
+    private final StackTraceDeduplicator stackTraces;
+    private long nextSummaryAt;
+
+    private final Counter enqueued;
+    private final Counter dropped;
+    private final Counter sampledOut;
+    private final Counter tracesDeduplicated;
+    private final Counter rateLimited;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread drainThread;
+
+    @Autowired
+    public KafkaLogProducer(LogSink sink,
+                            @Value("${dawker.logging.kafka.min-level:TRACE}") LogLevel minLevel,
+                            @Value("${dawker.logging.kafka.topic-levels:}") String topicLevels,
+                            @Value("${dawker.logging.kafka.service-levels:}") String serviceLevels,
+                            @Value("${dawker.logging.kafka.buffer-capacity:8192}") int capacity,
+                            @Value("${dawker.logging.kafka.overflow-policy:SAMPLE}") OverflowPolicy overflowPolicy,
+                            @Value("${dawker.logging.kafka.sample-rate:10}") int sampleRate,
+                            @Value("${dawker.logging.kafka.batch-size:256}") int batchSize,
+                            @Value("${dawker.logging.kafka.stacktrace-window:5m}") Duration stackTraceWindow,
+                            @Value("${dawker.logging.kafka.rate-limits:}") String rateLimits,
+                            @Value("${dawker.logging.kafka.rate-limit.sample:}") String sampleFractions,
+                            @Value("${dawker.logging.kafka.suppressed-summary-interval:10s}") Duration summaryInterval,
+                            MeterRegistry registry) {
+        this(sink,
+                new LogLevelThresholds(minLevel, LogLevelThresholds.parse(topicLevels), LogLevelThresholds.parse(serviceLevels)),
+                capacity, overflowPolicy, sampleRate, batchSize, stackTraceWindow,
+                LogRateLimiter.parse(rateLimits, sampleFractions), summaryInterval, registry);
+    }
+
+    KafkaLogProducer(KafkaTemplate<String, Map<String, String>> kafkaTemplate, LogLevelThresholds thresholds,
+                     int capacity, OverflowPolicy overflowPolicy, int sampleRate, int batchSize, MeterRegistry registry) {
+        this(kafkaTemplate, thresholds, capacity, overflowPolicy, sampleRate, batchSize, DEFAULT_STACK_TRACE_WINDOW,
+                LogRateLimiter.NONE, DEFAULT_SUMMARY_INTERVAL, registry);
+    }
+
+    KafkaLogProducer(KafkaTemplate<String, Map<String, String>> kafkaTemplate, LogLevelThresholds thresholds,
+                     int capacity, OverflowPolicy overflowPolicy, int sampleRate, int batchSize,
+                     Duration stackTraceWindow, LogRateLimiter rateLimiter, Duration summaryInterval,
+                     MeterRegistry registry) {
+        this(new KafkaLogSink(kafkaTemplate, null, DEFAULT_REPLAY_RETRY, registry), thresholds, capacity,
+                overflowPolicy, sampleRate, batchSize, stackTraceWindow, rateLimiter, summaryInterval, registry);
+    }
+
+    KafkaLogProducer(LogSink sink, LogLevelThresholds thresholds, int capacity, OverflowPolicy overflowPolicy,
+                     int sampleRate, int batchSize, Duration stackTraceWindow, LogRateLimiter rateLimiter,
+                     Duration summaryInterval, MeterRegistry registry) {
+        this.sink = sink;
+        this.thresholds = new AtomicReference<>(thresholds);
+        this.buffer = new LogRingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.highWaterMark = buffer.capacity() * 3 / 4;
+        this.batchSize = batchSize;
+        this.stackTraces = new StackTraceDeduplicator(stackTraceWindow, MAX_FINGERPRINTS);
+        this.rateLimiter = rateLimiter;
+        this.summaryIntervalNanos = summaryInterval.toNanos();
+        this.nextSummaryAt = System.nanoTime() + summaryIntervalNanos;
+
+        Gauge.builder("dawker.logging.kafka.buffer.depth", buffer, LogRingBuffer::size)
+                .description("Log records waiting for the drain thread")
+                .register(registry);
+        enqueued = counter(registry, "dawker.logging.kafka.enqueued", "Log records accepted into the buffer");
+        dropped = counter(registry, "dawker.logging.kafka.dropped", "Log records dropped because the buffer was full");
+        sampledOut = counter(registry, "dawker.logging.kafka.sampled", "Log records skipped by overflow sampling");
+        tracesDeduplicated = counter(registry, "dawker.logging.kafka.stacktraces.deduplicated",
+                "Error records sent with a stack trace fingerprint instead of the full trace");
+        rateLimited = counter(registry, "dawker.logging.kafka.rate-limited",
+                "Log records suppressed by a per service/method rate limit or sample rate");
+        failed = counter(registry, "dawker.logging.kafka.publish.failures",
+                "Log records the drain thread couldn't format or hand to the sink");
+    }
+
+    // Defaults for tests and tools that just need a producer
+    KafkaLogProducer(KafkaTemplate<String, Map<String, String>> kafkaTemplate, LogLevel minLevel) {
+        this(kafkaTemplate, LogLevelThresholds.of(minLevel), 8192, OverflowPolicy.SAMPLE, 10, 256, new SimpleMeterRegistry());
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String description) {
+        return Counter.builder(name).description(description).register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        drainThread = new Thread(this::drainLoop, "kafka-log-drain");
+        drainThread.setDaemon(true);
+        drainThread.start();
+    }
+
+    // Gives the drain thread a moment to empty the buffer, then flushes the sink
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (drainThread != null) {
+            LockSupport.unpark(drainThread);
+            drainThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        sink.flush();
+    }
+
+    // True if the level is enabled for at least one topic/service
+    public boolean isEnabled(LogLevel level) {
+        return thresholds.get().isEnabled(level);
+    }
+
+    public boolean isEnabled(String topic, LogLevel level, String service) {
+        return thresholds.get().isEnabled(topic, level, service);
+    }
+
+    public LogLevelThresholds getThresholds() {
+        return thresholds.get();
+    }
+
+    // Runtime level changes (see KafkaLoggingEndpoint). A null level clears the override.
+    public void setDefaultLevel(LogLevel level) {
+        thresholds.updateAndGet(current -> current.withDefault(level));
+    }
+
+    public void setTopicLevel(String topic, LogLevel level) {
+        thresholds.updateAndGet(current -> current.withTopic(topic, level));
+    }
 
-    public KafkaLogProducer(KafkaTemplate<String, Map<String, String>> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public void setServiceLevel(String service, LogLevel level) {
+        thresholds.updateAndGet(current -> current.withService(service, level));
     }
 
+    // Supplier overloads: the message is only built when the level is enabled for that
+    // topic and service, so callers can pass expensive toString() renders without paying for them
     public void trace(String topic, String message, String service, String method) {
-        send(topic, "TRACE", message, service, method, null);
+        send(topic, LogLevel.TRACE, message, service, method, null);
+    }
+
+    public void trace(String topic, Supplier<String> message, String service, String method) {
+        send(topic, LogLevel.TRACE, message, service, method);
     }
 
     public void debug(String topic, String message, String service, String method) {
-        send(topic, "DEBUG", message, service, method, null);
+        send(topic, LogLevel.DEBUG, message, service, method, null);
+    }
+
+    public void debug(String topic, Supplier<String> message, String service, String method) {
+        send(topic, LogLevel.DEBUG, message, service, method);
     }
 
     public void info(String topic, String message, String service, String method) {
-        send(topic, "INFO", message, service, method, null);
+        send(topic, LogLevel.INFO, message, service, method, null);
+    }
+
+    public void info(String topic, Supplier<String> message, String service, String method) {
+        send(topic, LogLevel.INFO, message, service, method);
     }
 
     public void warn(String topic, String message, String service, String method) {
-        send(topic, "WARN", message, service, method, null);
+        send(topic, LogLevel.WARN, message, service, method, null);
+    }
+
+    public void warn(String topic, Supplier<String> message, String service, String method) {
+        send(topic, LogLevel.WARN, message, service, method);
     }
 
     public void error(String topic, String message, String service, String method, Throwable ex) {
-        send(topic, "ERROR", message, service, method, ex);
+        send(topic, LogLevel.ERROR, message, service, method, ex);
     }
 
-    private void send(String topic, String level, String message, String service, String method, Throwable ex) {
-        try {
-            Map<String, String> logMap = new HashMap<>();
+    public void error(String topic, Supplier<String> message, String service, String method, Throwable ex) {
+        if (admit(topic, LogLevel.ERROR, service, method)) {
+            enqueue(topic, LogLevel.ERROR, message.get(), service, method, ex);
+        }
+    }
+
+    private void send(String topic, LogLevel level, Supplier<String> message, String service, String method) {
+        if (admit(topic, level, service, method)) {
+            enqueue(topic, level, message.get(), service, method, null);
+        }
+    }
+
+    private void send(String topic, LogLevel level, String message, String service, String method, Throwable ex) {
+        if (admit(topic, level, service, method)) {
+            enqueue(topic, level, message, service, method, ex);
+        }
+    }
+
+    // Level thresholds, then rate limits / sampling, both before a supplier is rendered
+    private boolean admit(String topic, LogLevel level, String service, String method) {
+        if (!isEnabled(topic, level, service)) {
+            return false;
+        }
+        if (!rateLimiter.tryAcquire(topic, service, method, level)) {
+            rateLimited.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private void enqueue(String topic, LogLevel level, String message, String service, String method, Throwable ex) {
+        if (overflowPolicy == OverflowPolicy.SAMPLE && !level.isAtLeast(LogLevel.WARN)
+                && buffer.size() >= highWaterMark
+                && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            sampledOut.increment();
+            return;
+        }
+
+        if (buffer.offer(new LogRecord(topic, level, message, service, method, ex))) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    // There's only the one drain thread: if it died, the buffer would fill and every record after
+    // that would be dropped. So nothing it calls into (sink, formatting, summaries) may throw out.
+    private void drainLoop() {
+        while (running) {
+            if (drainBatch() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            if (System.nanoTime() - nextSummaryAt >= 0) {
+                nextSummaryAt = System.nanoTime() + summaryIntervalNanos;
+                publishSuppressedSummaries();
+            }
+        }
+        // Whatever is left once shutdown starts
+        int drained;
+        do {
+            drained = drainBatch();
+        } while (drained > 0);
+        publishSuppressedSummaries();
+    }
 
-            logMap.put("service", service);
-            logMap.put("method", method);
-            logMap.put("level", level);
-            logMap.put("message", message);
+    // One record per (service, method, level) that had records suppressed since the last summary,
+    // at that level, so it lands next to the records it stands in for
+    void publishSuppressedSummaries() {
+        rateLimiter.drainSuppressed((bucket, count) -> {
+            try {
+                publish(new LogRecord(bucket.topic(), bucket.level,
+                        "suppressed " + count + " records (rate limit " + describe(bucket.rule) + ")",
+                        bucket.service, bucket.method, null));
+            } catch (RuntimeException e) {
+                failed.increment();
+                System.err.println("Failed to build rate limit summary for " + bucket.service + ": " + e);
+            }
+        });
+    }
 
-            // exception info if error
-            if (ex != null) {
-                logMap.put("exception", ExceptionUtils.getStackTrace(ex));
+    private static String describe(LogRateLimiter.Rule rule) {
+        String limit = rule.perSecond() > 0 ? rule.perSecond() + "/s" : "none";
+        return rule.sampleRate() < 1 ? limit + ", sampled at " + rule.sampleRate() : limit;
+    }
+
+    // Hands up to batchSize records to the sink; the Kafka producer batches them per
+    // partition (linger.ms / batch.size) before they go over the wire
+    int drainBatch() {
+        int drained = buffer.drainTo(this::publish, batchSize);
+        if (drained > 0) {
+            try {
+                sink.endOfBatch();
+            } catch (RuntimeException e) {
+                System.err.println("Log sink failed to finish a batch: " + e);
             }
+        }
+        return drained;
+    }
 
-            kafkaTemplate.send(topic, logMap);
+    private Map<String, String> payload(LogRecord record) {
+        Map<String, String> payload = record.toPayload();
+        if (record.ex() != null && stackTraces.describe(record.ex(), System.currentTimeMillis(), payload)) {
+            tracesDeduplicated.increment();
+        }
+        return payload;
+    }
 
-        } catch (Exception e) {
-            System.err.println("Failed to send log to Kafka: " + e.getMessage());
+    // A record that fails to format or send is counted and skipped, so the rest of the batch
+    // still goes out
+    private void publish(LogRecord record) {
+        try {
+            sink.send(record.topic(), record.service(), System.currentTimeMillis(), payload(record));
+        } catch (RuntimeException e) {
+            failed.increment();
+            System.err.println("Failed to publish log record from " + record.service() + ": " + e);
         }
     }
 }
@@ -0,0 +1,186 @@
+package com.project.dawker.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Sends log records to the Kafka topics, keyed by service, so all of a service's records land
+// on one partition and the consumer sees them in order even when it reads partitions in parallel.
+// If Kafka fails a send, records go to the on-disk LogSpool instead of being lost, and keep
+// going there until a replay thread has sent everything spooled, oldest first. Ordering is
+// kept across the switch, except for records already in flight when Kafka went down: those
+// are spooled as their sends fail, behind anything newer that got through.
+@Component
+@ConditionalOnProperty(name = "dawker.logging.sink", havingValue = "kafka", matchIfMissing = true)
+public class KafkaLogSink implements LogSink {
+
+    private static final int REPLAY_BATCH = 256;
+
+    private final KafkaTemplate<String, Map<String, String>> kafkaTemplate;
+    // Null when records aren't spooled (tests, tools)
+    private final LogSpool spool;
+    private final long replayRetryMillis;
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter replayed;
+
+    // Set when a send fails; new records are spooled rather than sent until the spool is empty
+    private volatile boolean brokerDown;
+    private Thread replayThread;
+
+    @Autowired
+    public KafkaLogSink(KafkaTemplate<String, Map<String, String>> kafkaTemplate, LogSpool spool,
+                        @Value("${dawker.logging.kafka.spool.replay-retry:5s}") Duration replayRetry,
+                        MeterRegistry registry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.spool = spool;
+        this.replayRetryMillis = replayRetry.toMillis();
+        sent = counter(registry, "dawker.logging.kafka.sent", "Log records acknowledged by Kafka");
+        failed = counter(registry, "dawker.logging.kafka.failed", "Log records Kafka failed to accept");
+        replayed = counter(registry, "dawker.logging.kafka.spool.replayed", "Spooled log records sent once Kafka was back");
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String description) {
+        return Counter.builder(name).description(description).register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (spool != null) {
+            replayThread = new Thread(this::replayLoop, "kafka-log-replay");
+            replayThread.setDaemon(true);
+            replayThread.start();
+        }
+    }
+
+    // Whatever hasn't been replayed stays on disk for the next start
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (replayThread != null) {
+            replayThread.interrupt();
+            replayThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Override
+    public void send(String topic, String key, long timestampMillis, Map<String, String> payload) {
+        if (brokerDown && spool != null) {
+            // Rechecked under the spool's lock, where the replayer clears it
+            synchronized (spool) {
+                if (brokerDown && spool.append(topic, key, timestampMillis, payload)) {
+                    return;
+                }
+            }
+        }
+        try {
+            kafkaTemplate.send(topic, key, payload)
+                    .whenComplete((result, ex) -> {
+                        if (ex == null) {
+                            sent.increment();
+                        } else {
+                            failed(topic, key, timestampMillis, payload, ex);
+                        }
+                    });
+        } catch (Exception e) {
+            failed(topic, key, timestampMillis, payload, e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+
+    private void failed(String topic, String key, long timestamp, Map<String, String> payload, Throwable ex) {
+        if (spool != null) {
+            synchronized (spool) {
+                brokerDown = true;
+                if (spool.append(topic, key, timestamp, payload)) {
+                    return;
+                }
+            }
+        }
+        failed.increment();
+        System.err.println("Failed to send log to Kafka: " + ex.getMessage());
+    }
+
+    boolean isBrokerDown() {
+        return brokerDown;
+    }
+
+    private void replayLoop() {
+        while (true) {
+            try {
+                if (!replayBatch()) {
+                    Thread.sleep(replayRetryMillis);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Sends the oldest spooled records with their original key and timestamp, and drops the ones
+    // Kafka acknowledged in order. Anything after a failure is sent again next time, so a record
+    // can reach Kafka twice but never goes missing. True if everything in the batch went out.
+    boolean replayBatch() throws InterruptedException {
+        List<LogSpool.Entry> entries = spool.peek(REPLAY_BATCH);
+        if (entries.isEmpty()) {
+            // Only once it's drained: until then new records queue behind the spooled ones.
+            // Checked under the spool's lock so a failure spooling a record in the meantime
+            // keeps the flag set.
+            synchronized (spool) {
+                if (spool.size() == 0) {
+                    brokerDown = false;
+                }
+            }
+            return false;
+        }
+        List<CompletableFuture<?>> futures = new ArrayList<>(entries.size());
+        try {
+            for (LogSpool.Entry entry : entries) {
+                futures.add(kafkaTemplate.send(new ProducerRecord<>(entry.topic(), null, entry.timestamp(),
+                        entry.key(), entry.payload())));
+            }
+        } catch (Exception e) {
+            // Not connected; the futures already handed out are still waited on below
+        }
+        int delivered = 0;
+        try {
+            for (CompletableFuture<?> future : futures) {
+                future.get();
+                delivered++;
+            }
+        } catch (ExecutionException e) {
+            // The rest of the batch stays spooled
+        }
+        if (delivered > 0) {
+            // By position, not count: the drain thread may have evicted this batch's segment
+            spool.remove(entries.get(delivered - 1).next());
+        }
+        replayed.increment(delivered);
+        sent.increment(delivered);
+        if (delivered < entries.size()) {
+            brokerDown = true;
+            return false;
+        }
+        return true;
+    }
+}
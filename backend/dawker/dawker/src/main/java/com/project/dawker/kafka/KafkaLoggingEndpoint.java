@@ -0,0 +1,57 @@
+package com.project.dawker.kafka;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+// /actuator/kafkalogging: view and change the levels KafkaLogProducer ships, without a restart.
+//   GET                                  -> default level and every override
+//   POST   {"level":"DEBUG"}             -> change the default level
+//   POST   /topic/api-calls {"level":..} -> override one topic (same for /service/DawService)
+//   DELETE /topic/api-calls              -> drop that override
+// Not exposed over HTTP by default, and read-only when it is, unless
+// management.endpoint.kafkalogging.access=unrestricted (see application.properties).
+@Component
+@Endpoint(id = "kafkalogging")
+public class KafkaLoggingEndpoint {
+
+    private final KafkaLogProducer producer;
+
+    public KafkaLoggingEndpoint(KafkaLogProducer producer) {
+        this.producer = producer;
+    }
+
+    @ReadOperation
+    public LogLevelThresholds levels() {
+        return producer.getThresholds();
+    }
+
+    @WriteOperation
+    public LogLevelThresholds setDefault(LogLevel level) {
+        producer.setDefaultLevel(level);
+        return producer.getThresholds();
+    }
+
+    @WriteOperation
+    public LogLevelThresholds setOverride(@Selector String scope, @Selector String name, LogLevel level) {
+        apply(scope, name, level);
+        return producer.getThresholds();
+    }
+
+    @DeleteOperation
+    public LogLevelThresholds clearOverride(@Selector String scope, @Selector String name) {
+        apply(scope, name, null);
+        return producer.getThresholds();
+    }
+
+    private void apply(String scope, String name, LogLevel level) {
+        switch (scope) {
+            case "topic" -> producer.setTopicLevel(name, level);
+            case "service" -> producer.setServiceLevel(name, level);
+            default -> throw new IllegalArgumentException("Unknown scope '" + scope + "', expected topic or service");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.project.dawker.kafka;
+
+// Ordered from most to least verbose, so a level is enabled when it is >= the configured minimum
+public enum LogLevel {
+    TRACE, DEBUG, INFO, WARN, ERROR;
+
+    public boolean isAtLeast(LogLevel minimum) {
+        return ordinal() >= minimum.ordinal();
+    }
+}
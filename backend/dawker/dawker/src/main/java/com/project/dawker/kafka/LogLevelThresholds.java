@@ -0,0 +1,109 @@
+package com.project.dawker.kafka;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Immutable snapshot of the minimum levels KafkaLogProducer ships: a default, plus
+// optional overrides per topic and per service (a service override beats a topic override,
+// which beats the default). Changes build a new snapshot that replaces the old one, so the
+// hot path reads one volatile reference and never locks.
+//
+// floor is the lowest level any scope enables; anything below it is rejected without
+// looking at the override maps at all.
+public final class LogLevelThresholds {
+
+    private final LogLevel defaultLevel;
+    private final Map<String, LogLevel> byTopic;
+    private final Map<String, LogLevel> byService;
+    private final LogLevel floor;
+
+    public LogLevelThresholds(LogLevel defaultLevel, Map<String, LogLevel> byTopic, Map<String, LogLevel> byService) {
+        this.defaultLevel = defaultLevel;
+        this.byTopic = Collections.unmodifiableMap(new HashMap<>(byTopic));
+        this.byService = Collections.unmodifiableMap(new HashMap<>(byService));
+        LogLevel lowest = defaultLevel;
+        for (LogLevel level : this.byTopic.values()) {
+            if (!level.isAtLeast(lowest)) lowest = level;
+        }
+        for (LogLevel level : this.byService.values()) {
+            if (!level.isAtLeast(lowest)) lowest = level;
+        }
+        this.floor = lowest;
+    }
+
+    public static LogLevelThresholds of(LogLevel defaultLevel) {
+        return new LogLevelThresholds(defaultLevel, Map.of(), Map.of());
+    }
+
+    // Parses "api-calls:INFO,service-calls:DEBUG" style property values
+    static Map<String, LogLevel> parse(String spec) {
+        Map<String, LogLevel> levels = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return levels;
+        }
+        for (String entry : spec.split(",")) {
+            int colon = entry.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Expected name:LEVEL but got '" + entry.trim() + "'");
+            }
+            levels.put(entry.substring(0, colon).trim(), LogLevel.valueOf(entry.substring(colon + 1).trim().toUpperCase()));
+        }
+        return levels;
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.isAtLeast(floor);
+    }
+
+    public boolean isEnabled(String topic, LogLevel level, String service) {
+        if (!level.isAtLeast(floor)) {
+            return false;
+        }
+        return level.isAtLeast(levelFor(topic, service));
+    }
+
+    public LogLevel levelFor(String topic, String service) {
+        LogLevel level = service == null ? null : byService.get(service);
+        if (level == null && topic != null) {
+            level = byTopic.get(topic);
+        }
+        return level != null ? level : defaultLevel;
+    }
+
+    public LogLevelThresholds withDefault(LogLevel level) {
+        return new LogLevelThresholds(level, byTopic, byService);
+    }
+
+    // A null level removes the override
+    public LogLevelThresholds withTopic(String topic, LogLevel level) {
+        return new LogLevelThresholds(defaultLevel, with(byTopic, topic, level), byService);
+    }
+
+    public LogLevelThresholds withService(String service, LogLevel level) {
+        return new LogLevelThresholds(defaultLevel, byTopic, with(byService, service, level));
+    }
+
+    private static Map<String, LogLevel> with(Map<String, LogLevel> current, String key, LogLevel level) {
+        Map<String, LogLevel> copy = new HashMap<>(current);
+        if (level == null) {
+            copy.remove(key);
+        } else {
+            copy.put(key, level);
+        }
+        return copy;
+    }
+
+    public LogLevel getDefaultLevel() {
+        return defaultLevel;
+    }
+
+    public Map<String, LogLevel> getTopics() {
+        return byTopic;
+    }
+
+    public Map<String, LogLevel> getServices() {
+        return byService;
+    }
+}
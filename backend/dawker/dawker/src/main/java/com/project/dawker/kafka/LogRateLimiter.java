@@ -0,0 +1,228 @@
+package com.project.dawker.kafka;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Per (service, method, level) rate limits and sampling, configured by selector:
+//   rate-limits:       dawController.getDawById:DEBUG=5/s, DawService:INFO=100/s
+//   rate-limit.sample: dawController.getDawById:DEBUG=0.1   (fraction of records kept, 0..1)
+// A selector is service[.method][:LEVEL]; a missing part matches anything, and the most specific
+// match wins (method beats level, both beat neither). Every (service, method, level) a rule
+// matches gets its own bucket with that rule's settings.
+//
+// No locks on the hot path: each bucket is one AtomicLong updated by CAS (GCRA: the time the
+// next record is allowed, allowing a second's worth of burst), sampling uses ThreadLocalRandom,
+// and suppressed records are counted in a LongAdder until the drain thread reports them.
+final class LogRateLimiter {
+
+    static final LogRateLimiter NONE = new LogRateLimiter(Map.of(), System::nanoTime);
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final Bucket UNLIMITED = new Bucket(null, null, null, null);
+
+    record Rule(double perSecond, double sampleRate) {
+
+        Rule merge(Rule other) {
+            return new Rule(other.perSecond > 0 ? other.perSecond : perSecond,
+                    other.sampleRate < 1 ? other.sampleRate : sampleRate);
+        }
+    }
+
+    record Selector(String service, String method, LogLevel level) {
+
+        static Selector parse(String spec) {
+            String name = spec;
+            LogLevel level = null;
+            int colon = spec.lastIndexOf(':');
+            if (colon > 0) {
+                name = spec.substring(0, colon);
+                level = LogLevel.valueOf(spec.substring(colon + 1).trim().toUpperCase());
+            }
+            int dot = name.indexOf('.');
+            return dot > 0
+                    ? new Selector(name.substring(0, dot).trim(), name.substring(dot + 1).trim(), level)
+                    : new Selector(name.trim(), null, level);
+        }
+
+        // Higher is more specific; -1 when it doesn't match
+        int specificity(String service, String method, LogLevel level) {
+            if (!this.service.equals(service)
+                    || this.method != null && !this.method.equals(method)
+                    || this.level != null && this.level != level) {
+                return -1;
+            }
+            return (this.method != null ? 2 : 0) + (this.level != null ? 1 : 0);
+        }
+    }
+
+    // One (service, method, level): the GCRA state and what it has suppressed
+    static final class Bucket {
+        final String service;
+        final String method;
+        final LogLevel level;
+        final Rule rule;
+        private final long intervalNanos;
+        private final long burstNanos;
+        // When the bucket is next empty; a record is allowed while that is at most burstNanos ahead
+        private final AtomicLong allowedAt = new AtomicLong(Long.MIN_VALUE);
+        private final LongAdder suppressed = new LongAdder();
+        // Where the last suppressed record was going, for the summary
+        private volatile String topic;
+
+        Bucket(String service, String method, LogLevel level, Rule rule) {
+            this.service = service;
+            this.method = method;
+            this.level = level;
+            this.rule = rule;
+            this.intervalNanos = rule == null || rule.perSecond() <= 0 ? 0 : (long) (NANOS_PER_SECOND / rule.perSecond());
+            this.burstNanos = Math.max(intervalNanos, NANOS_PER_SECOND);
+        }
+
+        boolean tryAcquire(String topic, long nowNanos) {
+            if (rule.sampleRate() < 1 && ThreadLocalRandom.current().nextDouble() >= rule.sampleRate()) {
+                suppress(topic);
+                return false;
+            }
+            if (intervalNanos == 0) {
+                return true;
+            }
+            while (true) {
+                long current = allowedAt.get();
+                long next = Math.max(current, nowNanos) + intervalNanos;
+                if (next - nowNanos > burstNanos) {
+                    suppress(topic);
+                    return false;
+                }
+                if (allowedAt.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        private void suppress(String topic) {
+            suppressed.increment();
+            // Read before writing so a steady stream to one topic doesn't keep dirtying the cache line
+            if (this.topic != topic) {
+                this.topic = topic;
+            }
+        }
+
+        String topic() {
+            return topic;
+        }
+    }
+
+    interface SuppressedSink {
+        void suppressed(Bucket bucket, long count);
+    }
+
+    private final Map<Selector, Rule> rules;
+    private final LongSupplier nanoClock;
+    // service -> method -> bucket per level, filled in as (service, method, level)s show up
+    private final Map<String, Map<String, AtomicReferenceArray<Bucket>>> buckets = new ConcurrentHashMap<>();
+
+    LogRateLimiter(Map<Selector, Rule> rules, LongSupplier nanoClock) {
+        this.rules = Map.copyOf(rules);
+        this.nanoClock = nanoClock;
+    }
+
+    static LogRateLimiter parse(String rateLimits, String sampleFractions) {
+        return parse(rateLimits, sampleFractions, System::nanoTime);
+    }
+
+    static LogRateLimiter parse(String rateLimits, String sampleFractions, LongSupplier nanoClock) {
+        Map<Selector, Rule> rules = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : entries(rateLimits).entrySet()) {
+            String value = entry.getValue();
+            if (!value.endsWith("/s")) {
+                throw new IllegalArgumentException("Expected a rate like 5/s but got '" + value + "'");
+            }
+            double perSecond = Double.parseDouble(value.substring(0, value.length() - 2).trim());
+            if (perSecond <= 0) {
+                throw new IllegalArgumentException("Rate must be positive but got '" + value + "'; use min-level to turn logs off");
+            }
+            rules.merge(Selector.parse(entry.getKey()), new Rule(perSecond, 1), Rule::merge);
+        }
+        for (Map.Entry<String, String> entry : entries(sampleFractions).entrySet()) {
+            double rate = Double.parseDouble(entry.getValue());
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("Sample fraction must be between 0 and 1 but got " + rate);
+            }
+            rules.merge(Selector.parse(entry.getKey()), new Rule(0, rate), Rule::merge);
+        }
+        return rules.isEmpty() ? NONE : new LogRateLimiter(rules, nanoClock);
+    }
+
+    // "selector=value, selector=value"
+    private static Map<String, String> entries(String spec) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return entries;
+        }
+        for (String entry : spec.split(",")) {
+            int equals = entry.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Expected selector=value but got '" + entry.trim() + "'");
+            }
+            entries.put(entry.substring(0, equals).trim(), entry.substring(equals + 1).trim());
+        }
+        return entries;
+    }
+
+    boolean tryAcquire(String topic, String service, String method, LogLevel level) {
+        if (rules.isEmpty()) {
+            return true;
+        }
+        Bucket bucket = bucket(service == null ? "" : service, method == null ? "" : method, level);
+        return bucket == UNLIMITED || bucket.tryAcquire(topic, nanoClock.getAsLong());
+    }
+
+    // Hands over and resets every bucket's suppressed count
+    void drainSuppressed(SuppressedSink sink) {
+        for (Map<String, AtomicReferenceArray<Bucket>> methods : buckets.values()) {
+            for (AtomicReferenceArray<Bucket> levels : methods.values()) {
+                for (int i = 0; i < levels.length(); i++) {
+                    Bucket bucket = levels.get(i);
+                    if (bucket != null && bucket != UNLIMITED) {
+                        long count = bucket.suppressed.sumThenReset();
+                        if (count > 0) {
+                            sink.suppressed(bucket, count);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private Bucket bucket(String service, String method, LogLevel level) {
+        AtomicReferenceArray<Bucket> levels = buckets
+                .computeIfAbsent(service, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, m -> new AtomicReferenceArray<>(LogLevel.values().length));
+        Bucket bucket = levels.get(level.ordinal());
+        if (bucket == null) {
+            Rule rule = ruleFor(service, method, level);
+            Bucket created = rule == null ? UNLIMITED : new Bucket(service, method, level, rule);
+            bucket = levels.compareAndSet(level.ordinal(), null, created) ? created : levels.get(level.ordinal());
+        }
+        return bucket;
+    }
+
+    private Rule ruleFor(String service, String method, LogLevel level) {
+        Rule best = null;
+        int bestSpecificity = -1;
+        for (Map.Entry<Selector, Rule> entry : rules.entrySet()) {
+            int specificity = entry.getKey().specificity(service, method, level);
+            if (specificity > bestSpecificity) {
+                best = entry.getValue();
+                bestSpecificity = specificity;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.dawker.kafka;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// What a request thread hands to the ring buffer. The Kafka payload map is only built on
+// the drain thread, which adds the exception fields through StackTraceDeduplicator.
+record LogRecord(String topic, LogLevel level, String message, String service, String method, Throwable ex) {
+
+    Map<String, String> toPayload() {
+        Map<String, String> logMap = new HashMap<>();
+        logMap.put("service", service);
+        logMap.put("method", method);
+        logMap.put("level", level.name());
+        logMap.put("message", message);
+        return logMap;
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.dawker.kafka;
+
+import java.util.Map;
+
+import com.revature.logging.LogRecordCodec;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+// Value serializer for the log topics, writing LogRecordCodec's binary format instead of a JSON
+// map. The consumer reads both, so setting spring.kafka.producer.value-serializer back to
+// JacksonJsonSerializer is enough to return to the old format.
+public class LogRecordSerializer implements Serializer<Map<String, String>> {
+
+    @Override
+    public byte[] serialize(String topic, Map<String, String> data) {
+        return data == null ? null : LogRecordCodec.encode(data);
+    }
+}
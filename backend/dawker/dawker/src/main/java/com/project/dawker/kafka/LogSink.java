@@ -0,0 +1,20 @@
+package com.project.dawker.kafka;
+
+import java.util.Map;
+
+// Where KafkaLogProducer's drain thread hands each record. dawker.logging.sink picks it:
+// "kafka" (default) sends to the log topics for the log consumer (KafkaLogSink), "in-process"
+// formats and writes the log consumer's level files right here (InProcessLogSink), for
+// single-box deployments that don't run Kafka.
+// Only ever called from the drain thread, so implementations needn't be thread safe for send.
+public interface LogSink {
+
+    void send(String topic, String key, long timestampMillis, Map<String, String> payload);
+
+    // After each drained batch, for sinks that write in batches
+    default void endOfBatch() {
+    }
+
+    // At shutdown, once the drain thread has sent everything left
+    void flush();
+}
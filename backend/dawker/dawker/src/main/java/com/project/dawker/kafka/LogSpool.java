@@ -0,0 +1,312 @@
+package com.project.dawker.kafka;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.revature.logging.LogRecordCodec;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// Append-only on-disk queue for log records Kafka couldn't take, so a broker outage doesn't
+// lose them. KafkaLogProducer appends while the broker is down and replays oldest-first once
+// it is back. Only used by KafkaLogSink.
+//
+// The spool is a run of fixed-size, memory-mapped segment files (spool-000001.dat, ...):
+//   int  magic
+//   int  read offset   how far this segment has been replayed, so a restart doesn't resend it
+//   entries           int length (0 = end), long timestamp, topic, key, LogRecordCodec payload
+// An append writes its body, then a zero length after it as the end marker, and only then its
+// own length over the previous marker, so a crash mid-append leaves that marker in place.
+// Disk use is capped at max-bytes: when a new segment would exceed it, the oldest segment is
+// deleted with whatever it still held (counted as evicted).
+//
+// Every peeked entry carries the position just past it (segment sequence and offset), and
+// remove() takes such a position rather than a count. A segment evicted while its entries were
+// being replayed then just stays gone, instead of the count being taken from the next one.
+//
+// Appends come from the drain thread and Kafka's callback thread, reads from the replayer,
+// so everything is synchronized; none of it is on the request path.
+@Component
+@ConditionalOnProperty(name = "dawker.logging.sink", havingValue = "kafka", matchIfMissing = true)
+public class LogSpool {
+
+    private static final int MAGIC = 0x4C535031; // "LSP1"
+    private static final int HEADER_BYTES = 8;
+    private static final int READ_OFFSET_AT = 4;
+    private static final String PREFIX = "spool-";
+    private static final String SUFFIX = ".dat";
+
+    // Where the spool resumes after an entry: offset in the segment with this sequence
+    record Position(int sequence, int offset) {
+    }
+
+    record Entry(String topic, String key, long timestamp, Map<String, String> payload, Position next) {
+    }
+
+    private static final class Segment {
+        final Path file;
+        final int sequence;
+        final MappedByteBuffer buffer;
+        int writeAt;
+
+        Segment(Path file, int sequence, MappedByteBuffer buffer) {
+            this.file = file;
+            this.sequence = sequence;
+            this.buffer = buffer;
+        }
+
+        int readAt() {
+            return buffer.getInt(READ_OFFSET_AT);
+        }
+    }
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long pending;
+
+    private final Counter spooled;
+    private final Counter evicted;
+    private final Counter rejected;
+
+    @Autowired
+    public LogSpool(@Value("${dawker.logging.kafka.spool.dir:log-spool}") String dir,
+                    @Value("${dawker.logging.kafka.spool.segment-bytes:4194304}") int segmentBytes,
+                    @Value("${dawker.logging.kafka.spool.max-bytes:67108864}") long maxBytes,
+                    MeterRegistry registry) throws IOException {
+        this(Paths.get(dir), segmentBytes, maxBytes, registry);
+    }
+
+    LogSpool(Path dir, int segmentBytes, long maxBytes, MeterRegistry registry) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = (int) Math.max(2, maxBytes / segmentBytes);
+        Files.createDirectories(dir);
+        recover();
+
+        Gauge.builder("dawker.logging.kafka.spool.pending", this, LogSpool::size)
+                .description("Log records spooled to disk, waiting for Kafka")
+                .register(registry);
+        spooled = Counter.builder("dawker.logging.kafka.spool.spooled")
+                .description("Log records written to the spool while Kafka was unavailable")
+                .register(registry);
+        evicted = Counter.builder("dawker.logging.kafka.spool.evicted")
+                .description("Spooled log records deleted unsent because the spool was full")
+                .register(registry);
+        rejected = Counter.builder("dawker.logging.kafka.spool.rejected")
+                .description("Log records too large for a spool segment, or that failed to write")
+                .register(registry);
+    }
+
+    public synchronized long size() {
+        return pending;
+    }
+
+    public synchronized boolean append(String topic, String key, long timestamp, Map<String, String> payload) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        byte[] keyBytes = key == null ? null : key.getBytes(StandardCharsets.UTF_8);
+        byte[] body = LogRecordCodec.encode(payload);
+        int length = Long.BYTES + Short.BYTES + topicBytes.length + Short.BYTES
+                + (keyBytes == null ? 0 : keyBytes.length) + body.length;
+        // Room for this entry's length and the next entry's end marker
+        if (HEADER_BYTES + length + 2 * Integer.BYTES > segmentBytes) {
+            rejected.increment();
+            return false;
+        }
+
+        try {
+            Segment tail = segments.peekLast();
+            if (tail == null || tail.writeAt + Integer.BYTES + length + Integer.BYTES > segmentBytes) {
+                tail = roll();
+            }
+            MappedByteBuffer buffer = tail.buffer;
+            int at = tail.writeAt;
+            buffer.position(at + Integer.BYTES);
+            buffer.putLong(timestamp);
+            buffer.putShort((short) topicBytes.length).put(topicBytes);
+            if (keyBytes == null) {
+                buffer.putShort((short) -1);
+            } else {
+                buffer.putShort((short) keyBytes.length).put(keyBytes);
+            }
+            buffer.put(body);
+            // End marker first, then the length that makes the entry visible. The marker matters
+            // once a segment is recovered: a crash mid-append may have left bytes past its end.
+            buffer.putInt(at + Integer.BYTES + length, 0);
+            buffer.putInt(at, length);
+            tail.writeAt = at + Integer.BYTES + length;
+        } catch (IOException e) {
+            System.err.println("Failed to spool log record: " + e.getMessage());
+            rejected.increment();
+            return false;
+        }
+        pending++;
+        spooled.increment();
+        return true;
+    }
+
+    // Up to max of the oldest entries, without removing them
+    public synchronized List<Entry> peek(int max) {
+        List<Entry> entries = new ArrayList<>(Math.min(max, 256));
+        for (Segment segment : segments) {
+            int at = segment.readAt();
+            while (entries.size() < max && at < segment.writeAt) {
+                int next = at + Integer.BYTES + segment.buffer.getInt(at);
+                entries.add(read(segment.buffer, at, new Position(segment.sequence, next)));
+                at = next;
+            }
+            if (entries.size() == max) {
+                break;
+            }
+        }
+        return entries;
+    }
+
+    // Drops every entry up to upTo (an Entry.next from peek) once they're in Kafka; finished
+    // segments are deleted. Segments after upTo's are left alone, and if upTo's own segment was
+    // evicted in the meantime there is nothing left to drop.
+    public synchronized void remove(Position upTo) {
+        while (!segments.isEmpty()) {
+            Segment head = segments.peekFirst();
+            if (head.sequence > upTo.sequence()) {
+                break;
+            }
+            // A segment before upTo's was read to its end: it wasn't the tail when peeked
+            int end = head.sequence < upTo.sequence() ? head.writeAt : Math.min(upTo.offset(), head.writeAt);
+            int at = head.readAt();
+            while (at < end) {
+                at += Integer.BYTES + head.buffer.getInt(at);
+                pending--;
+            }
+            head.buffer.putInt(READ_OFFSET_AT, at);
+            if (at >= head.writeAt && head != segments.peekLast()) {
+                delete(segments.pollFirst());
+            } else {
+                break;
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    private Segment roll() throws IOException {
+        if (segments.size() >= maxSegments) {
+            Segment oldest = segments.pollFirst();
+            long lost = count(oldest);
+            pending -= lost;
+            evicted.increment(lost);
+            delete(oldest);
+        }
+        int sequence = segments.isEmpty() ? 1 : segments.peekLast().sequence + 1;
+        Segment segment = open(dir.resolve(String.format("%s%06d%s", PREFIX, sequence, SUFFIX)), sequence);
+        segment.buffer.putInt(0, MAGIC);
+        segment.buffer.putInt(READ_OFFSET_AT, HEADER_BYTES);
+        segment.writeAt = HEADER_BYTES;
+        segments.addLast(segment);
+        return segment;
+    }
+
+    // Picks up segments left by a previous run, finding each one's end by walking its entries
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            int sequence = Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+            Segment segment = open(file, sequence);
+            if (segment.buffer.getInt(0) != MAGIC) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            int at = HEADER_BYTES;
+            while (at + Integer.BYTES <= segmentBytes) {
+                int length = segment.buffer.getInt(at);
+                if (length <= 0 || at + Integer.BYTES + length > segmentBytes) {
+                    break;
+                }
+                at += Integer.BYTES + length;
+            }
+            segment.writeAt = at;
+            segments.addLast(segment);
+            pending += count(segment);
+        }
+    }
+
+    private Segment open(Path file, int sequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return new Segment(file, sequence, buffer);
+        }
+    }
+
+    private static long count(Segment segment) {
+        long count = 0;
+        for (int at = segment.readAt(); at < segment.writeAt; at += Integer.BYTES + segment.buffer.getInt(at)) {
+            count++;
+        }
+        return count;
+    }
+
+    // The mapping itself is released when the buffer is collected
+    private static void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            System.err.println("Could not delete spool segment " + segment.file + ": " + e.getMessage());
+        }
+    }
+
+    private static Entry read(MappedByteBuffer buffer, int at, Position next) {
+        int length = buffer.getInt(at);
+        int position = at + Integer.BYTES;
+        long timestamp = buffer.getLong(position);
+        position += Long.BYTES;
+        String topic = string(buffer, position, buffer.getShort(position));
+        position += Short.BYTES + buffer.getShort(position);
+        short keyLength = buffer.getShort(position);
+        String key = keyLength < 0 ? null : string(buffer, position, keyLength);
+        position += Short.BYTES + Math.max(0, keyLength);
+        byte[] body = new byte[at + Integer.BYTES + length - position];
+        buffer.get(position, body);
+        return new Entry(topic, key, timestamp, LogRecordCodec.decode(body), next);
+    }
+
+    private static String string(MappedByteBuffer buffer, int lengthAt, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(lengthAt + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
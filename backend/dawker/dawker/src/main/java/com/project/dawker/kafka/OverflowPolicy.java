@@ -0,0 +1,11 @@
+package com.project.dawker.kafka;
+
+// What KafkaLogProducer does when the ring buffer is backing up. Neither option ever
+// blocks the calling thread.
+public enum OverflowPolicy {
+    // Enqueue everything until the buffer is full, then drop new records
+    DROP,
+    // Past the high-water mark keep only 1 in sample-rate TRACE/DEBUG/INFO records
+    // (WARN and ERROR are always kept), and drop once the buffer is full
+    SAMPLE
+}
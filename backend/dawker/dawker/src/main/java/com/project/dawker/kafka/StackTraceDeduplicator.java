@@ -0,0 +1,85 @@
+package com.project.dawker.kafka;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+// Ships each distinct stack trace once per window. A trace is fingerprinted by its exception
+// classes and frames (cause chain included, messages left out, since they often carry ids), and:
+//   first time in the window: exception = full stack trace, fingerprint
+//   after that:               exception = "Class: message" only, fingerprint, repeat = nth occurrence
+// The log consumer keeps a fingerprint -> trace dictionary from the first ones.
+// Only used from the drain thread, so nothing here is synchronized.
+final class StackTraceDeduplicator {
+
+    private static final int MAX_CAUSES = 16;
+
+    private final long windowMillis;
+    private final Map<String, Seen> seen;
+
+    private static final class Seen {
+        long sentAt;
+        int occurrences;
+    }
+
+    StackTraceDeduplicator(Duration window, int maxFingerprints) {
+        this.windowMillis = window.toMillis();
+        // Least recently seen fingerprints go first once full
+        this.seen = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Seen> eldest) {
+                return size() > maxFingerprints;
+            }
+        };
+    }
+
+    // Adds the exception fields to the payload; true if the full trace was left out
+    boolean describe(Throwable ex, long nowMillis, Map<String, String> payload) {
+        String fingerprint = fingerprint(ex);
+        payload.put("fingerprint", fingerprint);
+
+        Seen entry = seen.get(fingerprint);
+        if (entry == null || nowMillis - entry.sentAt >= windowMillis) {
+            if (entry == null) {
+                entry = new Seen();
+                seen.put(fingerprint, entry);
+            }
+            entry.sentAt = nowMillis;
+            entry.occurrences = 1;
+            payload.put("exception", ExceptionUtils.getStackTrace(ex));
+            return false;
+        }
+        entry.occurrences++;
+        payload.put("exception", ex.toString());
+        payload.put("repeat", Integer.toString(entry.occurrences));
+        return true;
+    }
+
+    static String fingerprint(Throwable ex) {
+        long hash = 0xcbf29ce484222325L;
+        Throwable current = ex;
+        for (int depth = 0; current != null && depth < MAX_CAUSES; depth++) {
+            hash = mix(hash, current.getClass().getName().hashCode());
+            for (StackTraceElement frame : current.getStackTrace()) {
+                hash = mix(hash, frame.getClassName().hashCode());
+                hash = mix(hash, frame.getMethodName().hashCode());
+                hash = mix(hash, frame.getLineNumber());
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        // murmur3 finalizer, so nearby inputs don't give nearby fingerprints
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        String hex = Long.toHexString(hash);
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * 0x100000001b3L;
+    }
+}
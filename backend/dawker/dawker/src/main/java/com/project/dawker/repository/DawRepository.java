@@ -1,14 +1,23 @@
 package com.project.dawker.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.project.dawker.entity.daw_specific.ConfigEntity;
 import com.project.dawker.entity.daw_specific.DawEntity;
+import com.project.dawker.repository.interfaces.DawSummary;
+
+import jakarta.persistence.LockModeType;
 
 @Repository
 public interface DawRepository extends JpaRepository<DawEntity, String> {
@@ -51,4 +60,61 @@ public interface DawRepository extends JpaRepository<DawEntity, String> {
         WHERE d.user.id = :userId
         """)
     Optional<DawEntity> findFullRigForUser(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    // Full editor tree (DAW -> configs -> components -> settings) in two statements.
+    // Both collections are Lists (bags), and Hibernate refuses to join fetch two bags
+    // in one query, so the tree is loaded in two passes that share a persistence
+    // context: the DAW with its configs, then every config's components + settings.
+    // Going through findById instead walks the tree lazily, which costs
+    // 1 + configs + components round trips.
+    @EntityGraph(value = "DawEntity.withConfigs")
+    @Query("SELECT d FROM DawEntity d WHERE d.id = :dawId")
+    Optional<DawEntity> findWithConfigsById(@Param("dawId") String dawId);
+
+    @Query("""
+        SELECT c FROM ConfigEntity c
+        LEFT JOIN FETCH c.components comp
+        LEFT JOIN FETCH comp.settings
+        WHERE c.daw.id = :dawId
+        """)
+    List<ConfigEntity> fetchComponentsForDaw(@Param("dawId") String dawId);
+
+    @Transactional(readOnly = true)
+    default Optional<DawEntity> findFullTreeById(String dawId) {
+        Optional<DawEntity> daw = findWithConfigsById(dawId);
+        // Populates the components of the configs already attached to the DAW
+        daw.ifPresent(d -> fetchComponentsForDaw(dawId));
+        return daw;
+    }
+
+    // Just the owner's id, for checks that don't need the DAW itself
+    @Query("SELECT d.user.id FROM DawEntity d WHERE d.id = :dawId")
+    Optional<Long> findOwnerIdById(@Param("dawId") String dawId);
+
+    // Row lock on the DAW until the transaction ends. Every save of an existing DAW takes it
+    // first, so an explicit save and an autosave flush of the same DAW run one after the other.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d.id FROM DawEntity d WHERE d.id = :dawId")
+    Optional<String> lockById(@Param("dawId") String dawId);
+
+    // Keyset-paginated listing, newest first. (createdAt, id) is the sort key, so a page
+    // starts strictly after the last row of the previous one no matter how deep the scroll is.
+    // Pass PageRequest.of(0, size) to cap the page; no count query is issued.
+    @Query("""
+        SELECT d.id AS dawId, d.user.id AS userId, d.name AS name, d.description AS description,
+               d.createdAt AS createdAt, d.exportCount AS exportCount
+        FROM DawEntity d
+        ORDER BY d.createdAt DESC, d.id DESC
+        """)
+    List<DawSummary> findSummaries(Pageable pageable);
+
+    @Query("""
+        SELECT d.id AS dawId, d.user.id AS userId, d.name AS name, d.description AS description,
+               d.createdAt AS createdAt, d.exportCount AS exportCount
+        FROM DawEntity d
+        WHERE d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :dawId)
+        ORDER BY d.createdAt DESC, d.id DESC
+        """)
+    List<DawSummary> findSummariesAfter(@Param("createdAt") LocalDateTime createdAt, @Param("dawId") String dawId,
+            Pageable pageable);
+}
@@ -1,11 +1,24 @@
 package com.project.dawker.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import com.project.dawker.entity.daw_specific.RatingsComment;
+import com.project.dawker.repository.dto.RatingsCommentExportDTO;
+import com.project.dawker.repository.interfaces.RatingsCommentSummary;
 
 @Repository
 public interface RatingsCommentRepository extends JpaRepository<RatingsComment, Long> {
@@ -13,4 +26,39 @@ public interface RatingsCommentRepository extends JpaRepository<RatingsComment,
     Optional<RatingsComment> findByUserIdAndDawId(Long userId, String dawId);
 
     Optional<RatingsComment> findFirstByUserIdOrderByCreatedAtDesc(Long userId);
-}
\ No newline at end of file
+
+    // Keyset-paginated comments of one ratings page, newest first, on (createdAt, id): each page
+    // is a range read of the (ratings_page_id, created_at, id) index, however deep the scroll.
+    // Pass PageRequest.of(0, size) to cap the page; no count query is issued.
+    @Query("""
+        SELECT c.id AS id, c.userId AS userId, c.username AS username, c.rating AS rating,
+               c.comment AS comment, c.createdAt AS createdAt
+        FROM RatingsComment c
+        WHERE c.ratingsPage.id = :pageId
+        ORDER BY c.createdAt DESC, c.id DESC
+        """)
+    List<RatingsCommentSummary> findSummaries(@Param("pageId") Long pageId, Pageable pageable);
+
+    @Query("""
+        SELECT c.id AS id, c.userId AS userId, c.username AS username, c.rating AS rating,
+               c.comment AS comment, c.createdAt AS createdAt
+        FROM RatingsComment c
+        WHERE c.ratingsPage.id = :pageId
+          AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))
+        ORDER BY c.createdAt DESC, c.id DESC
+        """)
+    List<RatingsCommentSummary> findSummariesAfter(@Param("pageId") Long pageId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    // Every comment for the NDJSON export, read through a database cursor 500 rows
+    // at a time. The page id comes from the foreign key, so no page is loaded or joined.
+    // Must be consumed inside a transaction, and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.project.dawker.repository.dto.RatingsCommentExportDTO(
+            c.id, c.ratingsPage.id, c.dawId, c.userId, c.username, c.rating, c.comment, c.createdAt)
+        FROM RatingsComment c
+        ORDER BY c.id
+        """)
+    Stream<RatingsCommentExportDTO> streamExport();
+}
@@ -1,14 +1,88 @@
 package com.project.dawker.repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 import com.project.dawker.entity.daw_specific.RatingsPage;
+import com.project.dawker.repository.dto.RatingsPageExportDTO;
+import com.project.dawker.repository.interfaces.RatingsPageStanding;
 
 @Repository
 public interface RatingsPageRepository extends JpaRepository<RatingsPage, Long> {
 
     Optional<RatingsPage> findByDawId(String dawId);
-}
\ No newline at end of file
+
+    @Query("SELECT p.id FROM RatingsPage p WHERE p.dawId = :dawId")
+    Optional<Long> findIdByDawId(@Param("dawId") String dawId);
+
+    // Locks the page row until the transaction ends (SELECT ... FOR UPDATE), so raters of the
+    // same DAW take turns between checking for an existing rating and writing theirs
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM RatingsPage p WHERE p.id = :id")
+    Optional<RatingsPage> lockById(@Param("id") Long id);
+
+    // Totals of every page with at least one rating; three columns per row, no comments
+    @Query("SELECT p.dawId AS dawId, p.ratingSum AS ratingSum, p.ratingCount AS ratingCount FROM RatingsPage p WHERE p.ratingCount > 0")
+    List<RatingsPageStanding> findStandings();
+
+    // Every page's aggregate for the NDJSON export, read through a database cursor 500 rows
+    // at a time. The rows are DTOs, not managed entities, so nothing builds up in the
+    // persistence context. Must be consumed inside a transaction, and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.project.dawker.repository.dto.RatingsPageExportDTO(
+            p.id, p.dawId, p.rating, p.ratingCount, p.stars1, p.stars2, p.stars3, p.stars4, p.stars5)
+        FROM RatingsPage p
+        ORDER BY p.id
+        """)
+    Stream<RatingsPageExportDTO> streamExport();
+
+    // Adds one rating to the page's running totals in a single UPDATE: the right-hand sides
+    // read the row as it was, and the row lock serializes concurrent raters, so none is lost.
+    // stars is the 1..5 bucket the rating falls in. Returns the number of pages updated.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE RatingsPage p
+        SET p.ratingSum = p.ratingSum + :rating,
+            p.ratingCount = p.ratingCount + 1,
+            p.rating = (p.ratingSum + :rating) / (p.ratingCount + 1),
+            p.stars1 = p.stars1 + CASE WHEN :stars = 1 THEN 1 ELSE 0 END,
+            p.stars2 = p.stars2 + CASE WHEN :stars = 2 THEN 1 ELSE 0 END,
+            p.stars3 = p.stars3 + CASE WHEN :stars = 3 THEN 1 ELSE 0 END,
+            p.stars4 = p.stars4 + CASE WHEN :stars = 4 THEN 1 ELSE 0 END,
+            p.stars5 = p.stars5 + CASE WHEN :stars = 5 THEN 1 ELSE 0 END
+        WHERE p.id = :id
+        """)
+    int addRating(@Param("id") Long id, @Param("rating") double rating, @Param("stars") int stars);
+
+    // Replaces a rating already counted on the page: the count stays, the sum and average move
+    // by the difference, and the rating moves from the oldStars bucket to newStars.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE RatingsPage p
+        SET p.ratingSum = p.ratingSum - :oldRating + :newRating,
+            p.rating = (p.ratingSum - :oldRating + :newRating) / p.ratingCount,
+            p.stars1 = p.stars1 - CASE WHEN :oldStars = 1 THEN 1 ELSE 0 END + CASE WHEN :newStars = 1 THEN 1 ELSE 0 END,
+            p.stars2 = p.stars2 - CASE WHEN :oldStars = 2 THEN 1 ELSE 0 END + CASE WHEN :newStars = 2 THEN 1 ELSE 0 END,
+            p.stars3 = p.stars3 - CASE WHEN :oldStars = 3 THEN 1 ELSE 0 END + CASE WHEN :newStars = 3 THEN 1 ELSE 0 END,
+            p.stars4 = p.stars4 - CASE WHEN :oldStars = 4 THEN 1 ELSE 0 END + CASE WHEN :newStars = 4 THEN 1 ELSE 0 END,
+            p.stars5 = p.stars5 - CASE WHEN :oldStars = 5 THEN 1 ELSE 0 END + CASE WHEN :newStars = 5 THEN 1 ELSE 0 END
+        WHERE p.id = :id
+        """)
+    int changeRating(@Param("id") Long id, @Param("oldRating") double oldRating, @Param("newRating") double newRating,
+                     @Param("oldStars") int oldStars, @Param("newStars") int newStars);
+}
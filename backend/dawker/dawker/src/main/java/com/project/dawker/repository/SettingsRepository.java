@@ -0,0 +1,10 @@
+package com.project.dawker.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.project.dawker.entity.daw_specific.SettingsEntity;
+
+@Repository
+public interface SettingsRepository extends JpaRepository<SettingsEntity, Long>, SettingsRepositoryCustom {
+}
@@ -0,0 +1,9 @@
+package com.project.dawker.repository;
+
+public interface SettingsRepositoryCustom {
+
+    // Applies a JSON merge patch (RFC 7386, top-level keys) to one component's parameters:
+    // non-null keys are merged in, keys patched to null are removed.
+    // Returns the number of settings rows touched, 0 if the component isn't in this DAW.
+    int mergeParameters(String dawId, String instanceId, String patch);
+}
@@ -0,0 +1,85 @@
+package com.project.dawker.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.dawker.entity.daw_specific.SettingsEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+// On PostgreSQL the merge runs in place with jsonb operators, without loading the DAW tree:
+// || sets every key in the patch (a null one to JSON null), then the keys whose patch value is
+// null are removed. Only top-level keys; nulls nested inside a value are stored as sent.
+// Other databases (H2 in the tests) load the matching settings rows and merge them in Java,
+// which gives the same result in an extra query.
+class SettingsRepositoryCustomImpl implements SettingsRepositoryCustom {
+
+    private static final String MERGE_JSONB = """
+        UPDATE settings_entity s
+        SET parameters = (COALESCE(s.parameters, CAST('{}' AS jsonb)) || CAST(:patch AS jsonb))
+                         - ARRAY(SELECT p.key FROM jsonb_each(CAST(:patch AS jsonb)) p WHERE p.value = CAST('null' AS jsonb))
+        FROM component_entity c
+        JOIN config_entity cfg ON cfg.id = c.config_id
+        WHERE c.settings_id = s.id
+          AND cfg.daw_id = :dawId
+          AND c.instance_id = :instanceId
+        """;
+
+    private static final TypeReference<Map<String, Object>> PATCH = new TypeReference<>() {
+    };
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Boolean postgres;
+
+    @Override
+    @Transactional
+    public int mergeParameters(String dawId, String instanceId, String patch) {
+        if (isPostgres()) {
+            return entityManager.createNativeQuery(MERGE_JSONB)
+                    .setParameter("dawId", dawId)
+                    .setParameter("instanceId", instanceId)
+                    .setParameter("patch", patch)
+                    .executeUpdate();
+        }
+
+        List<SettingsEntity> rows = entityManager.createQuery("""
+                SELECT c.settings FROM ComponentEntity c
+                WHERE c.config.daw.id = :dawId AND c.instanceId = :instanceId
+                """, SettingsEntity.class)
+                .setParameter("dawId", dawId)
+                .setParameter("instanceId", instanceId)
+                .getResultList();
+        Map<String, Object> changes = JsonMapper.shared().readValue(patch, PATCH);
+        for (SettingsEntity settings : rows) {
+            Map<String, Object> parameters = settings.getParameters() == null
+                    ? new HashMap<>() : new HashMap<>(settings.getParameters());
+            changes.forEach((key, value) -> {
+                if (value == null) {
+                    parameters.remove(key);
+                } else {
+                    parameters.put(key, value);
+                }
+            });
+            settings.setParameters(parameters);
+        }
+        return rows.size();
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgres;
+    }
+}
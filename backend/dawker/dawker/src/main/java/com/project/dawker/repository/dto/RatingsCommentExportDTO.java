@@ -0,0 +1,15 @@
+package com.project.dawker.repository.dto;
+
+import java.time.LocalDateTime;
+
+// One line of the ratings comment NDJSON export
+public record RatingsCommentExportDTO(
+    Long id,
+    Long ratingsPageId,
+    String dawId,
+    Long userId,
+    String username,
+    double rating,
+    String comment,
+    LocalDateTime createdAt
+) {}
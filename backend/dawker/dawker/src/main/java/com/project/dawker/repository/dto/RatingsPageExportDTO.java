@@ -0,0 +1,14 @@
+package com.project.dawker.repository.dto;
+
+// One line of the ratings page NDJSON export: the page's aggregate, without its comments
+public record RatingsPageExportDTO(
+    Long id,
+    String dawId,
+    double rating,
+    long ratingCount,
+    long stars1,
+    long stars2,
+    long stars3,
+    long stars4,
+    long stars5
+) {}
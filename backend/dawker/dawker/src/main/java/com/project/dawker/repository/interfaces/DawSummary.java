@@ -0,0 +1,14 @@
+package com.project.dawker.repository.interfaces;
+
+import java.time.LocalDateTime;
+
+// Listing row for the DAW search page. Only the header columns are selected,
+// the config/component/settings tree is loaded on /search/daw.
+public interface DawSummary {
+    String getDawId();
+    Long getUserId();
+    String getName();
+    String getDescription();
+    LocalDateTime getCreatedAt();
+    int getExportCount();
+}
@@ -0,0 +1,14 @@
+package com.project.dawker.repository.interfaces;
+
+import java.time.LocalDateTime;
+
+// One review on a DAW's ratings page, as listed page by page under the page header.
+// id is only there as the keyset tie-breaker for comments with the same createdAt.
+public interface RatingsCommentSummary {
+    Long getId();
+    Long getUserId();
+    String getUsername();
+    double getRating();
+    String getComment();
+    LocalDateTime getCreatedAt();
+}
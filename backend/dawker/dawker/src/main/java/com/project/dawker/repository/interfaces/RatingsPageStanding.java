@@ -0,0 +1,8 @@
+package com.project.dawker.repository.interfaces;
+
+// A rated DAW's running totals, all the leaderboard needs to score it
+public interface RatingsPageStanding {
+    String getDawId();
+    double getRatingSum();
+    long getRatingCount();
+}
@@ -0,0 +1,136 @@
+package com.project.dawker.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.project.dawker.dto.dawDTO;
+import com.project.dawker.exception.UserNotFoundException;
+import com.project.dawker.exceptions.dawNotFoundException;
+import com.project.dawker.kafka.KafkaLogProducer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// Write-behind autosave. Edits land in DawWriteBehindBuffer and are written through
+// DawService on a fixed interval, or early once too many DAWs are pending, so frequent
+// autosaves never wait on a cascade flush. The early flush is handed to the task scheduler too,
+// never run on the request thread that crossed the threshold. Whatever is still pending is
+// flushed on shutdown.
+@Service
+public class DawAutosaveService {
+
+    private final DawWriteBehindBuffer buffer;
+    private final DawService dawService;
+    private final KafkaLogProducer logger;
+    private final TaskScheduler scheduler;
+    private final int maxPending;
+
+    // Only one flush at a time
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // An early flush is scheduled and hasn't started yet, so crossing the threshold again
+    // doesn't queue another
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+    private final Timer flushTimer;
+    private final Counter flushed;
+    private final Counter failures;
+
+    public DawAutosaveService(DawWriteBehindBuffer buffer,
+                              DawService dawService,
+                              KafkaLogProducer logProducer,
+                              MeterRegistry registry,
+                              TaskScheduler scheduler,
+                              @Value("${dawker.autosave.max-pending:100}") int maxPending) {
+        this.buffer = buffer;
+        this.dawService = dawService;
+        this.logger = logProducer;
+        this.scheduler = scheduler;
+        this.maxPending = maxPending;
+        flushTimer = Timer.builder("dawker.autosave.flush")
+                .description("Time to write every pending autosave")
+                .register(registry);
+        flushed = Counter.builder("dawker.autosave.flushed")
+                .description("Autosaves written to the database")
+                .register(registry);
+        failures = Counter.builder("dawker.autosave.flush.failures")
+                .description("Autosaves that failed to write and stay pending")
+                .register(registry);
+    }
+
+    // A brand-new DAW has no id to buffer under yet, so it is saved straight away. Otherwise the
+    // DAW must exist and belong to the edit's user (dawNotFoundException if not); that is checked
+    // once, while an autosave from the same user is already pending it isn't looked up again.
+    // Returns true when the edit was buffered rather than written.
+    public boolean autosave(dawDTO dto) {
+        if (dto.getDawId() == null || dto.getDawId().isEmpty()) {
+            dawService.saveDaw(dto);
+            return false;
+        }
+        dawDTO pending = buffer.peek(dto.getDawId());
+        if (pending == null || !Objects.equals(pending.getUserId(), dto.getUserId())) {
+            dawService.checkAutosaveTarget(dto);
+        }
+        buffer.offer(dto);
+        if (buffer.size() >= maxPending && earlyFlushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, Instant.now());
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${dawker.autosave.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            earlyFlushScheduled.set(false);
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("service-calls", "flushing " + buffer.size() + " pending autosave(s)", "DawAutosaveService", "flushOnShutdown");
+        flush();
+    }
+
+    private void flushPending() {
+        List<dawDTO> batch = buffer.snapshot();
+        if (batch.isEmpty()) {
+            return;
+        }
+        flushTimer.record(() -> {
+            for (dawDTO dto : batch) {
+                try {
+                    // null: superseded since the snapshot, and the newer state is left pending
+                    boolean written = dawService.saveBufferedDaw(dto) != null;
+                    buffer.complete(dto);
+                    if (written) {
+                        flushed.increment();
+                    }
+                } catch (dawNotFoundException | UserNotFoundException e) {
+                    // Retrying can't help if the DAW or its owner is gone
+                    buffer.complete(dto);
+                    failures.increment();
+                    logger.warn("service-calls", "dropping autosave for " + dto.getDawId() + ": " + e.getMessage(),
+                            "DawAutosaveService", "flush");
+                } catch (RuntimeException e) {
+                    // Left in the buffer for the next round
+                    failures.increment();
+                    logger.error("service-calls", "autosave flush failed for " + dto.getDawId(),
+                            "DawAutosaveService", "flush", e);
+                }
+            }
+        });
+        logger.debug("service-calls", () -> "flushed " + batch.size() + " autosave(s)", "DawAutosaveService", "flush");
+    }
+}
@@ -1,13 +1,35 @@
 
 package com.project.dawker.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.project.dawker.dto.recievedDto.recievedSettingsPatchDTO;
+import com.project.dawker.exception.ComponentNotFoundException;
+import com.project.dawker.exception.InvalidCursorException;
+import com.project.dawker.exception.NonPositiveNumberException;
 import com.project.dawker.exception.UserNotFoundException;
 import com.project.dawker.exceptions.dawNotFoundException;
 import com.project.dawker.kafka.KafkaLogProducer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import tools.jackson.databind.json.JsonMapper;
 
 import com.project.dawker.dto.componentDTO;
 import com.project.dawker.dto.configDTO;
@@ -20,22 +42,35 @@ import com.project.dawker.entity.daw_specific.DawEntity;
 import com.project.dawker.entity.daw_specific.SettingsEntity;
 import com.project.dawker.repository.ConfigRepository;
 import com.project.dawker.repository.DawRepository;
+import com.project.dawker.repository.SettingsRepository;
 import com.project.dawker.repository.UserRepository;
+import com.project.dawker.repository.interfaces.DawSummary;
 
 // Add some more personal Error checks later.
 // DAW SERVICE PRANAV!!!!
 @Service
 public class DawService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    private static final String CURSOR_SEPARATOR = "|";
+
     private final DawRepository dawRepository;
     private final UserRepository userRepository;
     private final ConfigRepository configRepository;
+    private final SettingsRepository settingsRepository;
+    private final DawWriteBehindBuffer autosaveBuffer;
+    private final DawTreeCache dawTreeCache;
     private final KafkaLogProducer logger;
 
-    public DawService(DawRepository dawRepository, UserRepository userRepository, ConfigRepository configRepository, KafkaLogProducer logProducer) {
+    public DawService(DawRepository dawRepository, UserRepository userRepository, ConfigRepository configRepository,
+            SettingsRepository settingsRepository, DawWriteBehindBuffer autosaveBuffer, DawTreeCache dawTreeCache,
+            KafkaLogProducer logProducer) {
         this.dawRepository = dawRepository;
         this.userRepository = userRepository;
         this.configRepository = configRepository;
+        this.settingsRepository = settingsRepository;
+        this.autosaveBuffer = autosaveBuffer;
+        this.dawTreeCache = dawTreeCache;
         logger = logProducer;
     }
 
@@ -68,19 +103,66 @@ public class DawService {
     // .collect(Collectors.toList());
     // }
 
-    public List<dawDTO> getAllDaws() {
-        logger.info("service-calls", "Getting all daws", "DawService", "getAllDaws");
-        return this.dawRepository.findAll().stream()
-                .map(this::mapToDawDto) // cleaner syntax
-                .collect(Collectors.toList());
+    // Listing for the search page: summary columns only, keyset-paginated on (createdAt, id).
+    // cursor is the value returned by nextCursor for the previous page, or null for the first page.
+    public List<DawSummary> getDawSummaries(String cursor, int size) {
+        logger.info("service-calls", "Getting daw summaries", "DawService", "getDawSummaries");
+        if (size <= 0) {
+            throw new NonPositiveNumberException("Page size must be positive, got " + size);
+        }
+        Pageable page = PageRequest.of(0, Math.min(size, MAX_PAGE_SIZE));
+        if (cursor == null || cursor.isBlank()) {
+            return this.dawRepository.findSummaries(page);
+        }
+
+        DawCursor after = decodeCursor(cursor);
+        return this.dawRepository.findSummariesAfter(after.createdAt(), after.dawId(), page);
+    }
+
+    // Cursor pointing after the last row of a page, or null when the page was the last one
+    public static String nextCursor(List<DawSummary> page, int size) {
+        if (page.isEmpty() || page.size() < Math.min(size, MAX_PAGE_SIZE)) {
+            return null;
+        }
+        DawSummary last = page.get(page.size() - 1);
+        String key = last.getCreatedAt() + CURSOR_SEPARATOR + last.getDawId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record DawCursor(LocalDateTime createdAt, String dawId) {
+    }
+
+    private static DawCursor decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0 || separator == key.length() - 1) {
+                throw new IllegalArgumentException("malformed cursor");
+            }
+            return new DawCursor(LocalDateTime.parse(key.substring(0, separator)), key.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid DAW listing cursor: " + cursor);
+        }
     }
 
     // Get DAW with full details
+    // findFullTreeById loads configs, components and settings in two statements
+    // instead of walking the tree lazily (one query per config and per component).
+    // An autosave that has not been flushed yet is newer than the database, so it wins; like a
+    // cached tree, each reader gets its own copy of it.
+    // Otherwise the tree comes from DawTreeCache; every write path below evicts it.
+    @Transactional(readOnly = true)
     public dawDTO getDawById(String dawId) {
         logger.info("service-calls", "Getting daw by id", "DawService", "getDawById");
-        DawEntity daw = this.dawRepository.findById(dawId)
-                .orElseThrow(() -> new dawNotFoundException("DAW not found with ID: " + dawId));
-        return mapToDawDto(daw);
+        dawDTO buffered = autosaveBuffer.peek(dawId);
+        if (buffered != null) {
+            return DawTreeCache.copy(buffered);
+        }
+        return dawTreeCache.get(dawId, id -> {
+            DawEntity daw = this.dawRepository.findFullTreeById(id)
+                    .orElseThrow(() -> new dawNotFoundException("DAW not found with ID: " + id));
+            return mapToDawDto(daw);
+        });
     }
 
     private dawDTO mapToDawDto(DawEntity daw) {
@@ -105,7 +187,8 @@ public class DawService {
                 settings.getId(),
                 settings.getTechnology(),
                 settings.getExportName(),
-                settings.getParameters() // The Map<String, Object> goes right in!
+                // Copied so edits to the DTO never leak into the managed entity's map
+                DawTreeCache.copyParameters(settings.getParameters())
         );
 
         return new componentDTO(
@@ -199,8 +282,58 @@ public class DawService {
     // Create a new DAW with configurations, components, settingspublic dawDTO
     // saveDaw(dawDTO dto) {
     // 1. Resolve the User (Required for both new and existing)
+    //
+    // An existing DAW is diffed against the persisted tree instead of being rebuilt:
+    // configs are matched by id, components by id or instanceId, and settings are
+    // updated in place. Only the rows that actually changed get an UPDATE, new rows
+    // an INSERT and rows missing from the DTO a DELETE (orphanRemoval), so an
+    // autosave after a single knob turn is a single UPDATE instead of a full rewrite.
+    //
+    // An explicit save supersedes any autosave still waiting in the write-behind buffer. Both
+    // this and saveBufferedDaw hold the DAW's row lock, and the autosave is discarded before
+    // this commits, so a flush that took its snapshot earlier finds it gone and writes nothing.
+    @Transactional
     public dawDTO saveDaw(dawDTO dto) {
         logger.info("service-calls", "", "DawService", "saveDaw");
+        lockDaw(dto.getDawId());
+        dawDTO saved = persistDaw(dto);
+        autosaveBuffer.discard(dto.getDawId());
+        return saved;
+    }
+
+    // Called by DawAutosaveService before buffering: the autosave must be for a DAW that exists
+    // and belongs to the user it claims to come from. Either way it's reported as not found.
+    @Transactional(readOnly = true)
+    public void checkAutosaveTarget(dawDTO dto) {
+        Long ownerId = dawRepository.findOwnerIdById(dto.getDawId())
+                .orElseThrow(() -> new dawNotFoundException("DAW not found: " + dto.getDawId()));
+        if (!ownerId.equals(dto.getUserId())) {
+            throw new dawNotFoundException("DAW not found for user " + dto.getUserId() + ": " + dto.getDawId());
+        }
+    }
+
+    // Used by DawAutosaveService when flushing; leaves the buffer to the flusher.
+    // Returns null without writing if dto was superseded (by a newer autosave or an explicit
+    // save) since the flush took it.
+    @Transactional
+    public dawDTO saveBufferedDaw(dawDTO dto) {
+        logger.info("service-calls", "", "DawService", "saveBufferedDaw");
+        lockDaw(dto.getDawId());
+        if (!autosaveBuffer.isCurrent(dto)) {
+            logger.debug("service-calls", "autosave superseded, not writing it", "DawService", "saveBufferedDaw");
+            return null;
+        }
+        return persistDaw(dto);
+    }
+
+    // A missing DAW is reported by persistDaw
+    private void lockDaw(String dawId) {
+        if (dawId != null && !dawId.isEmpty()) {
+            dawRepository.lockById(dawId);
+        }
+    }
+
+    private dawDTO persistDaw(dawDTO dto) {
         // 1. Resolve User
         logger.debug("service-calls", "resolving user", "DawService", "saveDaw");
         User user = userRepository.findById(dto.getUserId())
@@ -209,9 +342,9 @@ public class DawService {
         DawEntity entity;
 
         // 2. Resolve or Create DAW
-        logger.debug("service-calls", "resolving/creating user", "DawService", "saveDaw");
+        logger.debug("service-calls", "loading existing DAW tree or creating a new DAW", "DawService", "saveDaw");
         if (dto.getDawId() != null && !dto.getDawId().isEmpty()) {
-            entity = dawRepository.findById(dto.getDawId())
+            entity = dawRepository.findFullTreeById(dto.getDawId())
                     .orElseThrow(() -> new dawNotFoundException("DAW not found: " + dto.getDawId()));
         } else {
             entity = new DawEntity();
@@ -223,58 +356,201 @@ public class DawService {
         entity.setName(dto.getName());
         entity.setDescription(dto.getDescription());
 
-        // 4. Map the Hierarchy (Passing 'entity' down to prevent findById(null))
-        logger.debug("service-calls", "Map the Hierarchy (Passing 'entity' down to prevent findById(null))", "dawService", "saveDaw");
+        // 4. Reconcile the Hierarchy against what is already persisted
+        logger.debug("service-calls", "reconciling configs/components/settings", "DawService", "saveDaw");
         if (dto.getListOfConfigs() != null) {
             if (entity.getListOfConfigs() == null) {
-                entity.setListOfConfigs(new java.util.ArrayList<>());
+                entity.setListOfConfigs(new ArrayList<>());
             }
-            // 1. Get the reference to the existing persistent list
-            List<ConfigEntity> existingConfigs = entity.getListOfConfigs();
+            reconcileConfigs(entity, dto.getListOfConfigs());
+        }
 
-            // 2. Clear the contents (this triggers orphan removal correctly)
-            existingConfigs.clear();
+        // 5. Persist. A new DAW cascades its whole tree; an existing one is already managed,
+        // so flushing writes just the dirty rows and assigns ids to the new children.
+        boolean isNew = entity.getId() == null;
+        logger.debug("service-calls", isNew
+                ? "inserting new DAW with its whole tree (cascade)"
+                : "flushing only the changed, added and removed rows of the existing tree", "DawService", "saveDaw");
+        DawEntity savedEntity = isNew ? dawRepository.save(entity) : entity;
+        dawRepository.flush();
+        dawTreeCache.evict(savedEntity.getId());
+        return mapToDawDto(savedEntity);
+    }
 
-            // 3. Map the DTOs and add them to the EXISTING list
-            List<ConfigEntity> newConfigs = dto.getListOfConfigs().stream()
-                    .map(configDto -> mapToConfigEntity(configDto, entity))
-                    .collect(Collectors.toList());
+    private void reconcileConfigs(DawEntity daw, List<configDTO> incoming) {
+        List<ConfigEntity> existingConfigs = daw.getListOfConfigs();
+        Map<Long, ConfigEntity> byId = new HashMap<>();
+        for (ConfigEntity config : existingConfigs) {
+            byId.put(config.getId(), config);
+        }
 
-            existingConfigs.addAll(newConfigs);
+        Set<ConfigEntity> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ConfigEntity> added = new ArrayList<>();
+        for (configDTO configDto : incoming) {
+            ConfigEntity config = configDto.getId() != null ? byId.remove(configDto.getId()) : null;
+            if (config == null) {
+                config = new ConfigEntity();
+                config.setDaw(daw);
+                added.add(config);
+            } else {
+                kept.add(config);
+            }
+            config.setName(configDto.getName());
+            reconcileComponents(config, configDto.getComponents() != null ? configDto.getComponents() : List.of());
         }
 
-        // 5. Save everything (CascadeType.ALL will handle child entities)
-        logger.debug("service-calls", "Saving everything (CascadeType.ALL will handle child entities)", "DawService", "saveDaw");
-        DawEntity savedEntity = dawRepository.save(entity);
-        return mapToDawDto(savedEntity);
+        // Removing from the persistent list lets orphanRemoval issue the DELETEs
+        existingConfigs.removeIf(config -> !kept.contains(config));
+        existingConfigs.addAll(added);
     }
 
-    private ConfigEntity mapToConfigEntity(configDTO dto, DawEntity parentDaw) {
-        ConfigEntity config = new ConfigEntity();
-        config.setId(dto.getId());
-        config.setName(dto.getName());
-        config.setDaw(parentDaw); // Link back to parent
+    private void reconcileComponents(ConfigEntity config, List<componentDTO> incoming) {
+        List<ComponentEntity> existingComponents = config.getComponents();
+        Map<Long, ComponentEntity> byId = new HashMap<>();
+        Map<String, ComponentEntity> byInstanceId = new HashMap<>();
+        for (ComponentEntity component : existingComponents) {
+            if (component.getId() != null) byId.put(component.getId(), component);
+            if (component.getInstanceId() != null) byInstanceId.put(component.getInstanceId(), component);
+        }
 
-        config.setComponents(dto.getComponents().stream()
-                .map(compDto -> mapToComponentEntity(compDto, config)) // Pass config down
-                .collect(Collectors.toList()));
-        return config;
+        Set<ComponentEntity> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ComponentEntity> added = new ArrayList<>();
+        for (componentDTO componentDto : incoming) {
+            // The editor doesn't always echo database ids back, so fall back to the React instanceId
+            ComponentEntity component = componentDto.getId() != null ? byId.get(componentDto.getId()) : null;
+            if (component == null && componentDto.getInstanceId() != null) {
+                component = byInstanceId.get(componentDto.getInstanceId());
+            }
+            if (component == null || kept.contains(component)) {
+                added.add(mapToComponentEntity(componentDto, config));
+                continue;
+            }
+            kept.add(component);
+            component.setInstanceId(componentDto.getInstanceId());
+            component.setName(componentDto.getName());
+            component.setType(componentDto.getType());
+            reconcileSettings(component, componentDto.getSettings());
+        }
+
+        existingComponents.removeIf(component -> !kept.contains(component));
+        existingComponents.addAll(added);
     }
 
+    // Hibernate's dirty check compares the parameters map by value, so an unchanged
+    // knob map produces no UPDATE even though the setter is called.
+    // A component sent without settings keeps the ones it has.
+    private void reconcileSettings(ComponentEntity component, settingsDTO incoming) {
+        if (incoming == null) {
+            return;
+        }
+        SettingsEntity settings = component.getSettings();
+        if (settings == null) {
+            component.setSettings(mapToNewSettingsEntity(incoming));
+            return;
+        }
+        settings.setTechnology(incoming.getTechnology());
+        settings.setExportName(incoming.getExportName());
+        if (!Objects.equals(settings.getParameters(), incoming.getParameters())) {
+            settings.setParameters(incoming.getParameters());
+        }
+    }
+
+    // New child rows never take ids from the payload; the database assigns them on insert
     private ComponentEntity mapToComponentEntity(componentDTO dto, ConfigEntity parentConfig) {
         ComponentEntity component = new ComponentEntity();
-        component.setId(dto.getId());
         component.setInstanceId(dto.getInstanceId());
         component.setName(dto.getName());
         component.setType(dto.getType());
         component.setConfig(parentConfig); // Link back to parent
 
         if (dto.getSettings() != null) {
-            component.setSettings(mapToSettingsEntity(dto.getSettings()));
+            component.setSettings(mapToNewSettingsEntity(dto.getSettings()));
         }
         return component;
     }
 
+    private SettingsEntity mapToNewSettingsEntity(settingsDTO dto) {
+        SettingsEntity settings = mapToSettingsEntity(dto);
+        settings.setId(null);
+        return settings;
+    }
+
+    // Update:
+    // Live knob tweaks. Patches for the same component are folded together first (later
+    // keys win, including a later null removing the key), so a drag across several knobs
+    // is one UPDATE per component rather than one per event, and nothing but the touched
+    // settings rows is read or written. All-or-nothing: an unknown instanceId rolls back the batch.
+    @Transactional
+    public int patchSettings(String dawId, List<recievedSettingsPatchDTO> patches) {
+        logger.info("service-calls", "", "DawService", "patchSettings");
+        Map<String, Map<String, Object>> byComponent = new LinkedHashMap<>();
+        for (recievedSettingsPatchDTO patch : patches) {
+            if (patch.getInstanceId() == null || patch.getParameters() == null) continue;
+            byComponent.computeIfAbsent(patch.getInstanceId(), id -> new LinkedHashMap<>())
+                    .putAll(patch.getParameters());
+        }
+
+        // A pending autosave is what getDawById serves and what the next flush writes, so it gets
+        // the patch too or the flush would put the old values back. A component added in that
+        // autosave isn't in the database yet; it's only patched there.
+        dawDTO buffered = autosaveBuffer.peek(dawId);
+        Set<String> bufferedComponents = buffered == null ? Set.of() : instanceIds(buffered);
+        for (Map.Entry<String, Map<String, Object>> entry : byComponent.entrySet()) {
+            int updated = settingsRepository.mergeParameters(dawId, entry.getKey(),
+                    JsonMapper.shared().writeValueAsString(entry.getValue()));
+            if (updated == 0 && !bufferedComponents.contains(entry.getKey())) {
+                throw new ComponentNotFoundException(
+                        "Component " + entry.getKey() + " not found in DAW " + dawId);
+            }
+        }
+        if (!byComponent.isEmpty()) {
+            // After the database merges, so a flush racing this patch leaves the patched copy pending
+            autosaveBuffer.update(dawId, pending -> applyPatches(DawTreeCache.copy(pending), byComponent));
+            dawTreeCache.evict(dawId);
+        }
+        logger.debug("service-calls", () -> "patched " + byComponent.size() + " component(s) from " + patches.size() + " patch(es)",
+                "DawService", "patchSettings");
+        return byComponent.size();
+    }
+
+    private static Set<String> instanceIds(dawDTO daw) {
+        Set<String> ids = new HashSet<>();
+        for (configDTO config : daw.getListOfConfigs() == null ? List.<configDTO>of() : daw.getListOfConfigs()) {
+            for (componentDTO component : config.getComponents() == null ? List.<componentDTO>of() : config.getComponents()) {
+                ids.add(component.getInstanceId());
+            }
+        }
+        return ids;
+    }
+
+    // The same merge as SettingsRepository.mergeParameters, on a DTO tree: non-null values are
+    // set, null values remove the key
+    private static dawDTO applyPatches(dawDTO daw, Map<String, Map<String, Object>> byComponent) {
+        for (configDTO config : daw.getListOfConfigs() == null ? List.<configDTO>of() : daw.getListOfConfigs()) {
+            for (componentDTO component : config.getComponents() == null ? List.<componentDTO>of() : config.getComponents()) {
+                Map<String, Object> patch = byComponent.get(component.getInstanceId());
+                if (patch == null) {
+                    continue;
+                }
+                if (component.getSettings() == null) {
+                    component.setSettings(new settingsDTO(null, null, null, new HashMap<>()));
+                }
+                settingsDTO settings = component.getSettings();
+                if (settings.getParameters() == null) {
+                    settings.setParameters(new HashMap<>());
+                }
+                patch.forEach((key, value) -> {
+                    if (value == null) {
+                        settings.getParameters().remove(key);
+                    } else {
+                        settings.getParameters().put(key, value);
+                    }
+                });
+            }
+        }
+        return daw;
+    }
+
     // private SettingsEntity mapToSettingsEntity(settingsDTO dto) {
     // SettingsEntity settings = new SettingsEntity();
     // settings.setId(dto.getId());
@@ -0,0 +1,134 @@
+package com.project.dawker.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.dawker.dto.componentDTO;
+import com.project.dawker.dto.configDTO;
+import com.project.dawker.dto.dawDTO;
+import com.project.dawker.dto.settingsDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Read cache for full DAW trees, keyed by DAW id.
+//
+// Entries are weighed by their component count, so a handful of huge rigs can't crowd
+// out everything else, and expire after a TTL as a backstop. The cached snapshot never
+// leaves this class: every reader gets its own deep copy, so a caller editing the DTO it
+// got back (as the save path does) can't corrupt what others read.
+//
+// Hit/miss/eviction stats are published as the "dawTree" cache.* meters.
+@Component
+public class DawTreeCache {
+
+    static final String CACHE_NAME = "dawTree";
+
+    private final Cache<String, dawDTO> cache;
+
+    public DawTreeCache(MeterRegistry registry,
+                        @Value("${dawker.cache.daw.max-weight:10000}") long maxWeight,
+                        @Value("${dawker.cache.daw.ttl:10m}") Duration ttl) {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String dawId, dawDTO daw) -> weigh(daw))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    // The loader runs at most once per key at a time, and an evict() that races with it
+    // waits for it to finish, so a load that started before a save can't outlive the eviction.
+    public dawDTO get(String dawId, Function<String, dawDTO> loader) {
+        return copy(cache.get(dawId, loader));
+    }
+
+    // Evicts now and, inside a transaction, again once it commits: until then a concurrent
+    // reader could still load the old rows and put them back.
+    public void evict(String dawId) {
+        if (dawId == null) {
+            return;
+        }
+        cache.invalidate(dawId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(dawId);
+                }
+            });
+        }
+    }
+
+    Cache<String, dawDTO> nativeCache() {
+        return cache;
+    }
+
+    private static int weigh(dawDTO daw) {
+        int weight = 1;
+        if (daw.getListOfConfigs() != null) {
+            for (configDTO config : daw.getListOfConfigs()) {
+                weight += config.getComponents() == null ? 0 : config.getComponents().size();
+            }
+        }
+        return weight;
+    }
+
+    static dawDTO copy(dawDTO daw) {
+        List<configDTO> configs = daw.getListOfConfigs() == null ? null : daw.getListOfConfigs().stream()
+                .map(config -> new configDTO(config.getId(), config.getName(), config.getDawId(),
+                        config.getComponents() == null ? null : config.getComponents().stream()
+                                .map(DawTreeCache::copy)
+                                .collect(Collectors.toCollection(ArrayList::new))))
+                .collect(Collectors.toCollection(ArrayList::new));
+        return new dawDTO(daw.getDawId(), daw.getUserId(), daw.getName(), daw.getDescription(),
+                daw.getCreatedAt(), daw.getExportCount(), configs);
+    }
+
+    private static componentDTO copy(componentDTO component) {
+        settingsDTO settings = component.getSettings();
+        settingsDTO settingsCopy = settings == null ? null : new settingsDTO(settings.getId(),
+                settings.getTechnology(), settings.getExportName(), copyParameters(settings.getParameters()));
+        return new componentDTO(component.getId(), component.getInstanceId(), component.getName(),
+                component.getType(), component.getConfigId(), settingsCopy);
+    }
+
+    // Parameters are parsed JSON: nested values are maps and lists, copied all the way down;
+    // everything else (strings, numbers, booleans) is immutable and shared
+    static Map<String, Object> copyParameters(Map<String, Object> parameters) {
+        if (parameters == null) {
+            return null;
+        }
+        Map<String, Object> copy = new HashMap<>();
+        parameters.forEach((key, value) -> copy.put(key, copyValue(value)));
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((key, nested) -> copy.put(key, copyValue(nested)));
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(nested -> copy.add(copyValue(nested)));
+            return copy;
+        }
+        return value;
+    }
+}
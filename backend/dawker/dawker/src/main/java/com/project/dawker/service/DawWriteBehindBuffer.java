@@ -0,0 +1,92 @@
+package com.project.dawker.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+import org.springframework.stereotype.Component;
+
+import com.project.dawker.dto.dawDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// In-memory write-behind buffer for autosaves. Holds only the latest state per DAW:
+// a new autosave for a DAW that is still pending replaces the old one (a coalesced write),
+// so a rig edited every few seconds costs one flush per interval instead of one per edit.
+//
+// Kept free of any service dependency so both DawService (reads, explicit saves) and
+// DawAutosaveService (flushing) can use it without a cycle.
+@Component
+public class DawWriteBehindBuffer {
+
+    private final ConcurrentMap<String, dawDTO> pending = new ConcurrentHashMap<>();
+    private final Counter accepted;
+    private final Counter coalesced;
+
+    public DawWriteBehindBuffer(MeterRegistry registry) {
+        Gauge.builder("dawker.autosave.buffer.depth", pending, ConcurrentMap::size)
+                .description("DAWs with an autosave waiting to be flushed")
+                .register(registry);
+        accepted = Counter.builder("dawker.autosave.accepted")
+                .description("Autosaves accepted into the buffer")
+                .register(registry);
+        coalesced = Counter.builder("dawker.autosave.coalesced")
+                .description("Autosaves that replaced a pending one for the same DAW")
+                .register(registry);
+    }
+
+    // Returns true when an older pending state for the same DAW was replaced
+    public boolean offer(dawDTO dto) {
+        accepted.increment();
+        boolean replaced = pending.put(dto.getDawId(), dto) != null;
+        if (replaced) {
+            coalesced.increment();
+        }
+        return replaced;
+    }
+
+    public dawDTO peek(String dawId) {
+        return dawId == null ? null : pending.get(dawId);
+    }
+
+    // Replaces the pending state for dawId, if there is one, with what change returns for it.
+    // change must return a new object: a flush already writing the old state then leaves the
+    // new one pending, since complete() only removes the state it flushed.
+    // Returns true if an autosave was pending.
+    public boolean update(String dawId, UnaryOperator<dawDTO> change) {
+        return dawId != null && pending.computeIfPresent(dawId, (id, dto) -> change.apply(dto)) != null;
+    }
+
+    // An explicit save supersedes whatever autosave is still waiting
+    public void discard(String dawId) {
+        if (dawId != null) {
+            pending.remove(dawId);
+        }
+    }
+
+    // False once dto has been replaced by a newer autosave or discarded by an explicit save,
+    // so a flush holding an older snapshot knows not to write it
+    public boolean isCurrent(dawDTO dto) {
+        return dto.getDawId() != null && pending.get(dto.getDawId()) == dto;
+    }
+
+    // Snapshot of everything pending. Entries stay visible to readers until the flusher
+    // calls complete(), so a read during a flush never falls back to the older database state.
+    public List<dawDTO> snapshot() {
+        return new ArrayList<>(pending.values());
+    }
+
+    // Removes the entry only if it is still the state that was flushed; a newer autosave
+    // that arrived mid-flush stays pending for the next round.
+    public void complete(dawDTO flushed) {
+        pending.remove(flushed.getDawId(), flushed);
+    }
+
+    public int size() {
+        return pending.size();
+    }
+}
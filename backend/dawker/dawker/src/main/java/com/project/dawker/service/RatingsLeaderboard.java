@@ -0,0 +1,166 @@
+package com.project.dawker.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.project.dawker.dto.leaderboardEntryDTO;
+import com.project.dawker.repository.RatingsPageRepository;
+import com.project.dawker.repository.interfaces.RatingsPageStanding;
+
+// Top-rated DAWs, ranked by Bayesian average so a single 5-star review can't outrank fifty
+// 4.8s: score = (priorWeight * mean + sum) / (priorWeight + count), where mean is the average
+// of every rating on the site. A DAW needs a few reviews before its own average outweighs it.
+//
+// Every rated DAW's running totals are held in memory, and the best `size` of them are kept as
+// a ranked snapshot that readers get without locking or touching the database, so a read is
+// O(K). A new rating updates the snapshot in place; it's only rebuilt from the totals (a size-K
+// min-heap over every DAW, O(N log K)) when a DAW already in it drops, since something outside
+// could then belong in it. The site mean moves with every rating, so the scores in the snapshot
+// drift slightly from the exact ones; refresh() reloads the totals from the database and
+// rescores everything on an interval, which also picks up ratings made on other instances.
+@Component
+public class RatingsLeaderboard {
+
+    private record Standing(double sum, long count) {
+    }
+
+    private record Ranked(String dawId, double score, double sum, long count) {
+    }
+
+    // Higher score first, then more ratings, then dawId so ties rank the same way every time
+    private static final Comparator<Ranked> BEST_FIRST = Comparator.comparingDouble(Ranked::score).reversed()
+            .thenComparing(Comparator.comparingLong(Ranked::count).reversed())
+            .thenComparing(Ranked::dawId);
+
+    private final RatingsPageRepository ratingsRepo;
+    private final int size;
+    private final double priorWeight;
+
+    // Guarded by this
+    private final Map<String, Standing> standings = new HashMap<>();
+    private double totalSum;
+    private long totalCount;
+    private List<Ranked> top = new ArrayList<>();
+
+    // What readers see: top, as it was last published
+    private volatile List<leaderboardEntryDTO> snapshot = List.of();
+
+    public RatingsLeaderboard(RatingsPageRepository ratingsRepo,
+                              @Value("${dawker.leaderboard.size:100}") int size,
+                              @Value("${dawker.leaderboard.prior-weight:10}") double priorWeight) {
+        this.ratingsRepo = ratingsRepo;
+        this.size = size;
+        this.priorWeight = priorWeight;
+    }
+
+    // The best `limit` DAWs (at most size), best first
+    public List<leaderboardEntryDTO> top(int limit) {
+        List<leaderboardEntryDTO> entries = snapshot;
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+
+    // Also runs once at startup. A rating committed while the totals are being read can be
+    // missed until the next refresh.
+    @Scheduled(fixedDelayString = "${dawker.leaderboard.refresh-interval-ms:300000}")
+    public void refresh() {
+        List<RatingsPageStanding> rows = ratingsRepo.findStandings();
+        synchronized (this) {
+            standings.clear();
+            totalSum = 0;
+            totalCount = 0;
+            for (RatingsPageStanding row : rows) {
+                standings.put(row.getDawId(), new Standing(row.getRatingSum(), row.getRatingCount()));
+                totalSum += row.getRatingSum();
+                totalCount += row.getRatingCount();
+            }
+            rebuild();
+        }
+    }
+
+    // Called once a new rating is committed
+    public synchronized void recordRating(String dawId, double rating) {
+        apply(dawId, standings.getOrDefault(dawId, new Standing(0, 0)), rating, 1);
+    }
+
+    // Called once a user's changed rating is committed; the DAW's count stays the same
+    public synchronized void replaceRating(String dawId, double oldRating, double newRating) {
+        Standing old = standings.get(dawId);
+        // Not loaded yet; the next refresh picks it up
+        if (old == null) {
+            return;
+        }
+        apply(dawId, old, newRating - oldRating, 0);
+    }
+
+    private void apply(String dawId, Standing old, double sumDelta, long countDelta) {
+        Standing updated = new Standing(old.sum() + sumDelta, old.count() + countDelta);
+        standings.put(dawId, updated);
+        totalSum += sumDelta;
+        totalCount += countDelta;
+
+        Ranked ranked = rank(dawId, updated);
+        int at = indexOf(dawId);
+        if (at >= 0) {
+            if (ranked.score() < top.get(at).score()) {
+                rebuild();
+                return;
+            }
+            top.set(at, ranked);
+        } else if (top.size() < size) {
+            top.add(ranked);
+        } else if (!top.isEmpty() && BEST_FIRST.compare(ranked, top.get(top.size() - 1)) < 0) {
+            top.set(top.size() - 1, ranked);
+        } else {
+            return;
+        }
+        top.sort(BEST_FIRST);
+        publish();
+    }
+
+    private void rebuild() {
+        // Worst of the current best on top, so it's the one dropped when a better DAW comes along
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(size + 1, BEST_FIRST.reversed());
+        for (Map.Entry<String, Standing> entry : standings.entrySet()) {
+            heap.add(rank(entry.getKey(), entry.getValue()));
+            if (heap.size() > size) {
+                heap.poll();
+            }
+        }
+        top = new ArrayList<>(heap);
+        top.sort(BEST_FIRST);
+        publish();
+    }
+
+    private Ranked rank(String dawId, Standing standing) {
+        double mean = totalCount == 0 ? 0 : totalSum / totalCount;
+        double score = (priorWeight * mean + standing.sum()) / (priorWeight + standing.count());
+        return new Ranked(dawId, score, standing.sum(), standing.count());
+    }
+
+    private int indexOf(String dawId) {
+        for (int i = 0; i < top.size(); i++) {
+            if (top.get(i).dawId().equals(dawId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void publish() {
+        List<leaderboardEntryDTO> entries = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            Ranked ranked = top.get(i);
+            entries.add(new leaderboardEntryDTO(i + 1, ranked.dawId(), ranked.score(),
+                    ranked.sum() / ranked.count(), ranked.count()));
+        }
+        snapshot = List.copyOf(entries);
+    }
+}
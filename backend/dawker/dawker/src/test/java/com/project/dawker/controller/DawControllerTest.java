@@ -0,0 +1,59 @@
+package com.project.dawker.controller;
+
+import com.project.dawker.dto.dawDTO;
+import com.project.dawker.kafka.KafkaLogProducer;
+import com.project.dawker.service.DawService;
+import com.project.dawker.service.RatingsPageService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DawControllerTest {
+
+    @Mock
+    private DawService dawService;
+
+    @Mock
+    private RatingsPageService ratingsService;
+
+    @Mock
+    private KafkaLogProducer logger;
+
+    @InjectMocks
+    private dawController controller;
+
+    @Test
+    void getDawById_loadsTreeOncePerRequest() {
+        dawDTO daw = new dawDTO("daw-123", 1L, "Metal Rig", "High gain setup", LocalDateTime.now(), 0, List.of());
+        when(dawService.getDawById("daw-123")).thenReturn(daw);
+
+        dawDTO result = controller.getDawById("daw-123");
+
+        assertSame(daw, result);
+        verify(dawService, times(1)).getDawById("daw-123");
+    }
+
+    @Test
+    void getAllRatingsComments_streamsNdjsonFromTheService() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = controller.getAllRatingsComments();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        verify(ratingsService).exportRatingsComments(out);
+    }
+}
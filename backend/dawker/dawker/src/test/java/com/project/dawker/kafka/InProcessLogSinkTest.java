@@ -0,0 +1,69 @@
+package com.project.dawker.kafka;
+
+import com.revature.logging.RotationPolicy;
+import com.revature.logging.StackTraceDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InProcessLogSinkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void producerRecords_writtenToLevelFilesLikeTheConsumer() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InProcessLogSink sink = new InProcessLogSink(dir, 4096, new RotationPolicy(0, Duration.ZERO, false), registry);
+        KafkaLogProducer producer = new KafkaLogProducer(sink, LogLevelThresholds.of(LogLevel.TRACE), 64, OverflowPolicy.DROP,
+                10, 256, Duration.ofMinutes(5), LogRateLimiter.NONE, Duration.ofSeconds(10), registry);
+
+        producer.debug("api-calls", "Getting daw by id", "DawService", "getDawById");
+        for (int i = 0; i < 2; i++) {
+            producer.error("errors", "boom", "forumService", "getAllForumsByUserId", new Exception("anger"));
+        }
+        assertEquals(3, producer.drainBatch());
+
+        String trace = Files.readString(dir.resolve("TRACE.log"));
+        String debug = Files.readString(dir.resolve("DEBUG.log"));
+        String error = Files.readString(dir.resolve("ERROR.log"));
+        assertEquals(3, trace.lines().count());
+        assertEquals(trace, debug);
+        assertTrue(trace.lines().findFirst().orElseThrow().endsWith("} DEBUG - [DawService.getDawById] Getting daw by id"));
+        assertEquals(2, error.lines().count());
+        assertFalse(Files.readString(dir.resolve("INFO.log")).contains("DawService"));
+        assertTrue(error.contains("(java.lang.Exception: anger) [stack "));
+        assertTrue(error.contains(", repeat 2]"));
+        // The full trace once, in the dictionary
+        String stackTraces = Files.readString(dir.resolve(StackTraceDictionary.FILE_NAME));
+        assertEquals(1, stackTraces.lines().filter(line -> line.startsWith("#")).count());
+        assertEquals(3.0, registry.get("dawker.logging.in-process.written").counter().count());
+        sink.close();
+    }
+
+    @Test
+    void restart_doesNotRecordAKnownStackTraceAgain() throws Exception {
+        for (int run = 0; run < 2; run++) {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            InProcessLogSink sink = new InProcessLogSink(dir, 4096, new RotationPolicy(0, Duration.ZERO, false), registry);
+            // A new producer has forgotten the fingerprint, so it sends the full trace again
+            KafkaLogProducer producer = new KafkaLogProducer(sink, LogLevelThresholds.of(LogLevel.TRACE), 64, OverflowPolicy.DROP,
+                    10, 256, Duration.ofMinutes(5), LogRateLimiter.NONE, Duration.ofSeconds(10), registry);
+            producer.error("errors", "boom", "forumService", "getAllForumsByUserId", new Exception("anger"));
+            assertEquals(1, producer.drainBatch());
+            sink.close();
+        }
+
+        String stackTraces = Files.readString(dir.resolve(StackTraceDictionary.FILE_NAME));
+        assertEquals(1, stackTraces.lines().filter(line -> line.startsWith("#")).count());
+        assertEquals(2, Files.readString(dir.resolve("ERROR.log")).lines().count());
+    }
+}
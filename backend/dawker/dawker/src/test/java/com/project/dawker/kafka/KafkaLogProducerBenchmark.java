@@ -0,0 +1,72 @@
+package com.project.dawker.kafka;
+
+import com.project.dawker.dto.componentDTO;
+import com.project.dawker.dto.configDTO;
+import com.project.dawker.dto.dawDTO;
+import com.project.dawker.dto.settingsDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// TRACE is off (default INFO) and the controller logs a rig's payload at TRACE, as saveDaw does.
+// eagerToString renders the payload before the call; supplierGated only reads the thresholds.
+//
+// Not part of the test run. To run it (add -prof gc to see allocations per call):
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.project.dawker.kafka.KafkaLogProducerBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KafkaLogProducerBenchmark {
+
+    private KafkaLogProducer producer;
+    private dawDTO payload;
+
+    @Setup
+    public void setUp() {
+        // The drain thread is never started and nothing is enqueued, so no KafkaTemplate is needed
+        producer = new KafkaLogProducer(null, LogLevel.INFO);
+        List<componentDTO> components = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            components.add(new componentDTO((long) i, "comp-" + i, "Overdrive", "distortion", 1L,
+                    new settingsDTO((long) i, "RNBO", "overdrive", Map.of("gain", 0.5, "level", 0.8, "tone", 0.3))));
+        }
+        payload = new dawDTO("daw-1", 1L, "Metal Rig", "High gain setup", LocalDateTime.now(), 0,
+                List.of(new configDTO(1L, "Main", "daw-1", components)));
+    }
+
+    @Benchmark
+    public void eagerToString() {
+        producer.trace("api-calls", payload.toString(), "dawController", "saveDaw");
+    }
+
+    @Benchmark
+    public void supplierGated() {
+        producer.trace("api-calls", payload::toString, "dawController", "saveDaw");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KafkaLogProducerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,232 @@
+package com.project.dawker.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaLogProducerTest {
+
+    @Mock
+    private KafkaTemplate<String, Map<String, String>> kafkaTemplate;
+
+    @Test
+    void debugSupplier_notRenderedBelowMinLevel() {
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, LogLevel.INFO);
+        AtomicInteger renders = new AtomicInteger();
+
+        producer.debug("api-calls", () -> "payload-" + renders.incrementAndGet(), "dawController", "getDawById");
+        producer.drainBatch();
+
+        assertEquals(0, renders.get());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void debugSupplier_renderedAndSentWhenEnabled() {
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(new CompletableFuture<>());
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, LogLevel.TRACE);
+
+        producer.debug("api-calls", () -> "payload", "dawController", "getDawById");
+        producer.drainBatch();
+
+        verify(kafkaTemplate).send(eq("api-calls"), eq("dawController"), argThat(payload ->
+                "payload".equals(payload.get("message")) && "DEBUG".equals(payload.get("level"))));
+    }
+
+    @Test
+    void topicAndServiceLevels_gateBeforeRendering() {
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, new LogLevelThresholds(LogLevel.TRACE,
+                Map.of("api-calls", LogLevel.WARN), Map.of()), 64, OverflowPolicy.DROP, 10, 256, new SimpleMeterRegistry());
+        AtomicInteger renders = new AtomicInteger();
+
+        producer.info("api-calls", () -> "api-" + renders.incrementAndGet(), "dawController", "getDawById");
+        producer.info("service-calls", () -> "service-" + renders.incrementAndGet(), "DawService", "getDawById");
+
+        assertEquals(1, renders.get());
+        assertEquals(1, producer.drainBatch());
+    }
+
+    @Test
+    void levels_changeAtRuntime() {
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, LogLevel.INFO);
+        assertFalse(producer.isEnabled("api-calls", LogLevel.DEBUG, "dawController"));
+
+        producer.setServiceLevel("dawController", LogLevel.DEBUG);
+        assertTrue(producer.isEnabled("api-calls", LogLevel.DEBUG, "dawController"));
+        assertFalse(producer.isEnabled("api-calls", LogLevel.DEBUG, "DawService"));
+
+        producer.setServiceLevel("dawController", null);
+        producer.setTopicLevel("api-calls", LogLevel.ERROR);
+        assertFalse(producer.isEnabled("api-calls", LogLevel.WARN, "dawController"));
+
+        producer.setDefaultLevel(LogLevel.TRACE);
+        assertTrue(producer.isEnabled("service-calls", LogLevel.TRACE, "DawService"));
+    }
+
+    @Test
+    void log_neverCallsKafkaOnTheCallingThread() {
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, LogLevel.TRACE);
+
+        producer.info("api-calls", "hello", "dawController", "getDawById");
+        producer.error("api-calls", "boom", "dawController", "getDawById", new IllegalStateException());
+
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void dropPolicy_dropsOnceBufferIsFull() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, LogLevelThresholds.of(LogLevel.TRACE), 4, OverflowPolicy.DROP, 10, 256, registry);
+
+        for (int i = 0; i < 6; i++) {
+            producer.info("api-calls", "msg-" + i, "dawController", "getDawById");
+        }
+
+        assertEquals(4.0, registry.get("dawker.logging.kafka.enqueued").counter().count());
+        assertEquals(2.0, registry.get("dawker.logging.kafka.dropped").counter().count());
+        assertEquals(4.0, registry.get("dawker.logging.kafka.buffer.depth").gauge().value());
+    }
+
+    @Test
+    void samplePolicy_thinsLowLevelsButKeepsErrors() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // A sample rate this high keeps effectively nothing below WARN past the high-water mark (48 of 64)
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, LogLevelThresholds.of(LogLevel.TRACE), 64, OverflowPolicy.SAMPLE,
+                Integer.MAX_VALUE, 256, registry);
+
+        for (int i = 0; i < 60; i++) {
+            producer.info("api-calls", "msg-" + i, "dawController", "getDawById");
+        }
+        for (int i = 0; i < 10; i++) {
+            producer.error("api-calls", "err-" + i, "dawController", "getDawById", null);
+        }
+
+        assertEquals(58.0, registry.get("dawker.logging.kafka.enqueued").counter().count());
+        assertEquals(12.0, registry.get("dawker.logging.kafka.sampled").counter().count());
+        assertEquals(0.0, registry.get("dawker.logging.kafka.dropped").counter().count());
+    }
+
+    @Test
+    void sentAndFailed_countedFromBrokerAcks() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CompletableFuture<SendResult<String, Map<String, String>>> acked = new CompletableFuture<>();
+        when(kafkaTemplate.send(anyString(), any(), any()))
+                .thenReturn(acked)
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, LogLevelThresholds.of(LogLevel.TRACE), 16, OverflowPolicy.DROP, 10, 256, registry);
+
+        producer.info("api-calls", "one", "dawController", "getDawById");
+        producer.info("api-calls", "two", "dawController", "getDawById");
+        assertEquals(2, producer.drainBatch());
+        acked.complete(null);
+
+        assertEquals(1.0, registry.get("dawker.logging.kafka.sent").counter().count());
+        assertEquals(1.0, registry.get("dawker.logging.kafka.failed").counter().count());
+    }
+
+    @Test
+    void publishFailure_isCountedAndTheRestOfTheBatchStillGoesOut() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LogSink sink = mock(LogSink.class);
+        doThrow(new IllegalStateException("formatter blew up")).doNothing()
+                .when(sink).send(anyString(), any(), anyLong(), any());
+        KafkaLogProducer producer = new KafkaLogProducer(sink, LogLevelThresholds.of(LogLevel.TRACE), 16, OverflowPolicy.DROP, 10, 256,
+                Duration.ofMinutes(5), LogRateLimiter.NONE, Duration.ofSeconds(10), registry);
+
+        producer.info("api-calls", "one", "dawController", "getDawById");
+        producer.info("api-calls", "two", "dawController", "getDawById");
+
+        assertEquals(2, producer.drainBatch());
+        verify(sink, times(2)).send(eq("api-calls"), eq("dawController"), anyLong(), any());
+        verify(sink).endOfBatch();
+        assertEquals(1.0, registry.get("dawker.logging.kafka.publish.failures").counter().count());
+    }
+
+    @Test
+    void drainThread_survivesASinkThatThrows() throws InterruptedException {
+        LogSink sink = mock(LogSink.class);
+        doThrow(new IllegalStateException("disk full")).when(sink).endOfBatch();
+        KafkaLogProducer producer = new KafkaLogProducer(sink, LogLevelThresholds.of(LogLevel.TRACE), 1024, OverflowPolicy.DROP, 10, 16,
+                Duration.ofMinutes(5), LogRateLimiter.NONE, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        producer.start();
+
+        for (int i = 0; i < 100; i++) {
+            producer.info("api-calls", "msg-" + i, "dawController", "getDawById");
+        }
+        producer.stop();
+
+        verify(sink, times(100)).send(eq("api-calls"), eq("dawController"), anyLong(), any());
+    }
+
+    @Test
+    void error_sendsStackTraceOnceThenFingerprint() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(new CompletableFuture<>());
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, LogLevelThresholds.of(LogLevel.TRACE), 16, OverflowPolicy.DROP, 10, 256, registry);
+
+        for (int i = 0; i < 3; i++) {
+            producer.error("service-calls", "boom", "forumService", "getAllForumsByUserId", new Exception("anger"));
+        }
+        producer.drainBatch();
+
+        verify(kafkaTemplate).send(eq("service-calls"), eq("forumService"), argThat(payload ->
+                payload.get("exception").contains("\tat ") && payload.get("repeat") == null));
+        verify(kafkaTemplate).send(eq("service-calls"), eq("forumService"), argThat(payload ->
+                "java.lang.Exception: anger".equals(payload.get("exception")) && "3".equals(payload.get("repeat"))));
+        assertEquals(2.0, registry.get("dawker.logging.kafka.stacktraces.deduplicated").counter().count());
+    }
+
+    @Test
+    void rateLimitedRecords_reportedAsOneSummary() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(new CompletableFuture<>());
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, LogLevelThresholds.of(LogLevel.TRACE), 64, OverflowPolicy.DROP, 10, 256,
+                Duration.ofMinutes(5), LogRateLimiter.parse("dawController.getDawById:DEBUG=2/s", ""), Duration.ofSeconds(10), registry);
+        AtomicInteger renders = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            producer.debug("api-calls", () -> "payload-" + renders.incrementAndGet(), "dawController", "getDawById");
+        }
+        assertEquals(2, producer.drainBatch());
+        producer.publishSuppressedSummaries();
+
+        assertEquals(2, renders.get());
+        assertEquals(8.0, registry.get("dawker.logging.kafka.rate-limited").counter().count());
+        verify(kafkaTemplate).send(eq("api-calls"), eq("dawController"), argThat(payload ->
+                "DEBUG".equals(payload.get("level")) && payload.get("message").startsWith("suppressed 8 records")));
+    }
+
+    @Test
+    void drainThread_deliversEverythingBeforeStopReturns() throws InterruptedException {
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(new CompletableFuture<>());
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, LogLevelThresholds.of(LogLevel.TRACE), 1024, OverflowPolicy.DROP, 10, 16, new SimpleMeterRegistry());
+        producer.start();
+
+        for (int i = 0; i < 500; i++) {
+            producer.info("api-calls", "msg-" + i, "dawController", "getDawById");
+        }
+        producer.stop();
+
+        verify(kafkaTemplate, times(500)).send(eq("api-calls"), eq("dawController"), any());
+        verify(kafkaTemplate).flush();
+    }
+}
@@ -0,0 +1,122 @@
+package com.project.dawker.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaLogSinkTest {
+
+    @Mock
+    private KafkaTemplate<String, Map<String, String>> kafkaTemplate;
+
+    @TempDir
+    Path dir;
+
+    private static Map<String, String> record(String message) {
+        return Map.of("level", "INFO", "service", "dawController", "method", "getDawById", "message", message);
+    }
+
+    @Test
+    void failedSends_spooledThenReplayedOnceKafkaIsBack() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LogSpool spool = new LogSpool(dir, 4096, 1 << 20, registry);
+        when(kafkaTemplate.send(anyString(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        KafkaLogSink sink = new KafkaLogSink(kafkaTemplate, spool, Duration.ofSeconds(5), registry);
+
+        sink.send("api-calls", "dawController", 1000L, record("one"));
+        sink.send("api-calls", "dawController", 1001L, record("two"));
+
+        // Only the first record went to Kafka; the second was spooled without trying
+        verify(kafkaTemplate, times(1)).send(anyString(), any(), any());
+        assertTrue(sink.isBrokerDown());
+        assertEquals(2, spool.size());
+        assertEquals(0.0, registry.get("dawker.logging.kafka.failed").counter().count());
+
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        assertTrue(sink.replayBatch());
+        assertFalse(sink.replayBatch());
+
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, Map<String, String>> record) ->
+                "one".equals(record.value().get("message")) && "dawController".equals(record.key())
+                        && record.timestamp() == 1000L));
+        assertEquals(0, spool.size());
+        assertFalse(sink.isBrokerDown());
+        assertEquals(2.0, registry.get("dawker.logging.kafka.spool.replayed").counter().count());
+    }
+
+    @Test
+    void replayBatch_segmentEvictedMidReplay_dropsNothingUnsent() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LogSpool spool = new LogSpool(dir, 4096, 2 * 4096, registry);
+        for (int i = 0; i < 20; i++) {
+            spool.append("api-calls", "dawController", i, record("old-" + i));
+        }
+        KafkaLogSink sink = new KafkaLogSink(kafkaTemplate, spool, Duration.ofSeconds(5), registry);
+        // While the batch is being sent, the drain thread spools enough to evict the batch's segment
+        boolean[] spooledMore = { false };
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            if (!spooledMore[0]) {
+                spooledMore[0] = true;
+                for (int i = 0; i < 100; i++) {
+                    spool.append("api-calls", "dawController", 100 + i, record("new-" + i));
+                }
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+
+        assertTrue(sink.replayBatch());
+
+        long evicted = (long) registry.get("dawker.logging.kafka.spool.evicted").counter().count();
+        assertTrue(evicted > 20);
+        // Every new record is either still spooled or was counted as evicted
+        assertEquals(120, spool.size() + evicted);
+        assertEquals("new-" + (evicted - 20), spool.peek(1).get(0).payload().get("message"));
+        assertEquals(20.0, registry.get("dawker.logging.kafka.spool.replayed").counter().count());
+    }
+
+    @Test
+    void closedPort_recordsEndUpInTheSpool() throws Exception {
+        DefaultKafkaProducerFactory<String, Map<String, String>> factory = new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:1",
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, 200,
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, LogRecordSerializer.class));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LogSpool spool = new LogSpool(dir, 4096, 1 << 20, registry);
+        KafkaLogProducer producer = new KafkaLogProducer(new KafkaLogSink(new KafkaTemplate<>(factory), spool,
+                Duration.ofSeconds(30), registry), LogLevelThresholds.of(LogLevel.TRACE), 64, OverflowPolicy.DROP, 10, 256,
+                Duration.ofMinutes(5), LogRateLimiter.NONE, Duration.ofSeconds(10), registry);
+
+        for (int i = 0; i < 5; i++) {
+            producer.info("api-calls", "msg-" + i, "dawController", "getDawById");
+        }
+        producer.drainBatch();
+        factory.destroy();
+
+        assertEquals(5, spool.size());
+        assertEquals("msg-0", spool.peek(1).get(0).payload().get("message"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.dawker.kafka;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaLoggingEndpointTest {
+
+    @Mock
+    private KafkaTemplate<String, Map<String, String>> kafkaTemplate;
+
+    @Test
+    void writeAndDeleteOperations_updateProducerThresholds() {
+        KafkaLogProducer producer = new KafkaLogProducer(kafkaTemplate, LogLevel.INFO);
+        KafkaLoggingEndpoint endpoint = new KafkaLoggingEndpoint(producer);
+
+        endpoint.setOverride("topic", "api-calls", LogLevel.ERROR);
+        LogLevelThresholds levels = endpoint.setOverride("service", "DawService", LogLevel.TRACE);
+        assertEquals(Map.of("api-calls", LogLevel.ERROR), levels.getTopics());
+        assertEquals(Map.of("DawService", LogLevel.TRACE), levels.getServices());
+        assertTrue(producer.isEnabled("service-calls", LogLevel.TRACE, "DawService"));
+
+        endpoint.clearOverride("service", "DawService");
+        assertEquals(LogLevel.WARN, endpoint.setDefault(LogLevel.WARN).getDefaultLevel());
+        assertFalse(producer.isEnabled(LogLevel.INFO));
+
+        assertThrows(IllegalArgumentException.class, () -> endpoint.setOverride("method", "x", LogLevel.INFO));
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.dawker.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogLevelThresholdsTest {
+
+    @Test
+    void serviceOverrideBeatsTopicOverrideBeatsDefault() {
+        LogLevelThresholds thresholds = new LogLevelThresholds(LogLevel.INFO,
+                Map.of("api-calls", LogLevel.WARN), Map.of("DawService", LogLevel.TRACE));
+
+        assertEquals(LogLevel.INFO, thresholds.levelFor("service-calls", "useService"));
+        assertEquals(LogLevel.WARN, thresholds.levelFor("api-calls", "dawController"));
+        assertEquals(LogLevel.TRACE, thresholds.levelFor("api-calls", "DawService"));
+
+        assertFalse(thresholds.isEnabled("api-calls", LogLevel.INFO, "dawController"));
+        assertTrue(thresholds.isEnabled("service-calls", LogLevel.TRACE, "DawService"));
+    }
+
+    @Test
+    void floorIsLowestLevelAnyScopeEnables() {
+        LogLevelThresholds thresholds = new LogLevelThresholds(LogLevel.WARN, Map.of(), Map.of("DawService", LogLevel.DEBUG));
+
+        assertTrue(thresholds.isEnabled(LogLevel.DEBUG));
+        assertFalse(thresholds.isEnabled(LogLevel.TRACE));
+        assertFalse(thresholds.withService("DawService", null).isEnabled(LogLevel.DEBUG));
+    }
+
+    @Test
+    void withMethodsLeaveOriginalUntouched() {
+        LogLevelThresholds original = LogLevelThresholds.of(LogLevel.INFO);
+
+        LogLevelThresholds changed = original.withTopic("api-calls", LogLevel.ERROR).withDefault(LogLevel.DEBUG);
+
+        assertEquals(LogLevel.INFO, original.getDefaultLevel());
+        assertTrue(original.getTopics().isEmpty());
+        assertEquals(LogLevel.DEBUG, changed.getDefaultLevel());
+        assertEquals(Map.of("api-calls", LogLevel.ERROR), changed.getTopics());
+    }
+
+    @Test
+    void parse_readsNameLevelPairs() {
+        assertEquals(Map.of("api-calls", LogLevel.INFO, "service-calls", LogLevel.DEBUG),
+                LogLevelThresholds.parse("api-calls:INFO, service-calls:debug"));
+        assertTrue(LogLevelThresholds.parse("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> LogLevelThresholds.parse("api-calls"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.project.dawker.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRateLimiterTest {
+
+    private static LogRateLimiter limiter(String rateLimits, String sampleFractions, AtomicLong clock) {
+        return LogRateLimiter.parse(rateLimits, sampleFractions, clock::get);
+    }
+
+    @Test
+    void rateLimit_allowsASecondsBurstThenTheRate() {
+        AtomicLong clock = new AtomicLong(0);
+        LogRateLimiter limiter = limiter("dawController.getDawById:DEBUG=5/s", "", clock);
+
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (limiter.tryAcquire("api-calls", "dawController", "getDawById", LogLevel.DEBUG)) allowed++;
+        }
+        assertEquals(5, allowed);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertTrue(limiter.tryAcquire("api-calls", "dawController", "getDawById", LogLevel.DEBUG));
+        assertFalse(limiter.tryAcquire("api-calls", "dawController", "getDawById", LogLevel.DEBUG));
+
+        // Other levels, methods and services aren't limited by this rule
+        assertTrue(limiter.tryAcquire("api-calls", "dawController", "getDawById", LogLevel.INFO));
+        assertTrue(limiter.tryAcquire("api-calls", "dawController", "saveDaw", LogLevel.DEBUG));
+    }
+
+    @Test
+    void mostSpecificSelectorWins_andEachMethodGetsItsOwnBucket() {
+        AtomicLong clock = new AtomicLong(0);
+        LogRateLimiter limiter = limiter("DawService=1/s,DawService.getDawById=3/s", "", clock);
+
+        int getDaw = 0;
+        int saveDaw = 0;
+        int deleteDaw = 0;
+        for (int i = 0; i < 10; i++) {
+            if (limiter.tryAcquire("service-calls", "DawService", "getDawById", LogLevel.INFO)) getDaw++;
+            if (limiter.tryAcquire("service-calls", "DawService", "saveDaw", LogLevel.INFO)) saveDaw++;
+            if (limiter.tryAcquire("service-calls", "DawService", "deleteDaw", LogLevel.INFO)) deleteDaw++;
+        }
+
+        assertEquals(3, getDaw);
+        assertEquals(1, saveDaw);
+        assertEquals(1, deleteDaw);
+    }
+
+    @Test
+    void sampling_andSuppressedCountsAreReportedOnce() {
+        LogRateLimiter limiter = limiter("", "dawController:INFO=0", new AtomicLong());
+
+        for (int i = 0; i < 7; i++) {
+            assertFalse(limiter.tryAcquire("api-calls", "dawController", "getDawById", LogLevel.INFO));
+        }
+
+        Map<String, Long> reported = new HashMap<>();
+        limiter.drainSuppressed((bucket, count) -> reported.put(bucket.topic() + " " + bucket.method + " " + bucket.level, count));
+        assertEquals(Map.of("api-calls getDawById INFO", 7L), reported);
+
+        reported.clear();
+        limiter.drainSuppressed((bucket, count) -> reported.put(bucket.method, count));
+        assertTrue(reported.isEmpty());
+    }
+
+    @Test
+    void parse_rejectsBadSpecs() {
+        assertSame(LogRateLimiter.NONE, LogRateLimiter.parse("", " "));
+        assertThrows(IllegalArgumentException.class, () -> LogRateLimiter.parse("dawController=5", ""));
+        assertThrows(IllegalArgumentException.class, () -> LogRateLimiter.parse("dawController=0/s", ""));
+        assertThrows(IllegalArgumentException.class, () -> LogRateLimiter.parse("", "dawController=1.5"));
+        assertTrue(LogRateLimiter.parse("dawController:DEBUG=5/s", "").tryAcquire("api-calls", "dawController", "x", LogLevel.DEBUG));
+    }
+
+    @Test
+    void concurrentCallers_neverExceedTheBurst() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(0);
+        LogRateLimiter limiter = limiter("dawController=100/s", "", clock);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1_000; i++) {
+                    if (limiter.tryAcquire("api-calls", "dawController", "getDawById", LogLevel.INFO)) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+        long[] suppressed = new long[1];
+        limiter.drainSuppressed((bucket, count) -> suppressed[0] += count);
+        assertEquals(7_900, suppressed[0]);
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.dawker.kafka;
+
+import com.revature.logging.LogRecordCodec;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRecordCodecTest {
+
+    @Test
+    void roundTrip_keepsEveryField() {
+        Map<String, String> record = Map.of(
+                "service", "DawService",
+                "method", "getDawById",
+                "level", "ERROR",
+                "message", "Daw not found: é 日本 😀",
+                "exception", "java.lang.IllegalStateException\n\tat x.y(Z.java:1)".repeat(20));
+
+        byte[] encoded = new LogRecordSerializer().serialize("errors", record);
+
+        assertTrue(LogRecordCodec.isBinary(encoded));
+        assertEquals(record, LogRecordCodec.decode(encoded));
+    }
+
+    @Test
+    void missingFieldsAndUnknownLevels_survive() {
+        Map<String, String> record = new HashMap<>();
+        record.put("level", "FATAL");
+        record.put("message", "");
+        record.put("service", null);
+
+        Map<String, String> decoded = LogRecordCodec.decode(LogRecordCodec.encode(record));
+
+        assertEquals(Map.of("level", "FATAL", "message", ""), decoded);
+        assertEquals(Map.of(), LogRecordCodec.decode(LogRecordCodec.encode(Map.of())));
+    }
+
+    @Test
+    void binary_isSmallerThanJson() {
+        Map<String, String> record = Map.of(
+                "service", "dawController",
+                "method", "getDawById",
+                "level", "INFO",
+                "message", "Getting daw by id 6f1c2a4e-9b7d-4c11-8f3e-2d5a7b9c0e12");
+
+        int json = JsonMapper.shared().writeValueAsBytes(record).length;
+        int binary = LogRecordCodec.encode(record).length;
+
+        assertTrue(binary < json * 0.7, "binary " + binary + " vs json " + json);
+    }
+
+    @Test
+    void json_isNotMistakenForBinary() {
+        assertFalse(LogRecordCodec.isBinary(JsonMapper.shared().writeValueAsBytes(Map.of("level", "INFO"))));
+        assertThrows(IllegalArgumentException.class, () -> LogRecordCodec.decode("{}".getBytes()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.project.dawker.kafka;
+
+import com.revature.logging.LogRecordCodec;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JacksonJsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// ns per serialized log record: JSON as the producer used to send it (JacksonJsonSerializer,
+// which also adds a __TypeId__ header) against LogRecordSerializer. main() prints the bytes each puts on the wire first.
+//
+// Not part of the test run. To run it (add -prof gc to see allocations per call):
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.project.dawker.kafka.LogRecordSerializerBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogRecordSerializerBenchmark {
+
+    static final Map<String, String> INFO = Map.of(
+            "service", "dawController",
+            "method", "getDawById",
+            "level", "INFO",
+            "message", "Getting daw by id 6f1c2a4e-9b7d-4c11-8f3e-2d5a7b9c0e12");
+
+    private final JacksonJsonSerializer<Map<String, String>> json = new JacksonJsonSerializer<>();
+    private final LogRecordSerializer binary = new LogRecordSerializer();
+
+    @TearDown
+    public void tearDown() {
+        json.close();
+    }
+
+    @Benchmark
+    public byte[] json() {
+        return json.serialize("api-calls", new RecordHeaders(), INFO);
+    }
+
+    @Benchmark
+    public byte[] binary() {
+        return binary.serialize("api-calls", new RecordHeaders(), INFO);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        try (JacksonJsonSerializer<Map<String, String>> json = new JacksonJsonSerializer<>()) {
+            RecordHeaders headers = new RecordHeaders();
+            int value = json.serialize("api-calls", headers, INFO).length;
+            int headerBytes = 0;
+            for (Header header : headers) {
+                headerBytes += header.key().length() + header.value().length;
+            }
+            System.out.printf("json:   %d value bytes + %d header bytes%n", value, headerBytes);
+        }
+        System.out.printf("binary: %d value bytes%n", LogRecordCodec.encode(INFO).length);
+
+        new Runner(new OptionsBuilder()
+                .include(LogRecordSerializerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.dawker.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRingBufferTest {
+
+    @Test
+    void capacity_roundsUpToPowerOfTwo() {
+        assertEquals(8, new LogRingBuffer<Integer>(5).capacity());
+        assertEquals(8, new LogRingBuffer<Integer>(8).capacity());
+    }
+
+    @Test
+    void offer_failsWhenFullAndRecoversAfterPoll() {
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        assertNull(new LogRingBuffer<Integer>(4).poll());
+    }
+
+    @Test
+    void drainTo_isFifoAcrossWrapAround() {
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(buffer.offer(i));
+            if (i % 3 == 2) {
+                buffer.drainTo(drained::add, 3);
+            }
+        }
+        buffer.drainTo(drained::add, Integer.MAX_VALUE);
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void concurrentProducers_everyElementDeliveredExactlyOnce() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(1024);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+
+        BitSet seen = new BitSet(producers * perProducer);
+        int[] received = {0};
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received[0] < producers * perProducer && System.nanoTime() < deadline) {
+            buffer.drainTo(value -> {
+                assertFalse(seen.get(value), "duplicate " + value);
+                seen.set(value);
+                received[0]++;
+            }, 256);
+        }
+        pool.shutdownNow();
+
+        assertEquals(producers * perProducer, received[0]);
+        assertEquals(producers * perProducer, seen.cardinality());
+    }
+}
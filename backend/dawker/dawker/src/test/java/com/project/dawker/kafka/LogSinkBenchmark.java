@@ -0,0 +1,143 @@
+package com.project.dawker.kafka;
+
+import com.revature.logging.RotationPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end latency of one log call until the record is somewhere a reader can see it:
+//   in-process: producer.info -> ring buffer -> drain thread -> written to the level files
+//   kafka:      producer.info -> ring buffer -> drain thread -> broker -> polled by a consumer
+// The kafka case stops at the consumer's poll (fetch.min.bytes=1, so no fetch-wait batching);
+// the log consumer's own formatting and file writes come on top of that.
+//
+// Not part of the test run. The kafka case needs a broker (docker compose up kafka) at
+// -Dbootstrap=localhost:9092; without one, run only the in-process case:
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.project.dawker.kafka.LogSinkBenchmark -Dexec.args="in-process"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogSinkBenchmark {
+
+    private static final String TOPIC = "api-calls";
+
+    @Param({"in-process", "kafka"})
+    public String sink;
+
+    private KafkaLogProducer producer;
+    private Path dir;
+    private InProcessLogSink inProcess;
+    private Counter written;
+    private DefaultKafkaProducerFactory<String, Map<String, String>> factory;
+    private KafkaConsumer<String, byte[]> consumer;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LogSink logSink;
+        if ("in-process".equals(sink)) {
+            dir = Files.createTempDirectory("log-sink-bench");
+            inProcess = new InProcessLogSink(dir, 65536, new RotationPolicy(0, Duration.ZERO, false), registry);
+            written = registry.get("dawker.logging.in-process.written").counter();
+            logSink = inProcess;
+        } else {
+            String bootstrap = System.getProperty("bootstrap", "localhost:9092");
+            // As in application.properties
+            factory = new DefaultKafkaProducerFactory<>(Map.of(
+                    ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap,
+                    ProducerConfig.LINGER_MS_CONFIG, 20,
+                    ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                    ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, LogRecordSerializer.class));
+            consumer = new KafkaConsumer<>(Map.of(
+                    ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap,
+                    ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1,
+                    ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                    ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class));
+            List<TopicPartition> partitions = consumer.partitionsFor(TOPIC).stream()
+                    .map(info -> new TopicPartition(TOPIC, info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToEnd(partitions);
+            logSink = new KafkaLogSink(new KafkaTemplate<>(factory), null, Duration.ofSeconds(5), registry);
+        }
+        producer = new KafkaLogProducer(logSink, LogLevelThresholds.of(LogLevel.TRACE), 8192, OverflowPolicy.DROP, 10, 256,
+                Duration.ofMinutes(5), LogRateLimiter.NONE, Duration.ofSeconds(10), registry);
+        producer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        producer.stop();
+        if (inProcess != null) {
+            inProcess.close();
+            try (var files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        } else {
+            consumer.close();
+            factory.destroy();
+        }
+    }
+
+    @Benchmark
+    public void logToVisible() {
+        producer.info(TOPIC, "Getting daw by id " + ++sequence, "DawService", "getDawById");
+        if (inProcess != null) {
+            while (written.count() < sequence) {
+                Thread.onSpinWait();
+            }
+        } else {
+            while (consumer.poll(Duration.ofMillis(100)).isEmpty()) {
+                // Until this call's record arrives; one record is in flight at a time
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(LogSinkBenchmark.class.getSimpleName());
+        if (args.length > 0) {
+            options.param("sink", args);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,150 @@
+package com.project.dawker.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogSpoolTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path dir;
+
+    private static Map<String, String> record(int i) {
+        return Map.of("level", "INFO", "service", "dawController", "method", "getDawById", "message", "record " + i);
+    }
+
+    @Test
+    void peekAndRemove_oldestFirst() throws Exception {
+        LogSpool spool = new LogSpool(dir, SEGMENT_BYTES, 1 << 20, new SimpleMeterRegistry());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(spool.append("api-calls", i % 2 == 0 ? "dawController" : null, 1000L + i, record(i)));
+        }
+        assertEquals(100, spool.size());
+
+        List<LogSpool.Entry> first = spool.peek(3);
+        assertEquals("record 0", first.get(0).payload().get("message"));
+        assertEquals("api-calls", first.get(1).topic());
+        assertNull(first.get(1).key());
+        assertEquals(1002L, first.get(2).timestamp());
+
+        // Across segment boundaries
+        spool.remove(spool.peek(60).get(59).next());
+        assertEquals(40, spool.size());
+        assertEquals("record 60", spool.peek(1).get(0).payload().get("message"));
+        spool.remove(spool.peek(40).get(39).next());
+        assertTrue(spool.peek(10).isEmpty());
+        assertEquals(0, spool.size());
+    }
+
+    @Test
+    void reopen_resumesAfterWhatWasReplayed() throws Exception {
+        LogSpool spool = new LogSpool(dir, SEGMENT_BYTES, 1 << 20, new SimpleMeterRegistry());
+        for (int i = 0; i < 50; i++) {
+            spool.append("errors", "forumService", i, record(i));
+        }
+        spool.remove(spool.peek(10).get(9).next());
+        spool.close();
+
+        LogSpool reopened = new LogSpool(dir, SEGMENT_BYTES, 1 << 20, new SimpleMeterRegistry());
+        assertEquals(40, reopened.size());
+        assertEquals("record 10", reopened.peek(1).get(0).payload().get("message"));
+        reopened.append("errors", "forumService", 50, record(50));
+        List<LogSpool.Entry> all = reopened.peek(100);
+        assertEquals(41, all.size());
+        assertEquals("record 50", all.get(40).payload().get("message"));
+    }
+
+    @Test
+    void reopen_afterTornAppend_appendsOverItsLeftovers() throws Exception {
+        LogSpool spool = new LogSpool(dir, SEGMENT_BYTES, 1 << 20, new SimpleMeterRegistry());
+        spool.append("errors", "forumService", 0, record(0));
+        spool.append("errors", "forumService", 1, record(1));
+        spool.close();
+
+        // A crash after writing part of a third entry's body but not its length: the body
+        // bytes look like a run of short entries
+        Path segment = dir.resolve("spool-000001.dat");
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int end = 8;
+        while (bytes.getInt(end) > 0) {
+            end += Integer.BYTES + bytes.getInt(end);
+        }
+        for (int at = end + Integer.BYTES; at < end + 400; at += Integer.BYTES) {
+            bytes.putInt(at, 12);
+        }
+        Files.write(segment, bytes.array());
+
+        LogSpool reopened = new LogSpool(dir, SEGMENT_BYTES, 1 << 20, new SimpleMeterRegistry());
+        assertEquals(2, reopened.size());
+        reopened.append("errors", "forumService", 2, record(2));
+        reopened.close();
+
+        LogSpool again = new LogSpool(dir, SEGMENT_BYTES, 1 << 20, new SimpleMeterRegistry());
+        assertEquals(3, again.size());
+        assertEquals("record 2", again.peek(10).get(2).payload().get("message"));
+    }
+
+    @Test
+    void full_evictsOldestSegment() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LogSpool spool = new LogSpool(dir, SEGMENT_BYTES, 2 * SEGMENT_BYTES, registry);
+        for (int i = 0; i < 500; i++) {
+            spool.append("api-calls", "dawController", i, record(i));
+        }
+
+        try (var files = Files.list(dir)) {
+            assertEquals(2, files.count());
+        }
+        double evicted = registry.get("dawker.logging.kafka.spool.evicted").counter().count();
+        assertTrue(evicted > 0);
+        assertEquals(500, spool.size() + (long) evicted);
+        assertEquals("record 499", spool.peek(500).get((int) spool.size() - 1).payload().get("message"));
+        assertFalse(spool.peek(1).get(0).payload().get("message").equals("record 0"));
+    }
+
+    @Test
+    void remove_afterItsSegmentWasEvicted_leavesTheNewerSegmentsAlone() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LogSpool spool = new LogSpool(dir, SEGMENT_BYTES, 2 * SEGMENT_BYTES, registry);
+        for (int i = 0; i < 10; i++) {
+            spool.append("api-calls", "dawController", i, record(i));
+        }
+        List<LogSpool.Entry> replaying = spool.peek(10);
+
+        // Appends while the batch is out: the segment it came from is evicted
+        for (int i = 10; i < 200; i++) {
+            spool.append("api-calls", "dawController", i, record(i));
+        }
+        long evicted = (long) registry.get("dawker.logging.kafka.spool.evicted").counter().count();
+        assertTrue(evicted >= 10);
+        long left = spool.size();
+        String oldest = spool.peek(1).get(0).payload().get("message");
+
+        spool.remove(replaying.get(9).next());
+
+        assertEquals(left, spool.size());
+        assertEquals(oldest, spool.peek(1).get(0).payload().get("message"));
+        assertEquals(200, spool.size() + evicted);
+    }
+
+    @Test
+    void append_rejectsRecordLargerThanASegment() throws Exception {
+        LogSpool spool = new LogSpool(dir, SEGMENT_BYTES, 1 << 20, new SimpleMeterRegistry());
+
+        assertFalse(spool.append("errors", "forumService", 0, Map.of("message", "x".repeat(SEGMENT_BYTES))));
+        assertEquals(0, spool.size());
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.dawker.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StackTraceDeduplicatorTest {
+
+    private static Exception thrownHere(String message) {
+        return new IllegalStateException(message, new RuntimeException("cause"));
+    }
+
+    private static Exception thrownThere(String message) {
+        return new IllegalStateException(message);
+    }
+
+    @Test
+    void fingerprint_dependsOnWhereNotOnTheMessage() {
+        assertEquals(StackTraceDeduplicator.fingerprint(thrownHere("id 1")), StackTraceDeduplicator.fingerprint(thrownHere("id 2")));
+        assertNotEquals(StackTraceDeduplicator.fingerprint(thrownHere("id 1")), StackTraceDeduplicator.fingerprint(thrownThere("id 1")));
+        assertEquals(16, StackTraceDeduplicator.fingerprint(thrownHere("x")).length());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void describe_sendsFullTraceOncePerWindowThenCounts() {
+        StackTraceDeduplicator dedup = new StackTraceDeduplicator(Duration.ofMinutes(5), 16);
+        long[] times = {0, 1_000, Duration.ofMinutes(5).toMillis()};
+        Map<String, String>[] payloads = new Map[times.length];
+        boolean[] deduplicated = new boolean[times.length];
+
+        // Same call site each time, so the same stack
+        for (int i = 0; i < times.length; i++) {
+            payloads[i] = new HashMap<>();
+            deduplicated[i] = dedup.describe(thrownHere("id " + i), times[i], payloads[i]);
+        }
+
+        assertFalse(deduplicated[0]);
+        assertTrue(payloads[0].get("exception").contains("\tat "));
+        assertNull(payloads[0].get("repeat"));
+
+        assertTrue(deduplicated[1]);
+        assertEquals("java.lang.IllegalStateException: id 1", payloads[1].get("exception"));
+        assertEquals("2", payloads[1].get("repeat"));
+        assertEquals(payloads[0].get("fingerprint"), payloads[1].get("fingerprint"));
+
+        // Window over: the full trace goes out again
+        assertFalse(deduplicated[2]);
+        assertTrue(payloads[2].get("exception").contains("\tat "));
+    }
+
+    @Test
+    void describe_forgetsLeastRecentFingerprintsPastTheLimit() {
+        StackTraceDeduplicator dedup = new StackTraceDeduplicator(Duration.ofMinutes(5), 1);
+
+        Exception[] errors = {thrownHere("a"), thrownThere("b"), thrownHere("a")};
+        boolean[] deduplicated = new boolean[errors.length];
+        for (int i = 0; i < errors.length; i++) {
+            deduplicated[i] = dedup.describe(errors[i], 0, new HashMap<>());
+        }
+
+        assertEquals(StackTraceDeduplicator.fingerprint(errors[0]), StackTraceDeduplicator.fingerprint(errors[2]));
+        assertFalse(deduplicated[2]);
+    }
+}
@@ -1,19 +1,31 @@
 package com.project.dawker.repository;
 
 import com.project.dawker.entity.User;
+import com.project.dawker.entity.daw_specific.ComponentEntity;
+import com.project.dawker.entity.daw_specific.ConfigEntity;
 import com.project.dawker.entity.daw_specific.DawEntity;
+import com.project.dawker.entity.daw_specific.SettingsEntity;
+import com.project.dawker.repository.interfaces.DawSummary;
 
+import jakarta.persistence.EntityManager;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
 class DawRepositoryTest {
     
@@ -21,6 +33,8 @@ class DawRepositoryTest {
     private DawRepository dawRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     private DawEntity testDaw;
     private User testUser;
@@ -55,4 +69,116 @@ class DawRepositoryTest {
         assertThat(retrievedDaw).isPresent();
         assertThat(retrievedDaw.get().getName()).isEqualTo("Test Daw");
     }
+
+    @Test
+    void findOwnerIdById_ReturnsOwnerWithoutLoadingTheDaw() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics stats = statistics();
+
+        assertThat(dawRepository.findOwnerIdById(testDaw.getId())).contains(savedUser.getId());
+        assertThat(dawRepository.findOwnerIdById("missing")).isEmpty();
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findFullTreeById_LoadsWholeRigInFixedStatementCount() {
+        String dawId = saveRig(8, 12);
+        Statistics stats = statistics();
+
+        DawEntity daw = dawRepository.findFullTreeById(dawId).orElseThrow();
+        int settingsSeen = 0;
+        for (ConfigEntity config : daw.getListOfConfigs()) {
+            for (ComponentEntity component : config.getComponents()) {
+                settingsSeen += component.getSettings().getParameters().size();
+            }
+        }
+
+        assertThat(daw.getListOfConfigs()).hasSize(8);
+        assertThat(settingsSeen).isEqualTo(8 * 12);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findById_WalksTreeLazily() {
+        // Baseline for the test above: the lazy walk is one statement per config on top of the root load
+        String dawId = saveRig(8, 12);
+        Statistics stats = statistics();
+
+        DawEntity daw = dawRepository.findById(dawId).orElseThrow();
+        daw.getListOfConfigs().forEach(config -> config.getComponents().forEach(c -> c.getSettings().getId()));
+
+        assertThat(stats.getPrepareStatementCount()).isGreaterThan(8);
+    }
+
+    @Test
+    void findSummaries_KeysetPagesCoverEveryDawOnce() {
+        dawRepository.deleteAll();
+        LocalDateTime tie = LocalDateTime.of(2026, 1, 5, 12, 0);
+        saveDaw("Older", tie.minusDays(1));
+        saveDaw("Tie A", tie);
+        saveDaw("Tie B", tie);
+        saveDaw("Newest", tie.plusDays(1));
+        saveDaw("Newer", tie.plusHours(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<DawSummary> first = dawRepository.findSummaries(PageRequest.of(0, 2));
+        DawSummary last = first.get(first.size() - 1);
+        List<DawSummary> second = dawRepository.findSummariesAfter(last.getCreatedAt(), last.getDawId(), PageRequest.of(0, 2));
+        last = second.get(second.size() - 1);
+        List<DawSummary> third = dawRepository.findSummariesAfter(last.getCreatedAt(), last.getDawId(), PageRequest.of(0, 2));
+
+        assertThat(first).hasSize(2);
+        assertThat(first.get(0).getName()).isEqualTo("Newest");
+        assertThat(first.get(0).getUserId()).isEqualTo(savedUser.getId());
+        assertThat(second).hasSize(2);
+        assertThat(third).extracting(DawSummary::getName).containsExactly("Older");
+        assertThat(java.util.stream.Stream.of(first, second, third).flatMap(List::stream).map(DawSummary::getDawId))
+                .doesNotHaveDuplicates()
+                .hasSize(5);
+    }
+
+    private void saveDaw(String name, LocalDateTime createdAt) {
+        DawEntity daw = new DawEntity();
+        daw.setName(name);
+        daw.setUser(savedUser);
+        daw.setCreatedAt(createdAt);
+        dawRepository.save(daw);
+    }
+
+    // Persists a rig of configs x components, then detaches everything so the next read hits the database
+    private String saveRig(int configs, int componentsPerConfig) {
+        DawEntity daw = new DawEntity();
+        daw.setName("Big Rig");
+        daw.setUser(savedUser);
+        for (int i = 0; i < configs; i++) {
+            ConfigEntity config = new ConfigEntity();
+            config.setName("Config " + i);
+            config.setDaw(daw);
+            for (int j = 0; j < componentsPerConfig; j++) {
+                SettingsEntity settings = new SettingsEntity();
+                settings.setTechnology("RNBO");
+                settings.setParameters(Map.of("gain", j));
+                ComponentEntity component = new ComponentEntity();
+                component.setInstanceId("comp-" + i + "-" + j);
+                component.setName("Pedal " + j);
+                component.setType("overdrive");
+                component.setConfig(config);
+                component.setSettings(settings);
+                config.getComponents().add(component);
+            }
+            daw.getListOfConfigs().add(config);
+        }
+        String dawId = dawRepository.save(daw).getId();
+        entityManager.flush();
+        entityManager.clear();
+        return dawId;
+    }
+
+    private Statistics statistics() {
+        Statistics stats = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
 }
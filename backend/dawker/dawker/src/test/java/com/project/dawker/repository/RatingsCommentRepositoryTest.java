@@ -10,8 +10,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import com.project.dawker.repository.interfaces.RatingsCommentSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -27,6 +34,8 @@ class RatingsCommentRepositoryTest {
     private DawRepository dawRepository;
     @Autowired
     private RatingsPageRepository ratingsPageRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     private User testUser;
     private User savedUser;
@@ -80,4 +89,53 @@ class RatingsCommentRepositoryTest {
         assertThat(retrievedComment).isPresent();
         assertThat(retrievedComment.get().getComment()).isEqualTo("Great DAW!");
     }
+
+    @Test
+    void findSummaries_KeysetPagesCoverEveryCommentOnce() {
+        LocalDateTime tie = LocalDateTime.of(2026, 1, 5, 12, 0);
+        testRatingsComment.setCreatedAt(tie.minusDays(1));
+        saveComment("Tie A", tie);
+        saveComment("Tie B", tie);
+        saveComment("Newest", tie.plusDays(1));
+        saveComment("Newer", tie.plusHours(1));
+        RatingsPage otherPage = new RatingsPage();
+        otherPage.setDawId("other-daw");
+        RatingsComment elsewhere = new RatingsComment();
+        elsewhere.setRatingsPage(ratingsPageRepository.save(otherPage));
+        elsewhere.setCreatedAt(tie.plusDays(2));
+        ratingsCommentRepository.saveAndFlush(elsewhere);
+
+        Long pageId = savedRatingsPage.getId();
+        List<RatingsCommentSummary> first = ratingsCommentRepository.findSummaries(pageId, PageRequest.of(0, 2));
+        RatingsCommentSummary last = first.get(first.size() - 1);
+        List<RatingsCommentSummary> second = ratingsCommentRepository.findSummariesAfter(pageId, last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+        last = second.get(second.size() - 1);
+        List<RatingsCommentSummary> third = ratingsCommentRepository.findSummariesAfter(pageId, last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+
+        assertThat(first).extracting(RatingsCommentSummary::getComment).containsExactly("Newest", "Newer");
+        assertThat(second).hasSize(2);
+        assertThat(third).extracting(RatingsCommentSummary::getComment).containsExactly("Great DAW!");
+        assertThat(Stream.of(first, second, third).flatMap(List::stream).map(RatingsCommentSummary::getId))
+                .doesNotHaveDuplicates()
+                .hasSize(5);
+    }
+
+    @Test
+    void commentsIndexedByPageThenCreatedAt() {
+        List<String> columns = jdbcTemplate.queryForList("""
+                SELECT c.COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS c
+                WHERE c.INDEX_NAME = 'IDX_RATINGS_COMMENT_PAGE_CREATED'
+                ORDER BY c.ORDINAL_POSITION
+                """, String.class);
+
+        assertThat(columns).containsExactly("RATINGS_PAGE_ID", "CREATED_AT", "ID");
+    }
+
+    private void saveComment(String comment, LocalDateTime createdAt) {
+        RatingsComment ratingsComment = new RatingsComment();
+        ratingsComment.setRatingsPage(savedRatingsPage);
+        ratingsComment.setComment(comment);
+        ratingsComment.setCreatedAt(createdAt);
+        ratingsCommentRepository.saveAndFlush(ratingsComment);
+    }
 }
@@ -3,6 +3,7 @@ package com.project.dawker.repository;
 import com.project.dawker.entity.daw_specific.DawEntity;
 import com.project.dawker.entity.User;
 import com.project.dawker.entity.daw_specific.RatingsPage;
+import com.project.dawker.repository.interfaces.RatingsPageStanding;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -61,4 +62,21 @@ class RatingsPageRepositoryTest {
         assertThat(retrieved).isPresent();
         assertThat(retrieved.get().getId()).isEqualTo(savedRatingsPage.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findStandings_OnlyRatedPages() {
+        RatingsPage rated = new RatingsPage();
+        rated.setDawId("rated-daw");
+        rated.setRatingSum(9.0);
+        rated.setRatingCount(2);
+        ratingsPageRepository.save(rated);
+
+        assertThat(ratingsPageRepository.findStandings())
+                .singleElement()
+                .satisfies(standing -> {
+                    assertThat(standing.getDawId()).isEqualTo("rated-daw");
+                    assertThat(standing.getRatingSum()).isEqualTo(9.0);
+                    assertThat(standing.getRatingCount()).isEqualTo(2);
+                });
+    }
+}
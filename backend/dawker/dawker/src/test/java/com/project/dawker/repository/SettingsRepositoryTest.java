@@ -0,0 +1,112 @@
+package com.project.dawker.repository;
+
+import com.project.dawker.entity.User;
+import com.project.dawker.entity.daw_specific.ComponentEntity;
+import com.project.dawker.entity.daw_specific.ConfigEntity;
+import com.project.dawker.entity.daw_specific.DawEntity;
+import com.project.dawker.entity.daw_specific.SettingsEntity;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the Java merge used on H2; SettingsRepositoryPostgresTest runs the same tests against
+// the jsonb UPDATE, so the two have to store the same thing
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class SettingsRepositoryTest {
+
+    @Autowired
+    private SettingsRepository settingsRepository;
+    @Autowired
+    private DawRepository dawRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private String dawId;
+    private Long settingsId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("knob_twiddler");
+        user.setEmail("knobs@example.com");
+        user.setPassword("securepassword");
+        user.setRole("USER");
+        userRepository.save(user);
+
+        DawEntity daw = new DawEntity();
+        daw.setName("Patch Rig");
+        daw.setUser(user);
+        ConfigEntity config = new ConfigEntity();
+        config.setName("Main");
+        config.setDaw(daw);
+        SettingsEntity settings = new SettingsEntity();
+        settings.setTechnology("RNBO");
+        settings.setParameters(new HashMap<>(Map.of("gain", 0.5, "mix", 0.3)));
+        ComponentEntity component = new ComponentEntity();
+        component.setInstanceId("comp-1");
+        component.setName("Overdrive");
+        component.setType("distortion");
+        component.setConfig(config);
+        component.setSettings(settings);
+        config.getComponents().add(component);
+        daw.getListOfConfigs().add(config);
+        dawId = dawRepository.save(daw).getId();
+        entityManager.flush();
+        settingsId = component.getSettings().getId();
+        entityManager.clear();
+    }
+
+    @Test
+    void mergeParameters_mergesTopLevelKeys() {
+        int updated = settingsRepository.mergeParameters(dawId, "comp-1", "{\"gain\":0.9,\"tone\":{\"low\":2}}");
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(parameters()).containsEntry("gain", 0.9)
+                .containsEntry("mix", 0.3)
+                .containsEntry("tone", Map.of("low", 2));
+    }
+
+    @Test
+    void mergeParameters_nullRemovesKey() {
+        int updated = settingsRepository.mergeParameters(dawId, "comp-1", "{\"mix\":null}");
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(parameters()).isEqualTo(Map.of("gain", 0.5));
+    }
+
+    @Test
+    void mergeParameters_nestedNullIsKept() {
+        settingsRepository.mergeParameters(dawId, "comp-1", "{\"mix\":null,\"tone\":{\"low\":null,\"high\":2}}");
+
+        Map<String, Object> tone = new HashMap<>();
+        tone.put("low", null);
+        tone.put("high", 2);
+        assertThat(parameters()).isEqualTo(Map.of("gain", 0.5, "tone", tone));
+    }
+
+    @Test
+    void mergeParameters_unknownComponentOrDaw_touchesNothing() {
+        assertThat(settingsRepository.mergeParameters(dawId, "comp-missing", "{\"gain\":0.9}")).isZero();
+        assertThat(settingsRepository.mergeParameters("daw-missing", "comp-1", "{\"gain\":0.9}")).isZero();
+        assertThat(parameters()).isEqualTo(Map.of("gain", 0.5, "mix", 0.3));
+    }
+
+    private Map<String, Object> parameters() {
+        entityManager.flush();
+        entityManager.clear();
+        return settingsRepository.findById(settingsId).orElseThrow().getParameters();
+    }
+}
@@ -0,0 +1,170 @@
+package com.project.dawker.service;
+
+import com.project.dawker.dto.dawDTO;
+import com.project.dawker.exceptions.dawNotFoundException;
+import com.project.dawker.kafka.KafkaLogProducer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DawAutosaveServiceTest {
+
+    @Mock
+    private DawService dawService;
+
+    @Mock
+    private KafkaLogProducer logger;
+
+    @Mock
+    private TaskScheduler scheduler;
+
+    private SimpleMeterRegistry registry;
+    private DawWriteBehindBuffer buffer;
+    private DawAutosaveService autosaveService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        buffer = new DawWriteBehindBuffer(registry);
+        autosaveService = new DawAutosaveService(buffer, dawService, logger, registry, scheduler, 3);
+    }
+
+    @Test
+    void autosave_coalescesEditsPerDaw() {
+        dawDTO first = daw("daw-1", "first");
+        dawDTO latest = daw("daw-1", "latest");
+
+        assertTrue(autosaveService.autosave(first));
+        assertTrue(autosaveService.autosave(latest));
+        // Checked once while an edit from the same user is pending
+        verify(dawService).checkAutosaveTarget(first);
+        verifyNoMoreInteractions(dawService);
+        assertSame(latest, buffer.peek("daw-1"));
+        when(dawService.saveBufferedDaw(latest)).thenReturn(latest);
+
+        autosaveService.flush();
+
+        // Only the latest state is written
+        verify(dawService).saveBufferedDaw(latest);
+        verify(dawService, never()).saveBufferedDaw(first);
+        assertEquals(0, buffer.size());
+        assertEquals(1.0, registry.get("dawker.autosave.coalesced").counter().count());
+        assertEquals(1.0, registry.get("dawker.autosave.flushed").counter().count());
+        assertEquals(1, registry.get("dawker.autosave.flush").timer().count());
+    }
+
+    @Test
+    void autosave_flushesOnceThresholdIsReached() {
+        autosaveService.autosave(daw("daw-1", "a"));
+        autosaveService.autosave(daw("daw-2", "b"));
+        assertEquals(2.0, registry.get("dawker.autosave.buffer.depth").gauge().value());
+
+        assertTrue(autosaveService.autosave(daw("daw-3", "c")));
+        autosaveService.autosave(daw("daw-4", "d"));
+
+        // The request that crossed the threshold only schedules the flush, once
+        ArgumentCaptor<Runnable> earlyFlush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(earlyFlush.capture(), any(Instant.class));
+        verify(dawService, never()).saveBufferedDaw(any(dawDTO.class));
+
+        earlyFlush.getValue().run();
+
+        verify(dawService, times(4)).saveBufferedDaw(any(dawDTO.class));
+        assertEquals(0.0, registry.get("dawker.autosave.buffer.depth").gauge().value());
+
+        // Once it has run, the next time the threshold is crossed schedules another
+        autosaveService.autosave(daw("daw-1", "e"));
+        autosaveService.autosave(daw("daw-2", "f"));
+        autosaveService.autosave(daw("daw-3", "g"));
+        verify(scheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void autosave_newDaw_savesImmediately() {
+        dawDTO fresh = daw(null, "new");
+
+        assertFalse(autosaveService.autosave(fresh));
+
+        verify(dawService).saveDaw(fresh);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void autosave_unknownOrSomeoneElsesDaw_isNotBuffered() {
+        dawDTO edit = daw("daw-1", "edit");
+        dawDTO otherUser = new dawDTO("daw-1", 2L, "other", "", LocalDateTime.now(), 0, List.of());
+        autosaveService.autosave(edit);
+        doThrow(new dawNotFoundException("DAW not found for user 2: daw-1"))
+                .when(dawService).checkAutosaveTarget(otherUser);
+
+        assertThrows(dawNotFoundException.class, () -> autosaveService.autosave(otherUser));
+        assertSame(edit, buffer.peek("daw-1"));
+    }
+
+    @Test
+    void flush_failureKeepsEditPending() {
+        dawDTO edit = daw("daw-1", "edit");
+        autosaveService.autosave(edit);
+        when(dawService.saveBufferedDaw(edit)).thenThrow(new IllegalStateException("db down"));
+
+        autosaveService.flush();
+
+        assertSame(edit, buffer.peek("daw-1"));
+        assertEquals(1.0, registry.get("dawker.autosave.flush.failures").counter().count());
+    }
+
+    @Test
+    void flush_deletedDawIsDropped() {
+        dawDTO edit = daw("daw-gone", "edit");
+        autosaveService.autosave(edit);
+        when(dawService.saveBufferedDaw(edit)).thenThrow(new dawNotFoundException("DAW not found: daw-gone"));
+
+        autosaveService.flush();
+
+        assertNull(buffer.peek("daw-gone"));
+    }
+
+    @Test
+    void flush_keepsEditThatArrivedDuringFlush() {
+        dawDTO flushed = daw("daw-1", "flushed");
+        dawDTO newer = daw("daw-1", "newer");
+        autosaveService.autosave(flushed);
+        when(dawService.saveBufferedDaw(flushed)).thenAnswer(invocation -> {
+            buffer.offer(newer);
+            return flushed;
+        });
+
+        autosaveService.flush();
+
+        assertSame(newer, buffer.peek("daw-1"));
+    }
+
+    @Test
+    void flushOnShutdown_writesEverythingPending() {
+        autosaveService.autosave(daw("daw-1", "a"));
+        autosaveService.autosave(daw("daw-2", "b"));
+
+        autosaveService.flushOnShutdown();
+
+        verify(dawService, times(2)).saveBufferedDaw(any(dawDTO.class));
+        assertEquals(0, buffer.size());
+    }
+
+    private static dawDTO daw(String dawId, String name) {
+        return new dawDTO(dawId, 1L, name, "", LocalDateTime.now(), 0, List.of());
+    }
+}
@@ -0,0 +1,175 @@
+package com.project.dawker.service;
+
+import com.project.dawker.dto.componentDTO;
+import com.project.dawker.dto.configDTO;
+import com.project.dawker.dto.dawDTO;
+import com.project.dawker.dto.settingsDTO;
+import com.project.dawker.entity.User;
+import com.project.dawker.kafka.KafkaLogProducer;
+import com.project.dawker.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// DawService against H2, for behaviour that depends on what Hibernate actually sends to the database
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Import({ DawService.class, DawTreeCache.class, SimpleMeterRegistry.class })
+class DawServiceJpaTest {
+
+    @Autowired
+    private DawService dawService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private KafkaLogProducer logger;
+
+    @MockitoBean
+    private DawWriteBehindBuffer autosaveBuffer;
+
+    private User savedUser;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("john_doe");
+        user.setEmail("john@example.com");
+        user.setPassword("securepassword");
+        user.setRole("USER");
+        savedUser = userRepository.save(user);
+        entityManager.flush();
+    }
+
+    @Test
+    void saveDaw_oneKnobChangeOnLargeRig_updatesSingleRow() {
+        dawDTO created = dawService.saveDaw(rig(4, 25));
+        entityManager.clear();
+
+        dawDTO loaded = dawService.getDawById(created.getDawId());
+        entityManager.clear();
+        settingsDTO knob = loaded.getListOfConfigs().get(2).getComponents().get(17).getSettings();
+        Map<String, Object> turned = new HashMap<>(knob.getParameters());
+        turned.put("gain", 0.9);
+        knob.setParameters(turned);
+
+        Statistics stats = statistics();
+        dawService.saveDaw(loaded);
+
+        assertThat(stats.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(stats.getEntityInsertCount()).isZero();
+        assertThat(stats.getEntityDeleteCount()).isZero();
+        // row lock + user lookup + two-statement tree load + one UPDATE
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(5);
+    }
+
+    @Test
+    void saveDaw_addAndRemoveComponents_touchesOnlyThoseRows() {
+        dawDTO created = dawService.saveDaw(rig(1, 10));
+        entityManager.clear();
+
+        dawDTO loaded = dawService.getDawById(created.getDawId());
+        entityManager.clear();
+        List<componentDTO> components = new ArrayList<>(loaded.getListOfConfigs().get(0).getComponents());
+        components.remove(0);
+        components.add(component("added", 0.1));
+        loaded.getListOfConfigs().get(0).setComponents(components);
+
+        Statistics stats = statistics();
+        dawDTO saved = dawService.saveDaw(loaded);
+
+        // one component + its settings each way
+        assertThat(stats.getEntityInsertCount()).isEqualTo(2);
+        assertThat(stats.getEntityDeleteCount()).isEqualTo(2);
+        assertThat(stats.getEntityUpdateCount()).isZero();
+        assertThat(saved.getListOfConfigs().get(0).getComponents())
+                .extracting(componentDTO::getInstanceId)
+                .hasSize(10)
+                .contains("added")
+                .doesNotContain("comp-0");
+    }
+
+    @Test
+    void getDawById_afterSave_neverServesStaleTree() {
+        dawDTO created = dawService.saveDaw(rig(2, 5));
+        entityManager.clear();
+
+        dawDTO cached = dawService.getDawById(created.getDawId());
+        Statistics stats = statistics();
+        dawService.getDawById(created.getDawId());
+        assertThat(stats.getPrepareStatementCount()).isZero();
+
+        cached.setName("Renamed");
+        component(cached, "comp-8").getSettings().getParameters().put("gain", 0.1);
+        dawService.saveDaw(cached);
+        entityManager.clear();
+
+        dawDTO reloaded = dawService.getDawById(created.getDawId());
+        assertThat(reloaded.getName()).isEqualTo("Renamed");
+        assertThat(component(reloaded, "comp-8").getSettings().getParameters()).containsEntry("gain", 0.1);
+    }
+
+    @Test
+    void saveDaw_newLargeRig_batchesInserts() {
+        Statistics stats = statistics();
+        dawService.saveDaw(rig(4, 25));
+
+        // 205 rows (DAW, 4 configs, 100 components, 100 settings). With IDENTITY ids that was
+        // one INSERT per row; pooled sequences let Hibernate send them in batches of 50.
+        assertThat(stats.getEntityInsertCount()).isEqualTo(205);
+        assertThat(stats.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    private dawDTO rig(int configs, int componentsPerConfig) {
+        List<configDTO> configDtos = new ArrayList<>();
+        for (int i = 0; i < configs; i++) {
+            List<componentDTO> components = new ArrayList<>();
+            for (int j = 0; j < componentsPerConfig; j++) {
+                components.add(component("comp-" + (i * componentsPerConfig + j), 0.5));
+            }
+            configDtos.add(new configDTO(null, "Config " + i, null, components));
+        }
+        return new dawDTO(null, savedUser.getId(), "Big Rig", "100 pedals", null, 0, configDtos);
+    }
+
+    private static componentDTO component(String instanceId, double gain) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("gain", gain);
+        parameters.put("level", 0.8);
+        return new componentDTO(null, instanceId, "Overdrive", "distortion", null,
+                new settingsDTO(null, "RNBO", "overdrive", parameters));
+    }
+
+    private static componentDTO component(dawDTO daw, String instanceId) {
+        return daw.getListOfConfigs().stream()
+                .flatMap(config -> config.getComponents().stream())
+                .filter(component -> instanceId.equals(component.getInstanceId()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Statistics statistics() {
+        Statistics stats = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
@@ -9,26 +9,41 @@ import com.project.dawker.entity.daw_specific.ComponentEntity;
 import com.project.dawker.entity.daw_specific.ConfigEntity;
 import com.project.dawker.entity.daw_specific.DawEntity;
 import com.project.dawker.entity.daw_specific.SettingsEntity;
+import com.project.dawker.dto.recievedDto.recievedSettingsPatchDTO;
+import com.project.dawker.exception.ComponentNotFoundException;
+import com.project.dawker.exception.InvalidCursorException;
+import com.project.dawker.exception.NonPositiveNumberException;
 import com.project.dawker.exceptions.dawNotFoundException;
 import com.project.dawker.kafka.KafkaLogProducer;
 import com.project.dawker.repository.ConfigRepository;
 import com.project.dawker.repository.DawRepository;
+import com.project.dawker.repository.SettingsRepository;
 import com.project.dawker.repository.UserRepository;
+import com.project.dawker.repository.interfaces.DawSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import com.project.dawker.service.DawService;
@@ -45,6 +60,15 @@ class DawServiceTest {
     @Mock
     private ConfigRepository configRepository;
 
+    @Mock
+    private SettingsRepository settingsRepository;
+
+    @Mock
+    private DawWriteBehindBuffer autosaveBuffer;
+
+    @Spy
+    private DawTreeCache dawTreeCache = new DawTreeCache(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(1));
+
     @Mock
     private KafkaLogProducer logger;
 
@@ -75,7 +99,7 @@ class DawServiceTest {
         ConfigEntity config = new ConfigEntity();
         config.setId(300L);
         config.setName("Metal Config");
-        config.setComponents(List.of(component));
+        config.setComponents(new ArrayList<>(List.of(component)));
 
         component.setConfig(config);
 
@@ -90,28 +114,96 @@ class DawServiceTest {
     }
 
     @Test
-    void getAllDaws_success() {
-        when(dawRepository.findAll()).thenReturn(List.of(daw));
-        List<dawDTO> result = dawService.getAllDaws();
+    void getDawSummaries_firstPage_usesUnboundedQuery() {
+        DawSummary row = summary("daw-123", LocalDateTime.of(2026, 1, 5, 15, 3, 4));
+        when(dawRepository.findSummaries(PageRequest.of(0, 1))).thenReturn(List.of(row));
+
+        List<DawSummary> result = dawService.getDawSummaries(null, 1);
+
         assertEquals(1, result.size());
         assertEquals("daw-123", result.get(0).getDawId());
-        assertEquals("Metal Rig", result.get(0).getName());
-        assertEquals(1L, result.get(0).getUserId());
-        assertEquals(1, result.get(0).getListOfConfigs().size());
+        verify(dawRepository, never()).findAll();
+    }
+
+    @Test
+    void getDawSummaries_cursorRoundTrip_resumesAfterLastRow() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 5, 15, 3, 4, 480_000_000);
+        String cursor = DawService.nextCursor(List.of(summary("daw-123", createdAt)), 1);
+        when(dawRepository.findSummariesAfter(createdAt, "daw-123", PageRequest.of(0, 20))).thenReturn(List.of());
+
+        List<DawSummary> result = dawService.getDawSummaries(cursor, 20);
+
+        assertTrue(result.isEmpty());
+        assertNull(DawService.nextCursor(result, 20));
+    }
+
+    @Test
+    void getDawSummaries_invalidCursor_throwsException() {
+        assertThrows(InvalidCursorException.class, () -> dawService.getDawSummaries("not-a-cursor", 20));
+    }
+
+    @Test
+    void getDawSummaries_nonPositiveSize_throwsException() {
+        assertThrows(NonPositiveNumberException.class, () -> dawService.getDawSummaries(null, 0));
     }
 
     @Test
     void getDawById_success() {
-        when(dawRepository.findById("daw-123")).thenReturn(Optional.of(daw));
+        when(dawRepository.findFullTreeById("daw-123")).thenReturn(Optional.of(daw));
         dawDTO result = dawService.getDawById("daw-123");
         assertEquals("daw-123", result.getDawId());
         assertEquals("Metal Rig", result.getName());
         assertEquals(1, result.getListOfConfigs().size());
     }
 
+    @Test
+    void getDawById_secondReadIsServedFromCache() {
+        when(dawRepository.findFullTreeById("daw-123")).thenReturn(Optional.of(daw));
+
+        dawDTO first = dawService.getDawById("daw-123");
+        first.setName("edited by caller");
+        dawDTO second = dawService.getDawById("daw-123");
+
+        verify(dawRepository, times(1)).findFullTreeById("daw-123");
+        // Each reader gets its own copy
+        assertNotSame(first, second);
+        assertEquals("Metal Rig", second.getName());
+    }
+
+    @Test
+    void getDawById_prefersPendingAutosave() {
+        dawDTO pending = bufferedDaw("comp-1");
+        pending.setName("Unsaved edit");
+        when(autosaveBuffer.peek("daw-123")).thenReturn(pending);
+
+        dawDTO result = dawService.getDawById("daw-123");
+        verifyNoInteractions(dawRepository);
+        assertEquals("Unsaved edit", result.getName());
+        // A copy, so the reader can't change what the next flush writes
+        assertNotSame(pending, result);
+        parameters(result, 0).put("gain", 1.0);
+        assertEquals(0.5, parameters(pending, 0).get("gain"));
+    }
+
+    @Test
+    void checkAutosaveTarget_ownDaw_passes() {
+        when(dawRepository.findOwnerIdById("daw-123")).thenReturn(Optional.of(1L));
+
+        assertDoesNotThrow(() -> dawService.checkAutosaveTarget(bufferedDaw("comp-1")));
+    }
+
+    @Test
+    void checkAutosaveTarget_unknownOrSomeoneElsesDaw_throws() {
+        dawDTO edit = bufferedDaw("comp-1");
+        when(dawRepository.findOwnerIdById("daw-123")).thenReturn(Optional.empty(), Optional.of(2L));
+
+        assertThrows(dawNotFoundException.class, () -> dawService.checkAutosaveTarget(edit));
+        assertThrows(dawNotFoundException.class, () -> dawService.checkAutosaveTarget(edit));
+    }
+
     @Test
     void getDawById_notFound_throwsException() {
-        when(dawRepository.findById("missing")).thenReturn(Optional.empty());
+        when(dawRepository.findFullTreeById("missing")).thenReturn(Optional.empty());
         assertThrows(dawNotFoundException.class, () -> dawService.getDawById("missing"));
     }
 
@@ -173,10 +265,157 @@ class DawServiceTest {
         );
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(dawRepository.findById("daw-123")).thenReturn(Optional.of(daw));
-        when(dawRepository.save(any(DawEntity.class)))
-        .thenAnswer(invocation -> invocation.getArgument(0));
-        dawService.saveDaw(dto);
+        when(dawRepository.findFullTreeById("daw-123")).thenReturn(Optional.of(daw));
+        ComponentEntity existingComponent = daw.getListOfConfigs().get(0).getComponents().get(0);
+
+        dawDTO result = dawService.saveDaw(dto);
+
+        // The persisted tree is updated in place rather than replaced
+        assertSame(existingComponent, daw.getListOfConfigs().get(0).getComponents().get(0));
+        assertEquals(200L, result.getListOfConfigs().get(0).getComponents().get(0).getId());
+        verify(dawRepository, never()).save(any(DawEntity.class));
+        verify(dawRepository).flush();
+        // An explicit save supersedes a pending autosave and the cached tree
+        verify(autosaveBuffer).discard("daw-123");
+        verify(dawTreeCache).evict("daw-123");
+    }
+
+    @Test
+    void saveDaw_newDaw_cascadesWholeTree() {
+        dawDTO dto = new dawDTO(null, 1L, "New Rig", "", LocalDateTime.now(), 0,
+            List.of(new configDTO(null, "Main", null, List.of(
+                new componentDTO(null, "comp-9", "Reverb", "reverb", null,
+                    new settingsDTO(null, "RNBO", "cloud_v1", Map.of("mix", 0.4)))))));
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(dawRepository.save(any(DawEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        dawDTO result = dawService.saveDaw(dto);
+
+        assertEquals("New Rig", result.getName());
+        assertEquals("comp-9", result.getListOfConfigs().get(0).getComponents().get(0).getInstanceId());
         verify(dawRepository).save(any(DawEntity.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void saveDaw_duringAFlush_isNotOverwrittenByTheOlderAutosave() {
+        DawWriteBehindBuffer buffer = new DawWriteBehindBuffer(new SimpleMeterRegistry());
+        DawService service = new DawService(dawRepository, userRepository, configRepository, settingsRepository,
+                buffer, dawTreeCache, logger);
+        DawAutosaveService autosave = new DawAutosaveService(buffer, service, logger, new SimpleMeterRegistry(),
+                mock(TaskScheduler.class), 100);
+        dawDTO stale = bufferedDaw("comp-1");
+        stale.setName("Autosaved");
+        dawDTO explicit = bufferedDaw("comp-1");
+        explicit.setName("Saved");
+        when(dawRepository.findOwnerIdById("daw-123")).thenReturn(Optional.of(1L));
+        autosave.autosave(stale);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(dawRepository.findFullTreeById("daw-123")).thenReturn(Optional.of(daw));
+        // The flush has its snapshot and is waiting on the row lock while the explicit save commits
+        boolean[] explicitSaved = { false };
+        when(dawRepository.lockById("daw-123")).thenAnswer(invocation -> {
+            if (!explicitSaved[0]) {
+                explicitSaved[0] = true;
+                service.saveDaw(explicit);
+            }
+            return Optional.of("daw-123");
+        });
+
+        autosave.flush();
+
+        assertEquals("Saved", daw.getName());
+        verify(dawRepository, times(1)).findFullTreeById("daw-123");
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void patchSettings_coalescesPatchesPerComponent() {
+        Map<String, Object> cleared = new HashMap<>();
+        cleared.put("mix", null);
+        List<recievedSettingsPatchDTO> patches = List.of(
+            new recievedSettingsPatchDTO("comp-1", Map.of("gain", 0.5)),
+            new recievedSettingsPatchDTO("comp-2", Map.of("mix", 0.1)),
+            new recievedSettingsPatchDTO("comp-1", Map.of("gain", 0.7, "tone", 0.2)),
+            new recievedSettingsPatchDTO("comp-2", cleared));
+
+        when(settingsRepository.mergeParameters(eq("daw-123"), anyString(), anyString())).thenReturn(1);
+
+        int updated = dawService.patchSettings("daw-123", patches);
+
+        // One UPDATE per component, later values win, and a later null survives as a removal
+        assertEquals(2, updated);
+        verify(settingsRepository).mergeParameters(eq("daw-123"), eq("comp-1"),
+            argThat(json -> json.contains("\"gain\":0.7") && json.contains("\"tone\":0.2")));
+        verify(settingsRepository).mergeParameters("daw-123", "comp-2", "{\"mix\":null}");
+        verifyNoMoreInteractions(settingsRepository);
+        verify(dawRepository, never()).findFullTreeById(anyString());
+        verify(dawTreeCache).evict("daw-123");
+    }
+
+    @Test
+    void patchSettings_unknownComponent_throws() {
+        when(settingsRepository.mergeParameters("daw-123", "missing", "{\"gain\":1}")).thenReturn(0);
+
+        assertThrows(ComponentNotFoundException.class, () ->
+            dawService.patchSettings("daw-123", List.of(new recievedSettingsPatchDTO("missing", Map.of("gain", 1)))));
+    }
+
+    @Test
+    void patchSettings_pendingAutosave_patchSurvivesTheFlush() {
+        DawWriteBehindBuffer buffer = new DawWriteBehindBuffer(new SimpleMeterRegistry());
+        DawService service = new DawService(dawRepository, userRepository, configRepository, settingsRepository,
+                buffer, dawTreeCache, logger);
+        DawService flushTarget = mock(DawService.class);
+        DawAutosaveService autosave = new DawAutosaveService(buffer, flushTarget, logger, new SimpleMeterRegistry(),
+                mock(TaskScheduler.class), 100);
+        autosave.autosave(bufferedDaw("comp-1", "comp-new"));
+        when(settingsRepository.mergeParameters(eq("daw-123"), eq("comp-1"), anyString())).thenReturn(1);
+        // Only added by the pending autosave, so not in the database yet
+        when(settingsRepository.mergeParameters(eq("daw-123"), eq("comp-new"), anyString())).thenReturn(0);
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("gain", 0.9);
+        patch.put("mix", null);
+
+        service.patchSettings("daw-123", List.of(
+                new recievedSettingsPatchDTO("comp-1", patch),
+                new recievedSettingsPatchDTO("comp-new", Map.of("gain", 0.1))));
+
+        assertEquals(Map.of("gain", 0.9), parameters(service.getDawById("daw-123"), 0));
+        autosave.flush();
+        ArgumentCaptor<dawDTO> flushed = ArgumentCaptor.forClass(dawDTO.class);
+        verify(flushTarget).saveBufferedDaw(flushed.capture());
+        assertEquals(Map.of("gain", 0.9), parameters(flushed.getValue(), 0));
+        assertEquals(Map.of("gain", 0.1, "mix", 0.3), parameters(flushed.getValue(), 1));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void patchSettings_emptyPatchList_touchesNothing() {
+        assertEquals(0, dawService.patchSettings("daw-123", List.of()));
+        verifyNoInteractions(settingsRepository);
+    }
+
+    private static dawDTO bufferedDaw(String... instanceIds) {
+        List<componentDTO> chain = new ArrayList<>();
+        for (String instanceId : instanceIds) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("gain", 0.5);
+            parameters.put("mix", 0.3);
+            chain.add(new componentDTO(null, instanceId, "Overdrive", "distortion", 1L,
+                    new settingsDTO(null, "RNBO", "overdrive", parameters)));
+        }
+        return new dawDTO("daw-123", 1L, "Rig", "", null, 0, List.of(new configDTO(1L, "Main", "daw-123", chain)));
+    }
+
+    private static Map<String, Object> parameters(dawDTO daw, int component) {
+        return daw.getListOfConfigs().get(0).getComponents().get(component).getSettings().getParameters();
+    }
+
+    private static DawSummary summary(String dawId, LocalDateTime createdAt) {
+        DawSummary summary = mock(DawSummary.class);
+        lenient().when(summary.getDawId()).thenReturn(dawId);
+        lenient().when(summary.getCreatedAt()).thenReturn(createdAt);
+        return summary;
+    }
+}
@@ -0,0 +1,109 @@
+package com.project.dawker.service;
+
+import com.project.dawker.dto.componentDTO;
+import com.project.dawker.dto.configDTO;
+import com.project.dawker.dto.dawDTO;
+import com.project.dawker.dto.settingsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DawTreeCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private DawTreeCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new DawTreeCache(registry, 20, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void get_loadsOnceAndReportsHitsAndMisses() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("daw-1", id -> { loads.incrementAndGet(); return daw(id, 2); });
+        cache.get("daw-1", id -> { loads.incrementAndGet(); return daw(id, 2); });
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "dawTree").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "dawTree").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void get_returnsCopiesReadersCannotCorrupt() {
+        dawDTO first = cache.get("daw-1", id -> daw(id, 1));
+        first.getListOfConfigs().get(0).getComponents().get(0).getSettings().getParameters().put("gain", 0.0);
+        first.getListOfConfigs().get(0).getComponents().clear();
+
+        dawDTO second = cache.get("daw-1", id -> fail("should be cached"));
+
+        assertEquals(1, second.getListOfConfigs().get(0).getComponents().size());
+        assertEquals(0.5, second.getListOfConfigs().get(0).getComponents().get(0).getSettings().getParameters().get("gain"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void get_copiesNestedParameters() {
+        cache.get("daw-1", id -> {
+            dawDTO daw = daw(id, 1);
+            Map<String, Object> eq = new HashMap<>();
+            eq.put("bands", new ArrayList<>(List.of(100, 1000)));
+            daw.getListOfConfigs().get(0).getComponents().get(0).getSettings().getParameters().put("eq", eq);
+            return daw;
+        });
+
+        Map<String, Object> eq = (Map<String, Object>) cache.get("daw-1", id -> fail("should be cached"))
+                .getListOfConfigs().get(0).getComponents().get(0).getSettings().getParameters().get("eq");
+        ((List<Object>) eq.get("bands")).set(0, 0);
+        eq.put("q", 2.0);
+
+        Map<String, Object> next = (Map<String, Object>) cache.get("daw-1", id -> fail("should be cached"))
+                .getListOfConfigs().get(0).getComponents().get(0).getSettings().getParameters().get("eq");
+        assertEquals(List.of(100, 1000), next.get("bands"));
+        assertFalse(next.containsKey("q"));
+    }
+
+    @Test
+    void evict_forcesReload() {
+        cache.get("daw-1", id -> daw(id, 1));
+        cache.evict("daw-1");
+
+        dawDTO reloaded = cache.get("daw-1", id -> daw(id, 3));
+
+        assertEquals(3, reloaded.getListOfConfigs().get(0).getComponents().size());
+    }
+
+    @Test
+    void weigher_evictsByComponentCount() {
+        // Max weight is 20 and each entry weighs 1 + its components
+        cache.get("small", id -> daw(id, 1));
+        cache.get("big-1", id -> daw(id, 12));
+        cache.get("big-2", id -> daw(id, 12));
+        cache.nativeCache().cleanUp();
+
+        assertTrue(cache.nativeCache().policy().eviction().orElseThrow().weightedSize().orElseThrow() <= 20);
+        assertTrue(cache.nativeCache().stats().evictionCount() > 0);
+    }
+
+    private static dawDTO daw(String dawId, int components) {
+        List<componentDTO> chain = new ArrayList<>();
+        for (int i = 0; i < components; i++) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("gain", 0.5);
+            chain.add(new componentDTO((long) i, "comp-" + i, "Overdrive", "distortion", 1L,
+                    new settingsDTO((long) i, "RNBO", "overdrive", parameters)));
+        }
+        return new dawDTO(dawId, 1L, "Rig", "", null, 0, List.of(new configDTO(1L, "Main", dawId, chain)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.project.dawker.service;
+
+import com.project.dawker.dto.leaderboardEntryDTO;
+import com.project.dawker.repository.RatingsPageRepository;
+import com.project.dawker.repository.interfaces.RatingsPageStanding;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RatingsLeaderboardTest {
+
+    private RatingsPageRepository ratingsRepo;
+    private RatingsLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        ratingsRepo = mock(RatingsPageRepository.class);
+        leaderboard = new RatingsLeaderboard(ratingsRepo, 2, 10);
+    }
+
+    @Test
+    void refresh_oneFiveStarReviewDoesNotOutrankManyGoodOnes() {
+        when(ratingsRepo.findStandings()).thenReturn(List.of(
+                standing("one-review", 5.0, 1),
+                standing("popular", 4.8 * 50, 50),
+                standing("mediocre", 3.0 * 50, 50)));
+
+        leaderboard.refresh();
+
+        List<leaderboardEntryDTO> top = leaderboard.top(10);
+        assertEquals(List.of("popular", "one-review"), dawIds(top));
+        assertEquals(1, top.get(0).getRank());
+        assertEquals(4.8, top.get(0).getRating(), 1e-9);
+        assertEquals(50, top.get(0).getRatingCount());
+        assertTrue(top.get(1).getScore() < top.get(1).getRating());
+    }
+
+    @Test
+    void recordRating_risingDawEntersFullLeaderboard() {
+        when(ratingsRepo.findStandings()).thenReturn(List.of(
+                standing("a", 4.0 * 20, 20),
+                standing("b", 3.5 * 20, 20),
+                standing("c", 3.0 * 20, 20)));
+        leaderboard.refresh();
+
+        for (int i = 0; i < 30; i++) {
+            leaderboard.recordRating("c", 5.0);
+        }
+
+        assertEquals(List.of("c", "a"), dawIds(leaderboard.top(10)));
+    }
+
+    @Test
+    void recordRating_fallingDawMakesRoomForTheNextBest() {
+        when(ratingsRepo.findStandings()).thenReturn(List.of(
+                standing("a", 4.5 * 20, 20),
+                standing("b", 4.0 * 20, 20),
+                standing("c", 3.8 * 20, 20)));
+        leaderboard.refresh();
+
+        for (int i = 0; i < 20; i++) {
+            leaderboard.recordRating("a", 1.0);
+        }
+
+        assertEquals(List.of("b", "c"), dawIds(leaderboard.top(10)));
+    }
+
+    @Test
+    void replaceRating_movesTheSumButNotTheCount() {
+        when(ratingsRepo.findStandings()).thenReturn(List.of(
+                standing("a", 4.0 * 10, 10),
+                standing("b", 3.0 * 10, 10)));
+        leaderboard.refresh();
+
+        leaderboard.replaceRating("b", 1.0, 5.0);
+        leaderboard.replaceRating("unknown", 1.0, 5.0);
+
+        List<leaderboardEntryDTO> top = leaderboard.top(10);
+        assertEquals(List.of("a", "b"), dawIds(top));
+        assertEquals(10, top.get(1).getRatingCount());
+        assertEquals(3.4, top.get(1).getRating(), 1e-9);
+    }
+
+    @Test
+    void recordRating_newDawsFillAnEmptyLeaderboard() {
+        leaderboard.recordRating("a", 3.0);
+        leaderboard.recordRating("b", 4.0);
+
+        assertEquals(List.of("b", "a"), dawIds(leaderboard.top(10)));
+        assertEquals(List.of("b"), dawIds(leaderboard.top(1)));
+        verifyNoInteractions(ratingsRepo);
+    }
+
+    private static List<String> dawIds(List<leaderboardEntryDTO> entries) {
+        return entries.stream().map(leaderboardEntryDTO::getDawId).toList();
+    }
+
+    private static RatingsPageStanding standing(String dawId, double sum, long count) {
+        return new RatingsPageStanding() {
+            @Override
+            public String getDawId() {
+                return dawId;
+            }
+
+            @Override
+            public double getRatingSum() {
+                return sum;
+            }
+
+            @Override
+            public long getRatingCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package com.project.dawker.service;
+
+import com.project.dawker.dto.recievedDto.recievedRatingsCommentDTO;
+import com.project.dawker.entity.daw_specific.RatingsPage;
+import com.project.dawker.kafka.KafkaLogProducer;
+import com.project.dawker.repository.RatingsCommentRepository;
+import com.project.dawker.repository.RatingsPageRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// RatingsPageService against H2 with real commits, so concurrent raters actually race
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(RatingsPageService.class)
+class RatingsPageServiceJpaTest {
+
+    private static final int THREADS = 8;
+    private static final int RATINGS_PER_THREAD = 25;
+
+    @Autowired
+    private RatingsPageService ratingsPageService;
+    @Autowired
+    private RatingsPageRepository ratingsPageRepository;
+    @Autowired
+    private RatingsCommentRepository ratingsCommentRepository;
+
+    @MockitoBean
+    private KafkaLogProducer logger;
+    @MockitoBean
+    private RatingsLeaderboard leaderboard;
+
+    @AfterEach
+    void tearDown() {
+        ratingsCommentRepository.deleteAll();
+        ratingsPageRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRatings_noneLostAndOnePage() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long thread = t;
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < RATINGS_PER_THREAD; i++) {
+                    // A different user every time, so every rating counts; 1..5 stars, spread evenly
+                    long userId = thread * RATINGS_PER_THREAD + i;
+                    double rating = userId % 5 + 1;
+                    ratingsPageService.createRatingsPage(new recievedRatingsCommentDTO(
+                            "DAW-RACE", rating, null, userId, "user-" + userId, "rating " + i, LocalDateTime.now()));
+                }
+                return null;
+            }));
+        }
+        // Everyone starts together, so the first ratings also race to create the page
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+
+        int total = THREADS * RATINGS_PER_THREAD;
+        assertThat(ratingsPageRepository.count()).isEqualTo(1);
+        RatingsPage page = ratingsPageRepository.findByDawId("DAW-RACE").orElseThrow();
+        assertThat(page.getRatingCount()).isEqualTo(total);
+        assertThat(page.getRatingSum()).isEqualTo(3.0 * total);
+        assertThat(page.getRating()).isEqualTo(3.0);
+        assertThat(List.of(page.getStars1(), page.getStars2(), page.getStars3(), page.getStars4(), page.getStars5()))
+                .containsOnly((long) total / 5);
+        assertThat(ratingsCommentRepository.count()).isEqualTo(total);
+    }
+
+    @Test
+    void concurrentRepeatRatings_oneRatingPerUserAndExactAverage() throws Exception {
+        int users = 20;
+        // Every thread submits every user's rating: each user's first rating races its own repeats
+        submitFromEveryThread(users, userId -> (double) (userId % 5 + 1));
+
+        RatingsPage page = ratingsPageRepository.findByDawId("DAW-UPSERT").orElseThrow();
+        assertThat(ratingsCommentRepository.count()).isEqualTo(users);
+        assertThat(page.getRatingCount()).isEqualTo(users);
+        assertThat(page.getRatingSum()).isEqualTo(3.0 * users);
+        assertThat(page.getRating()).isEqualTo(3.0);
+        assertThat(List.of(page.getStars1(), page.getStars2(), page.getStars3(), page.getStars4(), page.getStars5()))
+                .containsOnly((long) users / 5);
+
+        // Everyone changes their rating at once: each change moves the sum by its own difference
+        submitFromEveryThread(users, userId -> 5.0);
+
+        page = ratingsPageRepository.findByDawId("DAW-UPSERT").orElseThrow();
+        assertThat(ratingsCommentRepository.count()).isEqualTo(users);
+        assertThat(page.getRatingCount()).isEqualTo(users);
+        assertThat(page.getRatingSum()).isEqualTo(5.0 * users);
+        assertThat(page.getRating()).isEqualTo(5.0);
+        assertThat(List.of(page.getStars1(), page.getStars2(), page.getStars3(), page.getStars4()))
+                .containsOnly(0L);
+        assertThat(page.getStars5()).isEqualTo(users);
+    }
+
+    private void submitFromEveryThread(int users, LongFunction<Double> ratingOf) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long offset = t;
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < users; i++) {
+                    // Each thread goes through the users in a different order
+                    long userId = (i + offset * 3) % users;
+                    ratingsPageService.createRatingsPage(new recievedRatingsCommentDTO(
+                            "DAW-UPSERT", ratingOf.apply(userId), null, userId, "user-" + userId, "rating", LocalDateTime.now()));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void exports_writeOneJsonObjectPerLine() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            ratingsPageService.createRatingsPage(new recievedRatingsCommentDTO(
+                    "DAW-" + i, i, null, (long) i, "user-" + i, "comment " + i, LocalDateTime.now()));
+        }
+        ratingsPageService.createRatingsPage(new recievedRatingsCommentDTO(
+                "DAW-1", 5.0, null, 4L, "user-4", "comment 4", LocalDateTime.now()));
+
+        List<JsonNode> pages = export(true);
+        List<JsonNode> comments = export(false);
+
+        assertThat(pages).extracting(page -> page.get("dawId").asString()).containsExactly("DAW-1", "DAW-2", "DAW-3");
+        assertThat(pages.get(0).get("ratingCount").asLong()).isEqualTo(2);
+        assertThat(pages.get(0).get("rating").asDouble()).isEqualTo(3.0);
+        assertThat(pages.get(0).has("comments")).isFalse();
+        assertThat(comments).hasSize(4);
+        assertThat(comments.get(3).get("ratingsPageId").asLong()).isEqualTo(pages.get(0).get("id").asLong());
+        assertThat(comments.get(3).get("comment").asString()).isEqualTo("comment 4");
+    }
+
+    private List<JsonNode> export(boolean pages) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (pages) {
+            ratingsPageService.exportRatingsPages(out);
+        } else {
+            ratingsPageService.exportRatingsComments(out);
+        }
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(JsonMapper.shared().readTree(line));
+        }
+        return lines;
+    }
+}
@@ -1,18 +1,25 @@
 package com.project.dawker.service;
 
+import com.project.dawker.dto.leaderboardEntryDTO;
 import com.project.dawker.dto.ratingsPageDTO;
 import com.project.dawker.dto.recievedDto.recievedRatingsCommentDTO;
 import com.project.dawker.entity.daw_specific.RatingsComment;
 import com.project.dawker.entity.daw_specific.RatingsPage;
+import com.project.dawker.dto.ratingsPageHeaderDTO;
+import com.project.dawker.exception.InvalidCursorException;
+import com.project.dawker.exception.NonPositiveNumberException;
 import com.project.dawker.exception.RatingsPageNotFoundException;
 import com.project.dawker.kafka.KafkaLogProducer;
 import com.project.dawker.repository.RatingsCommentRepository;
 import com.project.dawker.repository.RatingsPageRepository;
+import com.project.dawker.repository.interfaces.RatingsCommentSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -33,6 +40,12 @@ class RatingsPageServiceTest {
     @Mock
     private KafkaLogProducer logger;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private RatingsLeaderboard leaderboard;
+
     @InjectMocks
     private RatingsPageService ratingsPageService;
 
@@ -52,53 +65,95 @@ class RatingsPageServiceTest {
     }
 
     @Test
-    void createRatingsPage_createsNewPageAndCalculatesRating() {
-        RatingsPage savedPage = new RatingsPage();
-        savedPage.setId(1L);
-        savedPage.setDawId("DAW-123");
-        savedPage.setRating(0.0);
-        savedPage.setComments(new ArrayList<>());
-
-        when(ratingsPageRepository.findByDawId("DAW-123")).thenReturn(Optional.empty());
-
-        when(ratingsPageRepository.save(any(RatingsPage.class))).thenAnswer(invocation -> {
+    void createRatingsPage_createsNewPageAndAddsRating() {
+        when(ratingsPageRepository.findIdByDawId("DAW-123")).thenReturn(Optional.empty());
+        when(ratingsPageRepository.saveAndFlush(any(RatingsPage.class))).thenAnswer(invocation -> {
             RatingsPage page = invocation.getArgument(0);
             page.setId(1L);
             return page;
         });
-
         when(commentRepository.save(any(RatingsComment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        RatingsComment comment = new RatingsComment();
+        comment.setUsername("Donov");
+        RatingsPage updated = new RatingsPage();
+        updated.setId(1L);
+        updated.setDawId("DAW-123");
+        updated.setRating(4.0);
+        updated.setComments(new ArrayList<>(List.of(comment)));
+        when(ratingsPageRepository.findById(1L)).thenReturn(Optional.of(updated));
+        when(ratingsPageRepository.lockById(1L)).thenReturn(Optional.of(updated));
 
         ratingsPageDTO result = ratingsPageService.createRatingsPage(inputDto);
 
-        assertNotNull(result);
+        verify(ratingsPageRepository).addRating(1L, 4.0, 4);
+        verify(leaderboard).recordRating("DAW-123", 4.0);
         assertEquals("DAW-123", result.getDawId());
         assertEquals(4.0, result.getRating());
-        assertEquals(1, result.getComments().size());
         assertEquals("Donov", result.getComments().get(0).getUsername());
     }
 
     @Test
-    void createRatingsPage_existingPage_updatesAverage() {
-        RatingsComment existingComment = new RatingsComment();
-        existingComment.setRating(2.0);
-
-        RatingsPage existingPage = new RatingsPage();
-        existingPage.setId(1L);
-        existingPage.setDawId("DAW-123");
-        existingPage.setComments(new ArrayList<>(List.of(existingComment)));
-        existingPage.setRating(2.0);
+    void createRatingsPage_existingPage_addsRatingWithoutLoadingComments() {
+        when(ratingsPageRepository.findIdByDawId("DAW-123")).thenReturn(Optional.of(1L));
+        when(commentRepository.save(any(RatingsComment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        RatingsPage updated = new RatingsPage();
+        updated.setId(1L);
+        updated.setDawId("DAW-123");
+        updated.setRating(3.0);
+        when(ratingsPageRepository.findById(1L)).thenReturn(Optional.of(updated));
+        when(ratingsPageRepository.lockById(1L)).thenReturn(Optional.of(updated));
 
-        when(ratingsPageRepository.findByDawId("DAW-123")).thenReturn(Optional.of(existingPage));
+        ratingsPageDTO result = ratingsPageService.createRatingsPage(inputDto);
 
-        when(ratingsPageRepository.save(any(RatingsPage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        verify(ratingsPageRepository).addRating(1L, 4.0, 4);
+        verify(ratingsPageRepository, never()).findByDawId(any());
+        verify(ratingsPageRepository, never()).saveAndFlush(any());
+        assertEquals(3.0, result.getRating());
+    }
 
+    @Test
+    void createRatingsPage_repeatRating_replacesTheUsersEarlierOne() {
+        RatingsComment earlier = new RatingsComment();
+        earlier.setId(7L);
+        earlier.setUserId(1L);
+        earlier.setDawId("DAW-123");
+        earlier.setRating(2.0);
+        earlier.setComment("Meh");
+        RatingsPage updated = new RatingsPage();
+        updated.setId(1L);
+        updated.setDawId("DAW-123");
+        when(ratingsPageRepository.findIdByDawId("DAW-123")).thenReturn(Optional.of(1L));
+        when(ratingsPageRepository.lockById(1L)).thenReturn(Optional.of(updated));
+        when(commentRepository.findByUserIdAndDawId(1L, "DAW-123")).thenReturn(Optional.of(earlier));
         when(commentRepository.save(any(RatingsComment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(ratingsPageRepository.findById(1L)).thenReturn(Optional.of(updated));
 
-        ratingsPageDTO result = ratingsPageService.createRatingsPage(inputDto);
+        ratingsPageService.createRatingsPage(inputDto);
 
-        assertEquals(3.0, result.getRating());
-        assertEquals(2, result.getComments().size());
+        verify(commentRepository).save(same(earlier));
+        assertEquals(7L, earlier.getId());
+        assertEquals(4.0, earlier.getRating());
+        assertEquals("Great preset!", earlier.getComment());
+        verify(ratingsPageRepository).changeRating(1L, 2.0, 4.0, 2, 4);
+        verify(ratingsPageRepository, never()).addRating(anyLong(), anyDouble(), anyInt());
+        verify(leaderboard).replaceRating("DAW-123", 2.0, 4.0);
+    }
+
+    @Test
+    void createRatingsPage_pageLockLost_throwsException() {
+        when(ratingsPageRepository.findIdByDawId("DAW-123")).thenReturn(Optional.of(1L));
+        when(ratingsPageRepository.lockById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(RatingsPageNotFoundException.class, () -> ratingsPageService.createRatingsPage(inputDto));
+        verify(commentRepository, never()).save(any());
+    }
+
+    @Test
+    void stars_roundsIntoOneToFive() {
+        assertEquals(1, RatingsPageService.stars(0.0));
+        assertEquals(3, RatingsPageService.stars(2.5));
+        assertEquals(4, RatingsPageService.stars(4.4));
+        assertEquals(5, RatingsPageService.stars(7.0));
     }
 
     @Test
@@ -124,4 +179,68 @@ class RatingsPageServiceTest {
 
         assertThrows(RatingsPageNotFoundException.class, () -> ratingsPageService.getRatingsPageByDawId("INVALID"));
     }
+
+    @Test
+    void getLeaderboard_readsPrecomputedRanking() {
+        List<leaderboardEntryDTO> top = List.of(new leaderboardEntryDTO(1, "DAW-123", 4.6, 4.8, 40));
+        when(leaderboard.top(10)).thenReturn(top);
+
+        assertEquals(top, ratingsPageService.getLeaderboard(10));
+        verifyNoInteractions(ratingsPageRepository);
+    }
+
+    @Test
+    void getLeaderboard_nonPositiveLimit_throwsException() {
+        assertThrows(NonPositiveNumberException.class, () -> ratingsPageService.getLeaderboard(0));
+    }
+
+    @Test
+    void getRatingsHeaderByDawId_returnsAggregateOnly() {
+        RatingsPage page = new RatingsPage();
+        page.setId(1L);
+        page.setDawId("DAW-123");
+        page.setRating(4.5);
+        page.setRatingCount(2);
+        page.setStars4(1);
+        page.setStars5(1);
+        when(ratingsPageRepository.findByDawId("DAW-123")).thenReturn(Optional.of(page));
+
+        ratingsPageHeaderDTO result = ratingsPageService.getRatingsHeaderByDawId("DAW-123");
+
+        assertEquals(4.5, result.getRating());
+        assertEquals(2, result.getRatingCount());
+        assertArrayEquals(new long[] { 0, 0, 0, 1, 1 }, result.getStars());
+    }
+
+    @Test
+    void getRatingsComments_cursorRoundTrip_resumesAfterLastComment() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 5, 15, 3, 4, 480_000_000);
+        when(ratingsPageRepository.findIdByDawId("DAW-123")).thenReturn(Optional.of(1L));
+        String cursor = RatingsPageService.nextCursor(List.of(summary(42L, createdAt)), 1);
+        when(commentRepository.findSummariesAfter(1L, createdAt, 42L, PageRequest.of(0, 20))).thenReturn(List.of());
+
+        List<RatingsCommentSummary> result = ratingsPageService.getRatingsComments("DAW-123", cursor, 20);
+
+        assertTrue(result.isEmpty());
+        assertNull(RatingsPageService.nextCursor(result, 20));
+    }
+
+    @Test
+    void getRatingsComments_invalidCursor_throwsException() {
+        when(ratingsPageRepository.findIdByDawId("DAW-123")).thenReturn(Optional.of(1L));
+
+        assertThrows(InvalidCursorException.class, () -> ratingsPageService.getRatingsComments("DAW-123", "not-a-cursor", 20));
+    }
+
+    @Test
+    void getRatingsComments_nonPositiveSize_throwsException() {
+        assertThrows(NonPositiveNumberException.class, () -> ratingsPageService.getRatingsComments("DAW-123", null, 0));
+    }
+
+    private static RatingsCommentSummary summary(Long id, LocalDateTime createdAt) {
+        RatingsCommentSummary summary = mock(RatingsCommentSummary.class);
+        lenient().when(summary.getId()).thenReturn(id);
+        lenient().when(summary.getCreatedAt()).thenReturn(createdAt);
+        return summary;
+    }
 }
@@ -0,0 +1,123 @@
+package com.revature.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+// One level file (e.g. logs/INFO.log). The channel stays open for the life of the file,
+// lines are appended into a fixed buffer and only hit the channel when the buffer fills or
+// flush() is called. Each level has its own lock, so writers to different levels don't contend.
+public final class LevelFileWriter {
+
+    private static final DateTimeFormatter ROLL_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path dir;
+    private final String level;
+    private final Path file;
+    private final RotationPolicy policy;
+    private final Consumer<Path> onRolled;
+    private final ByteBuffer buffer;
+
+    private FileChannel channel;
+    private long size;
+    private long openedAt;
+
+    public LevelFileWriter(Path dir, String level, int bufferSize, RotationPolicy policy, Consumer<Path> onRolled) throws IOException {
+        this.dir = dir;
+        this.level = level;
+        this.file = dir.resolve(level + ".log");
+        this.policy = policy;
+        this.onRolled = onRolled;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        open();
+    }
+
+    public synchronized void append(byte[] line) throws IOException {
+        append(line, 0, line.length);
+    }
+
+    // The first length bytes of line, so a reused formatting buffer can be passed as is
+    public synchronized void append(byte[] line, int length) throws IOException {
+        append(line, 0, length);
+    }
+
+    // Callers appending many lines can hold this writer's lock around the calls, so the
+    // whole run takes it once
+    public synchronized void append(byte[] bytes, int offset, int length) throws IOException {
+        if (length > buffer.remaining()) {
+            flushBuffer();
+        }
+        if (length > buffer.capacity()) {
+            // Bigger than the whole buffer (e.g. a long stack trace): write it straight through
+            writeFully(ByteBuffer.wrap(bytes, offset, length));
+        } else {
+            buffer.put(bytes, offset, length);
+        }
+        size += length;
+        if (policy.bySize(size)) {
+            rotate();
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        flushBuffer();
+    }
+
+    // Called from the periodic flush so time-based rotation needs no clock read per line
+    public synchronized void flushAndRotateIfDue(long nowMillis) throws IOException {
+        flushBuffer();
+        if (size > 0 && policy.byAge(openedAt, nowMillis)) {
+            rotate();
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        flushBuffer();
+        channel.close();
+    }
+
+    public String level() {
+        return level;
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+        openedAt = System.currentTimeMillis();
+    }
+
+    private void rotate() throws IOException {
+        flushBuffer();
+        channel.close();
+        String stamp = LocalDateTime.now().format(ROLL_STAMP);
+        Path rolled = dir.resolve(level + "-" + stamp + ".log");
+        for (int n = 1; Files.exists(rolled) || Files.exists(rolled.resolveSibling(rolled.getFileName() + ".gz")); n++) {
+            rolled = dir.resolve(level + "-" + stamp + "-" + n + ".log");
+        }
+        Files.move(file, rolled, StandardCopyOption.ATOMIC_MOVE);
+        open();
+        onRolled.accept(rolled);
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.revature.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Map;
+
+// Used by the log consumer and by dawker's in-process log sink, so both write the same lines.
+//
+// Formats a log record straight into a reused byte buffer, producing the same line as before:
+//   {2026-01-05 15:03:04.480} INFO  - [DawService.getDawById] Getting daw by id (exception)
+// The "{yyyy-MM-dd HH:mm:ss." part is rendered once per clock second and cached, the millis,
+// padding and fields are written as bytes, so a line costs no intermediate Strings or
+// String.format parsing. One instance per thread: the buffer is overwritten by every call.
+public final class LogLineFormatter {
+
+    private static final DateTimeFormatter SECOND_PREFIX = DateTimeFormatter.ofPattern("'{'yyyy-MM-dd HH:mm:ss'.'");
+    private static final byte[] NEWLINE = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final int LEVEL_WIDTH = 5;
+
+    private final ZoneId zone;
+    private byte[] buffer = new byte[512];
+    private int length;
+    private long cachedSecond = Long.MIN_VALUE;
+    private byte[] cachedPrefix;
+
+    public LogLineFormatter() {
+        this(ZoneId.systemDefault());
+    }
+
+    public LogLineFormatter(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    // Formats the record and returns its length in bytes; the line is bytes()[0, length).
+    // A negative timestamp (none on the record) means now.
+    public int format(Map<String, String> logMap, long timestampMillis) {
+        String service = logMap.getOrDefault("service", "unknown-service");
+        String level = logMap.getOrDefault("level", "INFO");
+        String message = logMap.getOrDefault("message", "");
+        String method = logMap.getOrDefault("method", "unknown-method");
+        String exception = logMap.get("exception"); // optional
+        String fingerprint = logMap.get("fingerprint"); // with exception, when the producer deduplicates traces
+
+        length = 0;
+        timestamp(timestampMillis >= 0 ? timestampMillis : System.currentTimeMillis());
+        ascii("} ");
+        int levelStart = length;
+        text(level);
+        while (length - levelStart < LEVEL_WIDTH) {
+            put((byte) ' ');
+        }
+        ascii(" - [");
+        text(service);
+        put((byte) '.');
+        text(method);
+        ascii("] ");
+        text(message);
+        if (exception != null && fingerprint != null) {
+            // The trace itself is in StackTraceDictionary; the line keeps its first line and a reference
+            ascii(" (");
+            text(exception, firstLineEnd(exception));
+            ascii(") [stack ");
+            text(fingerprint);
+            String repeat = logMap.get("repeat");
+            if (repeat != null) {
+                ascii(", repeat ");
+                text(repeat);
+            }
+            put((byte) ']');
+        } else if (exception != null) {
+            ascii(" (");
+            text(exception);
+            put((byte) ')');
+        }
+        bytes(NEWLINE);
+        return length;
+    }
+
+    public byte[] bytes() {
+        return buffer;
+    }
+
+    private void timestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        if (second != cachedSecond) {
+            cachedPrefix = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone)
+                    .format(SECOND_PREFIX)
+                    .getBytes(StandardCharsets.US_ASCII);
+            cachedSecond = second;
+        }
+        bytes(cachedPrefix);
+        int ms = (int) Math.floorMod(millis, 1000);
+        ensure(3);
+        buffer[length++] = (byte) ('0' + ms / 100);
+        buffer[length++] = (byte) ('0' + ms / 10 % 10);
+        buffer[length++] = (byte) ('0' + ms % 10);
+    }
+
+    private void ascii(String s) {
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buffer[length++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void bytes(byte[] b) {
+        ensure(b.length);
+        System.arraycopy(b, 0, buffer, length, b.length);
+        length += b.length;
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buffer[length++] = b;
+    }
+
+    private static int firstLineEnd(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == '\n' || s.charAt(i) == '\r') {
+                return i;
+            }
+        }
+        return s.length();
+    }
+
+    private void text(String s) {
+        if (s == null) {
+            // A JSON record can carry an explicit null, which the old String.format printed as "null"
+            s = "null";
+        }
+        text(s, s.length());
+    }
+
+    // UTF-8 without going through String.getBytes; ASCII is the common case and one byte per char
+    private void text(String s, int n) {
+        ensure(n * 3);
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | c >> 6);
+                buffer[length++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | cp >> 18);
+                buffer[length++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                buffer[length++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                buffer[length++] = (byte) (0x80 | cp & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate: '?' as String.getBytes(UTF_8) would
+                buffer[length++] = (byte) '?';
+            } else {
+                buffer[length++] = (byte) (0xE0 | c >> 12);
+                buffer[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[length++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(length + extra, buffer.length * 2));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.revature.logging;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Binary form of a log record on the Kafka topics, written by dawker's LogRecordSerializer and
+// read by the consumer's LogRecordDeserializer.
+//
+//   byte    magic 0xB7   (never the first byte of JSON, so readers can tell the formats apart)
+//   byte    version 1
+//   byte    level        0-4 = TRACE..ERROR, 0xFE = other (name follows as a string), 0xFF = none
+//   byte    fields       bit 0 service, 1 method, 2 message, 3 exception, 4 fingerprint, 5 repeat:
+//                        which strings follow (readers skip fields added after them, at the end)
+//   strings              each a varint byte length and UTF-8, in the order above
+//
+// On decode, service and method names go through a small intern table: there are only a few
+// dozen of them, so after warm-up they cost a lookup instead of a new String per record.
+// A truncated or corrupt record is rejected with IllegalArgumentException (this module has no
+// Kafka dependency; the consumer's deserializer turns it into a SerializationException).
+public final class LogRecordCodec {
+
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte VERSION = 1;
+
+    private static final String[] LEVELS = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR"};
+    private static final String[] FIELDS = {"service", "method", "message", "exception", "fingerprint", "repeat"};
+    private static final int INTERNED_FIELDS = 2;
+    private static final int LEVEL_OTHER = 0xFE;
+    private static final int LEVEL_NONE = 0xFF;
+    private static final int HEADER_BYTES = 4;
+
+    // Direct-mapped by hash; a collision just replaces the slot. Entries are immutable, so
+    // racing decoders at worst miss the cache.
+    private static final int INTERN_SLOTS = 256;
+    private static final Interned[] INTERNED = new Interned[INTERN_SLOTS];
+
+    private record Interned(byte[] bytes, String value) {
+    }
+
+    private LogRecordCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 1 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Map<String, String> record) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(MAGIC);
+        out.write(VERSION);
+
+        String level = record.get("level");
+        int levelCode = levelCode(level);
+        out.write(levelCode);
+
+        int fields = 0;
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (record.get(FIELDS[i]) != null) {
+                fields |= 1 << i;
+            }
+        }
+        out.write(fields);
+
+        if (levelCode == LEVEL_OTHER) {
+            writeString(out, level);
+        }
+        for (int i = 0; i < FIELDS.length; i++) {
+            if ((fields & 1 << i) != 0) {
+                writeString(out, record.get(FIELDS[i]));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // Back to the map the JSON format carries, so readers handle both the same way
+    public static Map<String, String> decode(byte[] data) {
+        if (!isBinary(data) || data[1] != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " binary log record");
+        }
+        if (data.length < HEADER_BYTES) {
+            throw new IllegalArgumentException("Truncated binary log record: " + data.length + " bytes");
+        }
+        Map<String, String> record = new HashMap<>(8);
+        int levelCode = data[2] & 0xFF;
+        int fields = data[3] & 0xFF;
+        int[] position = {HEADER_BYTES};
+        if (levelCode == LEVEL_OTHER) {
+            record.put("level", readString(data, position, false));
+        } else if (levelCode < LEVELS.length) {
+            record.put("level", LEVELS[levelCode]);
+        } else if (levelCode != LEVEL_NONE) {
+            throw new IllegalArgumentException("Unknown level code " + levelCode + " in binary log record");
+        }
+        for (int i = 0; i < FIELDS.length; i++) {
+            if ((fields & 1 << i) != 0) {
+                record.put(FIELDS[i], readString(data, position, i < INTERNED_FIELDS));
+            }
+        }
+        return record;
+    }
+
+    private static int levelCode(String level) {
+        if (level == null) {
+            return LEVEL_NONE;
+        }
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(level)) {
+                return i;
+            }
+        }
+        return LEVEL_OTHER;
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            out.write(length & 0x7F | 0x80);
+            length >>>= 7;
+        }
+        out.write(length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(byte[] data, int[] position, boolean intern) {
+        int p = position[0];
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            // A record is far smaller than 2^28 bytes, so a fifth length byte is corrupt
+            if (p >= data.length || shift > 21) {
+                throw new IllegalArgumentException("Truncated binary log record: bad string length at " + position[0]);
+            }
+            byte b = data[p++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        if (length > data.length - p) {
+            throw new IllegalArgumentException("Truncated binary log record: " + length + " byte string at " + p
+                    + " runs past the end (" + data.length + " bytes)");
+        }
+        position[0] = p + length;
+        return intern ? intern(data, p, length) : new String(data, p, length, StandardCharsets.UTF_8);
+    }
+
+    private static String intern(byte[] data, int offset, int length) {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + data[i];
+        }
+        int slot = (hash ^ hash >>> 16) & INTERN_SLOTS - 1;
+        Interned entry = INTERNED[slot];
+        if (entry != null && Arrays.equals(entry.bytes(), 0, entry.bytes().length, data, offset, offset + length)) {
+            return entry.value();
+        }
+        String value = new String(data, offset, length, StandardCharsets.UTF_8);
+        INTERNED[slot] = new Interned(Arrays.copyOfRange(data, offset, offset + length), value);
+        return value;
+    }
+}
@@ -0,0 +1,18 @@
+package com.revature.logging;
+
+import java.time.Duration;
+
+// When a level file is rolled over: once it reaches maxBytes, or once it has been open
+// for maxAge (checked on every flush tick). A zero/negative value disables that trigger.
+// With gzip, rolled files are compressed in the background and the plain copy removed.
+public record RotationPolicy(long maxBytes, Duration maxAge, boolean gzip) {
+
+    public boolean bySize(long size) {
+        return maxBytes > 0 && size >= maxBytes;
+    }
+
+    public boolean byAge(long openedAtMillis, long nowMillis) {
+        return maxAge != null && !maxAge.isZero() && !maxAge.isNegative()
+                && nowMillis - openedAtMillis >= maxAge.toMillis();
+    }
+}
@@ -0,0 +1,83 @@
+package com.revature.logging;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// stacktraces.log: each distinct stack trace once, under its fingerprint. The producer sends
+// a full trace only the first time per window; log lines then carry "[stack <fingerprint>]" and
+// the trace is looked up here, so the level files don't repeat it.
+//
+//   #3f9a0c1d2b4e5f60
+//   java.lang.Exception: anger
+//       at com.project.dawker.Service.forumService.getAllForumsByUserId(forumService.java:128)
+//       ...
+//
+// The fingerprints already in the file are read on first use rather than on construction, so
+// a restart doesn't record a trace twice and a caller can still clear the folder in between.
+public class StackTraceDictionary {
+
+    public static final String FILE_NAME = "stacktraces.log";
+
+    private final Path file;
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    public StackTraceDictionary(Path dir) {
+        this.file = dir.resolve(FILE_NAME);
+    }
+
+    // Adds the trace if this fingerprint hasn't been recorded yet; true if it was added
+    public boolean record(String fingerprint, String stackTrace) {
+        if (loaded && known.contains(fingerprint)) {
+            return false;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                load();
+            }
+            if (known.contains(fingerprint)) {
+                return false;
+            }
+            String entry = "#" + fingerprint + System.lineSeparator() + stackTrace.strip()
+                    + System.lineSeparator() + System.lineSeparator();
+            try {
+                Files.writeString(file, entry, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("WARNING: Could not write stack trace " + fingerprint + ": " + e.getMessage());
+                return false;
+            }
+            known.add(fingerprint);
+            return true;
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    // Each entry starts with its "#fingerprint" line, at the top of the file or after the blank
+    // line that ends the previous entry
+    private void load() {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            boolean entryStart = true;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (entryStart && line.startsWith("#")) {
+                    known.add(line.substring(1).strip());
+                }
+                entryStart = line.isEmpty();
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing recorded yet
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not read " + file + ": " + e.getMessage());
+        }
+        loaded = true;
+    }
+}
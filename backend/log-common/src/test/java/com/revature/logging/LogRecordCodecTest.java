@@ -0,0 +1,56 @@
+package com.revature.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogRecordCodecTest {
+
+    private static final Map<String, String> RECORD = Map.of(
+            "level", "WARN",
+            "service", "DawService",
+            "method", "getDawById",
+            "message", "x".repeat(200));
+
+    @Test
+    void decode_rejectsEveryTruncation() {
+        byte[] encoded = LogRecordCodec.encode(RECORD);
+        assertEquals(RECORD, LogRecordCodec.decode(encoded));
+
+        // Every prefix that still starts with the magic byte
+        for (int length = 1; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(IllegalArgumentException.class, () -> LogRecordCodec.decode(truncated),
+                    "decoded a record cut to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void decode_rejectsUnknownLevelCodes() {
+        byte[] encoded = LogRecordCodec.encode(RECORD);
+        encoded[2] = 5;
+
+        assertThrows(IllegalArgumentException.class, () -> LogRecordCodec.decode(encoded));
+    }
+
+    @Test
+    void decode_readsTheFieldsByteUnsigned() {
+        byte[] encoded = LogRecordCodec.encode(Map.of("message", "hi"));
+        // A field bit past the ones this version knows: unknown fields are skipped, not misread
+        encoded[3] = (byte) (encoded[3] | 0x80);
+
+        assertEquals(Map.of("message", "hi"), LogRecordCodec.decode(encoded));
+    }
+
+    @Test
+    void decode_rejectsAnOverlongStringLength() {
+        byte[] encoded = {LogRecordCodec.MAGIC, LogRecordCodec.VERSION, (byte) 0xFF, 0x04,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+
+        assertThrows(IllegalArgumentException.class, () -> LogRecordCodec.decode(encoded));
+    }
+}
@@ -0,0 +1,37 @@
+package com.revature.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RotationPolicyTest {
+
+    @Test
+    void bySize_atOrPastMaxBytes() {
+        RotationPolicy policy = new RotationPolicy(100, Duration.ZERO, false);
+
+        assertFalse(policy.bySize(99));
+        assertTrue(policy.bySize(100));
+        assertTrue(policy.bySize(250));
+    }
+
+    @Test
+    void byAge_onceOpenForMaxAge() {
+        RotationPolicy policy = new RotationPolicy(0, Duration.ofSeconds(10), false);
+
+        assertFalse(policy.byAge(1_000, 10_999));
+        assertTrue(policy.byAge(1_000, 11_000));
+    }
+
+    @Test
+    void zeroOrNegativeLimits_disableThatTrigger() {
+        assertFalse(new RotationPolicy(0, Duration.ZERO, false).bySize(Long.MAX_VALUE));
+        assertFalse(new RotationPolicy(-1, Duration.ofSeconds(-1), false).bySize(Long.MAX_VALUE));
+        assertFalse(new RotationPolicy(0, Duration.ZERO, false).byAge(0, Long.MAX_VALUE));
+        assertFalse(new RotationPolicy(0, Duration.ofSeconds(-1), false).byAge(0, Long.MAX_VALUE));
+        assertFalse(new RotationPolicy(0, null, false).byAge(0, Long.MAX_VALUE));
+    }
+}
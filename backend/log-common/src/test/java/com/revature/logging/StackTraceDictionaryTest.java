@@ -0,0 +1,65 @@
+package com.revature.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StackTraceDictionaryTest {
+
+    private static final String NL = System.lineSeparator();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void record_firstWriteWins() throws Exception {
+        StackTraceDictionary dictionary = new StackTraceDictionary(dir);
+
+        assertTrue(dictionary.record("3f9a", "java.lang.Exception: first\n\tat A.a(A.java:1)\n"));
+        assertFalse(dictionary.record("3f9a", "java.lang.Exception: second"));
+        assertTrue(dictionary.record("77b0", "java.lang.Exception: other"));
+
+        assertEquals(dir.resolve(StackTraceDictionary.FILE_NAME), dictionary.file());
+        assertEquals("#3f9a" + NL + "java.lang.Exception: first\n\tat A.a(A.java:1)" + NL + NL
+                + "#77b0" + NL + "java.lang.Exception: other" + NL + NL, Files.readString(dictionary.file()));
+    }
+
+    @Test
+    void record_skipsFingerprintsAlreadyInTheFile() throws Exception {
+        new StackTraceDictionary(dir).record("3f9a", "java.lang.Exception: before restart");
+        String before = Files.readString(dir.resolve(StackTraceDictionary.FILE_NAME));
+
+        StackTraceDictionary restarted = new StackTraceDictionary(dir);
+
+        assertFalse(restarted.record("3f9a", "java.lang.Exception: after restart"));
+        assertEquals(before, Files.readString(restarted.file()));
+    }
+
+    @Test
+    void record_onlyReadsFingerprintsAtTheStartOfAnEntry() throws Exception {
+        // A "#" line inside a trace isn't a fingerprint
+        Files.writeString(dir.resolve(StackTraceDictionary.FILE_NAME),
+                "#3f9a" + NL + "java.lang.Exception: odd" + NL + "#77b0" + NL + NL);
+
+        StackTraceDictionary dictionary = new StackTraceDictionary(dir);
+
+        assertFalse(dictionary.record("3f9a", "java.lang.Exception: odd"));
+        assertTrue(dictionary.record("77b0", "java.lang.Exception: other"));
+    }
+
+    @Test
+    void record_seesTheFolderAsItIsOnFirstUse() throws Exception {
+        Files.writeString(dir.resolve(StackTraceDictionary.FILE_NAME), "#3f9a" + NL + "trace" + NL + NL);
+        StackTraceDictionary dictionary = new StackTraceDictionary(dir);
+        // The consumer clears its logs folder after the dictionary is created
+        Files.delete(dictionary.file());
+
+        assertTrue(dictionary.record("3f9a", "trace"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.revature.consumer;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+// The log topics, created (or grown) with enough partitions for the listener concurrency to
+// matter. Auto-created topics get the broker default, usually one partition, which one thread reads.
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${consumer.kafka.partitions:3}")
+    private int partitions;
+
+    @Bean
+    public KafkaAdmin.NewTopics logTopics() {
+        return new KafkaAdmin.NewTopics(
+                topic("errors"),
+                topic("api-calls"),
+                topic("service-calls"));
+    }
+
+    private NewTopic topic(String name) {
+        return TopicBuilder.name(name).partitions(partitions).replicas(1).build();
+    }
+}
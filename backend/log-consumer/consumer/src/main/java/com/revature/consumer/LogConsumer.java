@@ -2,109 +2,88 @@
 
 package com.revature.consumer;
 
+import com.revature.consumer.writer.LogBatch;
+import com.revature.consumer.writer.LogSink;
+import com.revature.logging.LogLineFormatter;
+import com.revature.logging.StackTraceDictionary;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
+// Batch listeners: each poll (up to max.poll.records) is formatted into one buffer per level
+// file and written with a single append per file. The listener container commits the batch's
+// offsets only after this returns (ack-mode BATCH), so a failed write is redelivered, not lost.
+// With listener concurrency > 1 each thread owns some of a topic's partitions; records are keyed
+// by service, so one service's lines are always handled by one thread, in order.
 @Component
 public class LogConsumer {
-    private static final Path LOG_DIR = Paths.get("logs");
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
-    private static final List<String> logLevels = new ArrayList<>(List.of("TRACE", "DEBUG", "INFO", "WARN", "ERROR"));
-
-    public LogConsumer() {
-        try {
-            if (Files.exists(LOG_DIR)) {
-                clearDirectory(LOG_DIR);
-            } else {
-                Files.createDirectories(LOG_DIR);
-            }
-        } catch (IOException e) {
-            System.err.println("WARNING: Could not initialize logs folder: " + e.getMessage());
-        }
-    }
-
-    @KafkaListener(topics = "errors")
-    public void consumeError(Map<String, String> logMap) {
-        consume(logMap);
+    private final LogSink writer;
+    private final StackTraceDictionary stackTraces;
+    private final DistributionSummary batchSize;
+    private final Timer batchWrite;
+    // One reusable batch buffer and line formatter per listener thread
+    private final ThreadLocal<LogBatch> batches = ThreadLocal.withInitial(LogBatch::new);
+    private final ThreadLocal<LogLineFormatter> formatters = ThreadLocal.withInitial(LogLineFormatter::new);
+
+    public LogConsumer(LogSink writer, StackTraceDictionary stackTraces, MeterRegistry registry) {
+        this.writer = writer;
+        this.stackTraces = stackTraces;
+        this.batchSize = DistributionSummary.builder("log.consumer.batch.size")
+                .description("Records per polled batch")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchWrite = Timer.builder("log.consumer.batch.write")
+                .description("Time to format and write one batch")
+                .register(registry);
     }
 
-    @KafkaListener(topics = "api-calls")
-    public void consumeAPICall(Map<String, String> logMap) {
-        consume(logMap);
+    @KafkaListener(topics = "errors", batch = "true")
+    public void consumeError(List<ConsumerRecord<String, Map<String, String>>> records) {
+        consume("errors", records);
     }
 
-    @KafkaListener(topics = "service-calls")
-    public void consumeServiceCall(Map<String, String> logMap) {
-        consume(logMap);
+    @KafkaListener(topics = "api-calls", batch = "true")
+    public void consumeAPICall(List<ConsumerRecord<String, Map<String, String>>> records) {
+        consume("api-calls", records);
     }
 
-    private void consume(Map<String, String> logMap) {
-        String service = logMap.getOrDefault("service", "unknown-service");
-        String level = logMap.getOrDefault("level", "INFO");
-        String message = logMap.getOrDefault("message", "");
-        String method = logMap.getOrDefault("method", "unknown-method");
-        String exception = logMap.get("exception"); // optional
-
-        String timestamp = LocalDateTime.now().format(formatter);
-        String formattedLevel = String.format("%-5s", level);
-        StringBuilder logBuilder = new StringBuilder();
-        logBuilder.append("[").append(service).append(".").append(method).append("] ");
-        logBuilder.append(message);
-        if (exception != null) logBuilder.append(" (").append(exception).append(")");
-
-        String logLine = String.format("{%s} %s - %s%n", timestamp, formattedLevel, logBuilder);
-
-        write(level, logLine);
+    @KafkaListener(topics = "service-calls", batch = "true")
+    public void consumeServiceCall(List<ConsumerRecord<String, Map<String, String>>> records) {
+        consume("service-calls", records);
     }
 
-    private synchronized void write(String logLevel, String message) {
-        int logIndex = logLevels.indexOf(logLevel);
-        if (logIndex == -1) logIndex = logLevels.indexOf("INFO");
-        int i = 0;
-
-        try {
-            for (i = 0; i <= logIndex; i++) {
-                Path logFile = LOG_DIR.resolve(logLevels.get(i) + ".log");
-                Files.writeString(
-                    logFile,
-                    message,
-                    StandardOpenOption.CREATE,
-                    StandardOpenOption.APPEND
-                );
-            }
-        } catch (IOException e) {
-            System.out.printf("Error while trying to write %s to %s.log.%n", message, logLevels.get(i));
-            e.printStackTrace();
-        }
-    }
-
-    private void clearDirectory(Path dir) throws IOException {
-        if (!Files.isDirectory(dir)) return;
-
-        try (var entries = Files.list(dir)) {
-            for (Path entry : entries.toList()) {
-                try {
-                    if (Files.isDirectory(entry)) {
-                        clearDirectory(entry);
-                        Files.delete(entry);
-                    } else {
-                        Files.delete(entry);
-                    }
-                } catch (IOException ex) {
-                    System.err.println("WARNING: Could not delete " + entry + ": " + ex.getMessage());
+    private void consume(String topic, List<ConsumerRecord<String, Map<String, String>>> records) {
+        batchSize.record(records.size());
+        LogBatch batch = batches.get();
+        LogLineFormatter formatter = formatters.get();
+        batch.reset(topic);
+        batchWrite.record(() -> {
+            for (ConsumerRecord<String, Map<String, String>> record : records) {
+                Map<String, String> logMap = record.value();
+                if (logMap == null) continue;
+                String level = logMap.getOrDefault("level", "INFO");
+                String fingerprint = logMap.get("fingerprint");
+                // The first record of a fingerprint carries the full trace; repeats only its first line
+                if (fingerprint != null && logMap.get("repeat") == null && logMap.get("exception") != null) {
+                    stackTraces.record(fingerprint, logMap.get("exception"));
                 }
+                // The timestamp is when the record was produced, not when this consumer got to it
+                int length = formatter.format(logMap, record.timestamp());
+                batch.add(level, logMap.get("service"), formatter.bytes(), length);
+            }
+            try {
+                writer.write(batch);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write log batch", e);
             }
-        }
+        });
     }
 }
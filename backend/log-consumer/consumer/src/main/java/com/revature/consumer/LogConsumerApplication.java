@@ -1,13 +1,19 @@
 package com.revature.consumer;
 
+import com.revature.logging.StackTraceDictionary;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.nio.file.Paths;
 import java.util.Map;
 
 @SpringBootApplication
+@EnableScheduling
 @RestController
 public class LogConsumerApplication {
 
@@ -15,6 +21,12 @@ public class LogConsumerApplication {
         SpringApplication.run(LogConsumerApplication.class, args);
     }
 
+    // From log-common, which has no Spring, so it's declared here rather than scanned
+    @Bean
+    public StackTraceDictionary stackTraceDictionary(@Value("${consumer.log.dir:logs}") String dir) {
+        return new StackTraceDictionary(Paths.get(dir));
+    }
+
     @GetMapping("/health")
     public Map<String, String> health() {
         return Map.of("status", "UP", "service", "log-consumer");
@@ -0,0 +1,64 @@
+package com.revature.consumer;
+
+import com.revature.consumer.writer.LogSegmentReader;
+import com.revature.consumer.writer.LogSegmentStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+// Reads back segment storage: GET /logs/query?level=WARN streams every line at WARN or above,
+// oldest segment first, straight from the files. Only present when consumer.log.storage=segment.
+@RestController
+@ConditionalOnProperty(name = "consumer.log.storage", havingValue = "segment")
+public class LogQueryController {
+
+    private final LogSegmentStore store;
+
+    public LogQueryController(LogSegmentStore store) {
+        this.store = store;
+    }
+
+    @GetMapping("/logs/segments")
+    public List<String> segments() throws IOException {
+        return store.segments();
+    }
+
+    @GetMapping(value = "/logs/query", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> query(@RequestParam(defaultValue = "INFO") String level,
+                                                       @RequestParam(required = false) String segment) throws IOException {
+        int minLevel = LogSegmentReader.levelIndex(level);
+        List<String> segments;
+        if (segment == null) {
+            segments = store.segments();
+        } else if (store.segments().contains(segment)) {
+            segments = List.of(segment);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Flush first so the active segment's buffered lines are included
+        store.flush();
+        StreamingResponseBody body = out -> {
+            for (String name : segments) {
+                if (Files.exists(store.directory().resolve(name + ".log"))) {
+                    LogSegmentReader.stream(store.directory(), name, minLevel, out);
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badLevel(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
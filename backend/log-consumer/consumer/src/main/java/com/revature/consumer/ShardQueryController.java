@@ -0,0 +1,48 @@
+package com.revature.consumer;
+
+import com.revature.consumer.writer.LogShardReader;
+import com.revature.consumer.writer.LogSegmentReader;
+import com.revature.consumer.writer.ShardedLogSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+
+// Reads back sharded storage: GET /logs/query?level=WARN streams every shard's WARN logs, rolled
+// and gzipped files included, merged into one timeline. Only present when consumer.log.storage=sharded.
+@RestController
+@ConditionalOnProperty(name = "consumer.log.storage", havingValue = "sharded")
+public class ShardQueryController {
+
+    private final ShardedLogSink sink;
+
+    public ShardQueryController(ShardedLogSink sink) {
+        this.sink = sink;
+    }
+
+    @GetMapping("/logs/shards")
+    public List<String> shards() throws IOException {
+        return LogShardReader.shards(sink.directory());
+    }
+
+    @GetMapping(value = "/logs/query", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> query(@RequestParam(defaultValue = "INFO") String level) {
+        LogSegmentReader.levelIndex(level);
+        // Flush first so lines still in the shards' buffers are included
+        sink.flush();
+        StreamingResponseBody body = out -> LogShardReader.merge(sink.directory(), level, out);
+        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badLevel(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
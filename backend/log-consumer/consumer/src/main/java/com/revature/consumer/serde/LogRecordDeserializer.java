@@ -0,0 +1,54 @@
+package com.revature.consumer.serde;
+
+import java.util.Map;
+
+import com.revature.logging.LogRecordCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+// Value deserializer for the log topics. Reads LogRecordCodec's binary records and, for
+// producers still on JsonSerializer, the old JSON maps, told apart by the first byte. The JSON
+// side is a regular JsonDeserializer configured from the same spring.json.* properties.
+// A corrupt binary record throws SerializationException; application.properties wraps this
+// in an ErrorHandlingDeserializer, so such a record reaches the listener as a null value and
+// is skipped instead of stalling its partition.
+public class LogRecordDeserializer implements Deserializer<Map<String, String>> {
+
+    private final JsonDeserializer<Map<String, String>> json = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public Map<String, String> deserialize(String topic, byte[] data) {
+        if (LogRecordCodec.isBinary(data)) {
+            return decode(topic, data);
+        }
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public Map<String, String> deserialize(String topic, Headers headers, byte[] data) {
+        if (LogRecordCodec.isBinary(data)) {
+            return decode(topic, data);
+        }
+        return json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+
+    private static Map<String, String> decode(String topic, byte[] data) {
+        try {
+            return LogRecordCodec.decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Corrupt binary log record on " + topic, e);
+        }
+    }
+}
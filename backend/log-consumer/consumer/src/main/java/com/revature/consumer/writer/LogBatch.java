@@ -0,0 +1,90 @@
+package com.revature.consumer.writer;
+
+import java.util.Arrays;
+
+// The lines of one Kafka batch, encoded back to back in a single array with each line's
+// level (and service) alongside. Sinks decide how to lay them out: LogFileWriter copies each
+// line into its level's file and every more verbose one, LogSegmentStore appends each line once,
+// ShardedLogSink splits the lines by service first.
+// Reused across batches (reset() keeps the arrays), one per listener thread.
+public final class LogBatch {
+
+    private byte[] data = new byte[64 * 1024];
+    private int[] ends = new int[1024];
+    private byte[] levels = new byte[1024];
+    private String[] services = new String[1024];
+    private String topic;
+    private int size;
+    private int lines;
+
+    public void add(String level, byte[] line) {
+        add(level, null, line, line.length);
+    }
+
+    public void add(String level, byte[] line, int length) {
+        add(level, null, line, length);
+    }
+
+    // The first length bytes of line, so a reused formatting buffer can be passed as is.
+    // service is only kept for sinks that shard by it (ShardedLogSink).
+    public void add(String level, String service, byte[] line, int length) {
+        add(LogFileWriter.levelIndex(level), service, line, 0, length);
+    }
+
+    void add(int levelIndex, String service, byte[] bytes, int offset, int length) {
+        if (lines == ends.length) {
+            ends = Arrays.copyOf(ends, lines * 2);
+            levels = Arrays.copyOf(levels, lines * 2);
+            services = Arrays.copyOf(services, lines * 2);
+        }
+        if (size + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(size + length, data.length * 2));
+        }
+        System.arraycopy(bytes, offset, data, size, length);
+        size += length;
+        ends[lines] = size;
+        levels[lines] = (byte) levelIndex;
+        services[lines] = service;
+        lines++;
+    }
+
+    public int lines() {
+        return lines;
+    }
+
+    public void reset() {
+        reset(null);
+    }
+
+    // Every listener consumes a single topic, so the topic is per batch rather than per line
+    public void reset(String topic) {
+        Arrays.fill(services, 0, lines, null);
+        this.topic = topic;
+        size = 0;
+        lines = 0;
+    }
+
+    public String topic() {
+        return topic;
+    }
+
+    byte[] data() {
+        return data;
+    }
+
+    int start(int line) {
+        return line == 0 ? 0 : ends[line - 1];
+    }
+
+    int end(int line) {
+        return ends[line];
+    }
+
+    int levelIndex(int line) {
+        return levels[line];
+    }
+
+    String service(int line) {
+        return services[line];
+    }
+}
@@ -0,0 +1,222 @@
+package com.revature.consumer.writer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.revature.logging.LevelFileWriter;
+import com.revature.logging.RotationPolicy;
+
+import jakarta.annotation.PreDestroy;
+
+// Owns the per-level log files. A record at some level is appended to that level's file and
+// every more verbose one (an ERROR line lands in TRACE.log through ERROR.log), as before, but
+// into long-lived buffered channels instead of an open/append/close per file per line.
+// Buffers are flushed when full and on a fixed interval; rotation and gzip are per RotationPolicy.
+@Component
+@ConditionalOnProperty(name = "consumer.log.storage", havingValue = "files", matchIfMissing = true)
+public class LogFileWriter implements LogSink {
+
+    static final List<String> LEVELS = List.of("TRACE", "DEBUG", "INFO", "WARN", "ERROR");
+    private static final int DEFAULT_LEVEL = LEVELS.indexOf("INFO");
+
+    private final LevelFileWriter[] writers = new LevelFileWriter[LEVELS.size()];
+    private final RotationPolicy policy;
+    private final ExecutorService compressor;
+    private final boolean ownsCompressor;
+
+    @Autowired
+    public LogFileWriter(@Value("${consumer.log.dir:logs}") String dir,
+                         @Value("${consumer.log.buffer-size:65536}") int bufferSize,
+                         @Value("${consumer.log.rotate.max-bytes:104857600}") long maxBytes,
+                         @Value("${consumer.log.rotate.max-age:24h}") Duration maxAge,
+                         @Value("${consumer.log.rotate.gzip:true}") boolean gzip) throws IOException {
+        this(Paths.get(dir), bufferSize, new RotationPolicy(maxBytes, maxAge, gzip));
+    }
+
+    public LogFileWriter(Path dir, int bufferSize, RotationPolicy policy) throws IOException {
+        this(dir, bufferSize, policy, newCompressor(), true);
+    }
+
+    // For shards that share their owner's gzip thread; close() leaves a shared compressor running
+    LogFileWriter(Path dir, int bufferSize, RotationPolicy policy, ExecutorService compressor) throws IOException {
+        this(dir, bufferSize, policy, compressor, false);
+    }
+
+    private LogFileWriter(Path dir, int bufferSize, RotationPolicy policy, ExecutorService compressor,
+                          boolean ownsCompressor) throws IOException {
+        this.policy = policy;
+        this.compressor = compressor;
+        this.ownsCompressor = ownsCompressor;
+        prepareDirectory(dir);
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = new LevelFileWriter(dir, LEVELS.get(i), bufferSize, policy, this::rolled);
+        }
+    }
+
+    public void write(String level, String line) {
+        write(level, line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The line is encoded once and the same bytes appended to each file
+    public void write(String level, byte[] line) {
+        int logIndex = levelIndex(level);
+
+        for (int i = 0; i <= logIndex; i++) {
+            try {
+                writers[i].append(line);
+            } catch (IOException e) {
+                System.out.printf("Error while trying to write to %s.log: %s%n", writers[i].level(), e.getMessage());
+            }
+        }
+    }
+
+    // Each level file takes the batch's lines in one go and is then flushed, so once this
+    // returns the batch has reached the files and its offsets can be committed. Throws if any file failed.
+    @Override
+    public void write(LogBatch batch) throws IOException {
+        IOException failure = null;
+        for (int i = 0; i < writers.length; i++) {
+            try {
+                append(writers[i], batch, i);
+                writers[i].flush();
+            } catch (IOException e) {
+                System.out.printf("Error while trying to write batch to %s.log: %s%n", writers[i].level(), e.getMessage());
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Every line of the batch at this file's level or above, under one lock acquisition
+    private static void append(LevelFileWriter writer, LogBatch batch, int levelIndex) throws IOException {
+        synchronized (writer) {
+            for (int i = 0; i < batch.lines(); i++) {
+                if (batch.levelIndex(i) >= levelIndex) {
+                    writer.append(batch.data(), batch.start(i), batch.end(i) - batch.start(i));
+                }
+            }
+        }
+    }
+
+    static int levelIndex(String level) {
+        int logIndex = LEVELS.indexOf(level);
+        return logIndex == -1 ? DEFAULT_LEVEL : logIndex;
+    }
+
+    @Scheduled(fixedDelayString = "${consumer.log.flush-interval-ms:1000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (LevelFileWriter writer : writers) {
+            try {
+                writer.flushAndRotateIfDue(now);
+            } catch (IOException e) {
+                System.err.println("WARNING: Could not flush " + writer.level() + ".log: " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (LevelFileWriter writer : writers) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("WARNING: Could not close " + writer.level() + ".log: " + e.getMessage());
+            }
+        }
+        if (ownsCompressor) {
+            shutdown(compressor);
+        }
+    }
+
+    static ExecutorService newCompressor() {
+        return Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "log-gzip");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Lets queued compressions finish
+    static void shutdown(ExecutorService compressor) {
+        compressor.shutdown();
+        try {
+            compressor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void rolled(Path file) {
+        if (policy.gzip()) {
+            compressor.execute(() -> gzip(file));
+        }
+    }
+
+    private static void gzip(Path file) {
+        Path target = file.resolveSibling(file.getFileName() + ".gz");
+        try (InputStream in = Files.newInputStream(file);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), 64 * 1024)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not compress " + file + ": " + e.getMessage());
+            return;
+        }
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not delete " + file + " after compressing: " + e.getMessage());
+        }
+    }
+
+    // Each run starts with an empty logs folder
+    static void prepareDirectory(Path dir) {
+        try {
+            if (Files.exists(dir)) {
+                clearDirectory(dir);
+            } else {
+                Files.createDirectories(dir);
+            }
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not initialize logs folder: " + e.getMessage());
+        }
+    }
+
+    private static void clearDirectory(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return;
+
+        try (var entries = Files.list(dir)) {
+            for (Path entry : entries.toList()) {
+                try {
+                    if (Files.isDirectory(entry)) {
+                        clearDirectory(entry);
+                        Files.delete(entry);
+                    } else {
+                        Files.delete(entry);
+                    }
+                } catch (IOException ex) {
+                    System.err.println("WARNING: Could not delete " + entry + ": " + ex.getMessage());
+                }
+            }
+        }
+    }
+}
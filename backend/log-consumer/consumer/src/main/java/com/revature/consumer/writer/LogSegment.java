@@ -0,0 +1,112 @@
+package com.revature.consumer.writer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// One segment: a data file holding every line exactly once, in arrival order, and one index
+// file per level. An index entry is the line's byte offset in the data file (long) and its
+// length (int); a line is indexed only under its own level, so "WARN and above" means merging
+// the WARN and ERROR indexes by offset.
+//
+// The data buffer is always written out before the index buffers, so an index entry a
+// reader can see never points past the data that reached the file. Not thread-safe; the
+// store holds its lock around every call.
+final class LogSegment {
+
+    static final int INDEX_ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final String name;
+    private final FileChannel data;
+    private final FileChannel[] indexes = new FileChannel[LogFileWriter.LEVELS.size()];
+    private final ByteBuffer dataBuffer;
+    private final ByteBuffer[] indexBuffers = new ByteBuffer[LogFileWriter.LEVELS.size()];
+    private final long openedAt;
+    private long size;
+
+    LogSegment(Path dir, String name, int bufferSize) throws IOException {
+        this.name = name;
+        this.data = open(dataFile(dir, name));
+        this.dataBuffer = ByteBuffer.allocateDirect(bufferSize);
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = open(indexFile(dir, name, LogFileWriter.LEVELS.get(i)));
+            indexBuffers[i] = ByteBuffer.allocateDirect(Math.max(INDEX_ENTRY_BYTES, bufferSize / 8 / INDEX_ENTRY_BYTES * INDEX_ENTRY_BYTES));
+        }
+        this.openedAt = System.currentTimeMillis();
+    }
+
+    static Path dataFile(Path dir, String name) {
+        return dir.resolve(name + ".log");
+    }
+
+    static Path indexFile(Path dir, String name, String level) {
+        return dir.resolve(name + "." + level + ".idx");
+    }
+
+    String name() {
+        return name;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long openedAt() {
+        return openedAt;
+    }
+
+    void append(LogBatch batch) throws IOException {
+        byte[] bytes = batch.data();
+        for (int i = 0; i < batch.lines(); i++) {
+            int start = batch.start(i);
+            int length = batch.end(i) - start;
+            ByteBuffer index = indexBuffers[batch.levelIndex(i)];
+            if (length > dataBuffer.remaining() || index.remaining() < INDEX_ENTRY_BYTES) {
+                flush();
+            }
+            if (length > dataBuffer.capacity()) {
+                writeFully(data, ByteBuffer.wrap(bytes, start, length));
+            } else {
+                dataBuffer.put(bytes, start, length);
+            }
+            index.putLong(size).putInt(length);
+            size += length;
+        }
+    }
+
+    void flush() throws IOException {
+        drain(dataBuffer, data);
+        for (int i = 0; i < indexes.length; i++) {
+            drain(indexBuffers[i], indexes[i]);
+        }
+    }
+
+    void close() throws IOException {
+        flush();
+        data.close();
+        for (FileChannel index : indexes) {
+            index.close();
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
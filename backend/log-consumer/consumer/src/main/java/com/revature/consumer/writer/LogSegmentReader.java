@@ -0,0 +1,175 @@
+package com.revature.consumer.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Streams the lines of a segment at or above a level, in the order they were written.
+// Only the indexes of the wanted levels are read (merged by offset), and the data file is read
+// through a sliding window, so nothing proportional to the segment is held in memory.
+//
+// Also runnable on its own against a logs folder:
+//   java -cp app.jar -Dloader.main=com.revature.consumer.writer.LogSegmentReader \
+//       org.springframework.boot.loader.launch.PropertiesLauncher logs WARN [segment-000001]
+public final class LogSegmentReader {
+
+    private static final int WINDOW_BYTES = 64 * 1024;
+    private static final int INDEX_CHUNK_ENTRIES = 4096;
+
+    private LogSegmentReader() {
+    }
+
+    public static int levelIndex(String level) {
+        int index = LogFileWriter.LEVELS.indexOf(level.toUpperCase());
+        if (index == -1) {
+            throw new IllegalArgumentException("Unknown level '" + level + "', expected one of " + LogFileWriter.LEVELS);
+        }
+        return index;
+    }
+
+    // Segment names in write order
+    public static List<String> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(LogSegmentStore.SEGMENT_PREFIX) && name.endsWith(".log"))
+                    .map(name -> name.substring(0, name.length() - ".log".length()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public static long stream(Path dir, String segment, int minLevelIndex, OutputStream out) throws IOException {
+        List<IndexCursor> cursors = new ArrayList<>();
+        try (FileChannel data = FileChannel.open(LogSegment.dataFile(dir, segment), StandardOpenOption.READ)) {
+            for (int level = minLevelIndex; level < LogFileWriter.LEVELS.size(); level++) {
+                IndexCursor cursor = new IndexCursor(LogSegment.indexFile(dir, segment, LogFileWriter.LEVELS.get(level)));
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+
+            DataWindow window = new DataWindow(data);
+            long lines = 0;
+            while (!cursors.isEmpty()) {
+                // At most five cursors, so a linear pick beats a heap
+                IndexCursor next = cursors.get(0);
+                for (int i = 1; i < cursors.size(); i++) {
+                    if (cursors.get(i).offset < next.offset) {
+                        next = cursors.get(i);
+                    }
+                }
+                window.copy(next.offset, next.length, out);
+                lines++;
+                if (!next.advance()) {
+                    next.close();
+                    cursors.remove(next);
+                }
+            }
+            return lines;
+        } finally {
+            for (IndexCursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: LogSegmentReader <logs-dir> <min-level> [segment]");
+            System.exit(2);
+        }
+        Path dir = Paths.get(args[0]);
+        int minLevel = levelIndex(args[1]);
+        List<String> segments = args.length > 2 ? List.of(args[2]) : segments(dir);
+        OutputStream out = new BufferedOutputStream(System.out, WINDOW_BYTES);
+        for (String segment : segments) {
+            stream(dir, segment, minLevel, out);
+        }
+        out.flush();
+    }
+
+    // Reads one level index in chunks. Only whole entries that existed when it was opened are
+    // read, so a half-flushed trailing entry is never seen.
+    private static final class IndexCursor {
+        private final FileChannel channel;
+        private final long limit;
+        private final ByteBuffer chunk = ByteBuffer.allocate(INDEX_CHUNK_ENTRIES * LogSegment.INDEX_ENTRY_BYTES);
+        private long position;
+        long offset;
+        int length;
+
+        IndexCursor(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            limit = channel.size() / LogSegment.INDEX_ENTRY_BYTES * LogSegment.INDEX_ENTRY_BYTES;
+            chunk.limit(0);
+        }
+
+        boolean advance() throws IOException {
+            if (chunk.remaining() < LogSegment.INDEX_ENTRY_BYTES) {
+                if (position >= limit) {
+                    return false;
+                }
+                chunk.clear();
+                chunk.limit((int) Math.min(chunk.capacity(), limit - position));
+                while (chunk.hasRemaining()) {
+                    if (channel.read(chunk, position + chunk.position()) < 0) break;
+                }
+                position += chunk.position();
+                chunk.flip();
+            }
+            offset = chunk.getLong();
+            length = chunk.getInt();
+            return true;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // Lines come in increasing offset order, so one forward-moving buffer serves most of them
+    private static final class DataWindow {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WINDOW_BYTES);
+        private long start;
+        private long end;
+
+        DataWindow(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void copy(long offset, int length, OutputStream out) throws IOException {
+            if (offset < start || offset + length > end) {
+                if (length > buffer.capacity()) {
+                    ByteBuffer big = ByteBuffer.allocate(length);
+                    readFully(big, offset);
+                    out.write(big.array(), 0, length);
+                    return;
+                }
+                buffer.clear();
+                readFully(buffer, offset);
+                start = offset;
+                end = offset + buffer.limit();
+            }
+            out.write(buffer.array(), (int) (offset - start), length);
+        }
+
+        private void readFully(ByteBuffer target, long from) throws IOException {
+            while (target.hasRemaining()) {
+                if (channel.read(target, from + target.position()) < 0) break;
+            }
+            target.flip();
+        }
+    }
+}
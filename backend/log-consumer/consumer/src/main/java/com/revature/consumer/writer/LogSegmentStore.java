@@ -0,0 +1,103 @@
+package com.revature.consumer.writer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.revature.logging.RotationPolicy;
+
+import jakarta.annotation.PreDestroy;
+
+// Segment storage (consumer.log.storage=segment): each line is written once, to the active
+// segment, and recorded in its level's index, instead of being copied into up to five level
+// files. "Everything at WARN or above" is answered by LogSegmentReader from the indexes.
+// A segment is rolled to the next sequence number by the same size/age limits as the level
+// files; rolled segments are left uncompressed so they stay readable through their indexes.
+@Component
+@ConditionalOnProperty(name = "consumer.log.storage", havingValue = "segment")
+public class LogSegmentStore implements LogSink {
+
+    static final String SEGMENT_PREFIX = "segment-";
+
+    private final Path dir;
+    private final int bufferSize;
+    private final RotationPolicy policy;
+
+    private LogSegment active;
+    private int sequence;
+
+    @Autowired
+    public LogSegmentStore(@Value("${consumer.log.dir:logs}") String dir,
+                           @Value("${consumer.log.buffer-size:65536}") int bufferSize,
+                           @Value("${consumer.log.rotate.max-bytes:104857600}") long maxBytes,
+                           @Value("${consumer.log.rotate.max-age:24h}") Duration maxAge) throws IOException {
+        this(Paths.get(dir), bufferSize, new RotationPolicy(maxBytes, maxAge, false));
+    }
+
+    public LogSegmentStore(Path dir, int bufferSize, RotationPolicy policy) throws IOException {
+        this.dir = dir;
+        this.bufferSize = bufferSize;
+        this.policy = policy;
+        LogFileWriter.prepareDirectory(dir);
+        this.active = next();
+    }
+
+    // Appended and flushed under one lock, so once this returns the batch's lines and their
+    // index entries have reached the files
+    @Override
+    public synchronized void write(LogBatch batch) throws IOException {
+        active.append(batch);
+        active.flush();
+        if (policy.bySize(active.size())) {
+            roll();
+        }
+    }
+
+    public Path directory() {
+        return dir;
+    }
+
+    public List<String> segments() throws IOException {
+        return LogSegmentReader.segments(dir);
+    }
+
+    @Scheduled(fixedDelayString = "${consumer.log.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        try {
+            active.flush();
+            if (active.size() > 0 && policy.byAge(active.openedAt(), System.currentTimeMillis())) {
+                roll();
+            }
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not flush " + active.name() + ": " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        try {
+            active.close();
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not close " + active.name() + ": " + e.getMessage());
+        }
+    }
+
+    private void roll() throws IOException {
+        active.close();
+        active = next();
+    }
+
+    // Zero-padded so segment names sort in write order
+    private LogSegment next() throws IOException {
+        sequence++;
+        return new LogSegment(dir, String.format("%s%06d", SEGMENT_PREFIX, sequence), bufferSize);
+    }
+}
@@ -0,0 +1,210 @@
+package com.revature.consumer.writer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.SequenceInputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+// Reads sharded storage back as one log: every logs/<topic>/<service>/ shard's rolled
+// <LEVEL>-<stamp>[-n].log[.gz] files, oldest first, followed by its live <LEVEL>.log, merged by the "{yyyy-MM-dd HH:mm:ss.SSS}" prefix each line starts with. Each shard is already in
+// order, so this is a lazy k-way merge holding one pending record per shard. A record is its first
+// line plus any continuation lines (e.g. a stack trace) that don't start a new timestamp.
+//
+// Also runnable on its own against a logs folder:
+//   java -cp app.jar -Dloader.main=com.revature.consumer.writer.LogShardReader \
+//       org.springframework.boot.loader.launch.PropertiesLauncher logs WARN
+public final class LogShardReader {
+
+    // "{2026-01-05 15:03:04.480}"
+    private static final int STAMP_LENGTH = 25;
+    // LevelFileWriter's rolled names: "ERROR-20260105-150304.log", then "-1", "-2"... within the same second
+    private static final Pattern ROLLED = Pattern.compile("([A-Z]+)-(\\d{8}-\\d{6})(?:-(\\d+))?\\.log(\\.gz)?");
+
+    private LogShardReader() {
+    }
+
+    // "topic/service" for every shard, sorted
+    public static List<String> shards(Path dir) throws IOException {
+        List<String> shards = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return shards;
+        }
+        try (Stream<Path> topics = Files.list(dir)) {
+            for (Path topic : topics.filter(Files::isDirectory).toList()) {
+                try (Stream<Path> services = Files.list(topic)) {
+                    services.filter(Files::isDirectory)
+                            .forEach(service -> shards.add(topic.getFileName() + "/" + service.getFileName()));
+                }
+            }
+        }
+        shards.sort(Comparator.naturalOrder());
+        return shards;
+    }
+
+    public static long merge(Path dir, String level, OutputStream out) throws IOException {
+        String name = LogFileWriter.LEVELS.get(LogSegmentReader.levelIndex(level));
+        List<ShardCursor> open = new ArrayList<>();
+        PriorityQueue<ShardCursor> heads = new PriorityQueue<>(
+                Comparator.comparing((ShardCursor cursor) -> cursor.stamp).thenComparingInt(cursor -> cursor.order));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            for (String shard : shards(dir)) {
+                InputStream in = open(dir.resolve(shard), name);
+                if (in != null) {
+                    ShardCursor cursor = new ShardCursor(
+                            new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024), open.size());
+                    open.add(cursor);
+                    if (cursor.advance()) {
+                        heads.add(cursor);
+                    }
+                }
+            }
+
+            long records = 0;
+            while (!heads.isEmpty()) {
+                ShardCursor next = heads.poll();
+                writer.write(next.record);
+                records++;
+                if (next.advance()) {
+                    heads.add(next);
+                }
+            }
+            writer.flush();
+            return records;
+        } finally {
+            for (ShardCursor cursor : open) {
+                cursor.reader.close();
+            }
+        }
+    }
+
+    // One stream over a shard's files for this level in write order, or null when it has none. All files
+    // are opened up front so a compressor finishing mid-read (x.log deleted once x.log.gz is complete)
+    // can't pull a file out from under the merge.
+    static InputStream open(Path shard, String level) throws IOException {
+        List<Path> files = shardFiles(shard, level);
+        List<InputStream> streams = new ArrayList<>(files.size());
+        try {
+            for (Path file : files) {
+                InputStream in = openFile(file);
+                if (in != null) {
+                    streams.add(in);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            for (InputStream in : streams) {
+                in.close();
+            }
+            throw e;
+        }
+        return streams.isEmpty() ? null : new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    // Rolled files oldest first, then the live <LEVEL>.log
+    static List<Path> shardFiles(Path shard, String level) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(shard)) {
+            return files;
+        }
+        // Keyed by roll stamp then same-second suffix; a rolled .log wins over its .gz, which is only
+        // complete once the .log is gone
+        TreeMap<String, Path> rolled = new TreeMap<>();
+        try (Stream<Path> entries = Files.list(shard)) {
+            for (Path entry : entries.toList()) {
+                Matcher m = ROLLED.matcher(entry.getFileName().toString());
+                if (!m.matches() || !m.group(1).equals(level)) {
+                    continue;
+                }
+                String key = m.group(2) + "-" + String.format("%010d", m.group(3) == null ? 0 : Long.parseLong(m.group(3)));
+                if (m.group(4) == null || !rolled.containsKey(key)) {
+                    rolled.put(key, entry);
+                }
+            }
+        }
+        files.addAll(rolled.values());
+        Path live = shard.resolve(level + ".log");
+        if (Files.exists(live)) {
+            files.add(live);
+        }
+        return files;
+    }
+
+    private static InputStream openFile(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        try {
+            InputStream in = Files.newInputStream(file);
+            return name.endsWith(".gz") ? new GZIPInputStream(in, 64 * 1024) : in;
+        } catch (NoSuchFileException e) {
+            // Compressed (or the live file rotated) between listing and opening
+            if (!name.endsWith(".gz")) {
+                Path gz = file.resolveSibling(name + ".gz");
+                if (Files.exists(gz)) {
+                    return new GZIPInputStream(Files.newInputStream(gz), 64 * 1024);
+                }
+            }
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: LogShardReader <logs-dir> <min-level>");
+            System.exit(2);
+        }
+        merge(Paths.get(args[0]), args[1], System.out);
+    }
+
+    private static boolean startsRecord(String line) {
+        return line.length() >= STAMP_LENGTH && line.charAt(0) == '{' && line.charAt(STAMP_LENGTH - 1) == '}'
+                && Character.isDigit(line.charAt(1));
+    }
+
+    private static final class ShardCursor {
+        private final BufferedReader reader;
+        private final int order;
+        private final StringBuilder pending = new StringBuilder();
+        private String lookahead;
+        String stamp;
+        String record;
+
+        ShardCursor(BufferedReader reader, int order) throws IOException {
+            this.reader = reader;
+            this.order = order;
+            this.lookahead = reader.readLine();
+        }
+
+        boolean advance() throws IOException {
+            if (lookahead == null) {
+                return false;
+            }
+            pending.setLength(0);
+            pending.append(lookahead).append(System.lineSeparator());
+            stamp = lookahead.length() >= STAMP_LENGTH ? lookahead.substring(0, STAMP_LENGTH) : lookahead;
+            while ((lookahead = reader.readLine()) != null && !startsRecord(lookahead)) {
+                pending.append(lookahead).append(System.lineSeparator());
+            }
+            record = pending.toString();
+            return true;
+        }
+    }
+}
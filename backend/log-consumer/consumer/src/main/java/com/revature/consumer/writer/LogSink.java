@@ -0,0 +1,12 @@
+package com.revature.consumer.writer;
+
+import java.io.IOException;
+
+// Where LogConsumer puts each batch. consumer.log.storage picks the implementation:
+// "files" (default) writes one cumulative file per level (LogFileWriter), "segment" writes each
+// line once to an append-only segment with per-level indexes (LogSegmentStore).
+// Once write returns the batch must be on disk (or in the OS cache), since its offsets are committed next.
+public interface LogSink {
+
+    void write(LogBatch batch) throws IOException;
+}
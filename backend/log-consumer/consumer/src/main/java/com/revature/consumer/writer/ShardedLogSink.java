@@ -0,0 +1,123 @@
+package com.revature.consumer.writer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.revature.logging.RotationPolicy;
+
+import jakarta.annotation.PreDestroy;
+
+// Sharded storage (consumer.log.storage=sharded): the usual per-level files, but one set per
+// topic and service, under logs/<topic>/<service>/. Records are keyed by service, so a shard is
+// only ever fed by the listener thread that owns that partition; shards don't share locks or
+// buffers and throughput grows with listener concurrency. A combined view is produced at read
+// time by LogShardReader, which merges the shards by timestamp.
+@Component
+@ConditionalOnProperty(name = "consumer.log.storage", havingValue = "sharded")
+public class ShardedLogSink implements LogSink {
+
+    static final String UNKNOWN_SERVICE = "unknown-service";
+
+    private final Path dir;
+    private final int bufferSize;
+    private final RotationPolicy policy;
+    private final ExecutorService compressor = LogFileWriter.newCompressor();
+    // topic -> service -> shard
+    private final Map<String, Map<String, LogFileWriter>> shards = new ConcurrentHashMap<>();
+    // Per listener thread: the batch split by service, reused across batches
+    private final ThreadLocal<Map<String, LogBatch>> split = ThreadLocal.withInitial(HashMap::new);
+
+    @Autowired
+    public ShardedLogSink(@Value("${consumer.log.dir:logs}") String dir,
+                          @Value("${consumer.log.buffer-size:65536}") int bufferSize,
+                          @Value("${consumer.log.rotate.max-bytes:104857600}") long maxBytes,
+                          @Value("${consumer.log.rotate.max-age:24h}") Duration maxAge,
+                          @Value("${consumer.log.rotate.gzip:true}") boolean gzip) {
+        this(Paths.get(dir), bufferSize, new RotationPolicy(maxBytes, maxAge, gzip));
+    }
+
+    public ShardedLogSink(Path dir, int bufferSize, RotationPolicy policy) {
+        this.dir = dir;
+        this.bufferSize = bufferSize;
+        this.policy = policy;
+        LogFileWriter.prepareDirectory(dir);
+    }
+
+    @Override
+    public void write(LogBatch batch) throws IOException {
+        Map<String, LogBatch> byService = split.get();
+        for (LogBatch part : byService.values()) {
+            part.reset(batch.topic());
+        }
+        byte[] data = batch.data();
+        for (int i = 0; i < batch.lines(); i++) {
+            String service = batch.service(i) == null ? UNKNOWN_SERVICE : batch.service(i);
+            int start = batch.start(i);
+            byService.computeIfAbsent(service, s -> new LogBatch())
+                    .add(batch.levelIndex(i), service, data, start, batch.end(i) - start);
+        }
+
+        String topic = batch.topic() == null ? "unknown-topic" : batch.topic();
+        for (Map.Entry<String, LogBatch> entry : byService.entrySet()) {
+            if (entry.getValue().lines() > 0) {
+                shard(topic, entry.getKey()).write(entry.getValue());
+            }
+        }
+        // Services seen once shouldn't keep a buffer per listener thread forever
+        byService.values().removeIf(part -> part.lines() == 0);
+    }
+
+    public Path directory() {
+        return dir;
+    }
+
+    @Scheduled(fixedDelayString = "${consumer.log.flush-interval-ms:1000}")
+    public void flush() {
+        for (Map<String, LogFileWriter> services : shards.values()) {
+            for (LogFileWriter shard : services.values()) {
+                shard.flush();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Map<String, LogFileWriter> services : shards.values()) {
+            for (LogFileWriter shard : services.values()) {
+                shard.close();
+            }
+        }
+        LogFileWriter.shutdown(compressor);
+    }
+
+    private LogFileWriter shard(String topic, String service) {
+        return shards.computeIfAbsent(topic, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(service, s -> {
+                    try {
+                        return new LogFileWriter(dir.resolve(directoryName(topic)).resolve(directoryName(s)),
+                                bufferSize, policy, compressor);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Could not open shard " + topic + "/" + s, e);
+                    }
+                });
+    }
+
+    // Service names come from the records, so keep them to one safe path segment
+    static String directoryName(String name) {
+        String safe = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        return safe.isEmpty() || safe.chars().allMatch(c -> c == '.') ? "_" + safe : safe;
+    }
+}
@@ -0,0 +1,86 @@
+package com.revature.consumer;
+
+import com.revature.logging.LogLineFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// ns per formatted line, and with the gc profiler (on by default in main) bytes allocated per line.
+//   legacyFormat: the old LogConsumer.format plus getBytes(UTF_8)
+//   formatter:    LogLineFormatter into its reused buffer
+// Timestamps advance 1ms per call, so the formatter re-renders its cached second every 1000 lines.
+//
+// Not part of the build's tests. To run it:
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.revature.consumer.LogLineFormatterBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class LogLineFormatterBenchmark {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final Map<String, String> RECORD = Map.of(
+            "service", "DawService",
+            "level", "INFO",
+            "method", "getDawById",
+            "message", "Getting daw by id 6f1c2a4e-9b7d-4c11-8f3e-2d5a7b9c0e12");
+
+    private final LogLineFormatter formatter = new LogLineFormatter();
+    private long timestamp = 1767625384480L;
+
+    @Benchmark
+    public byte[] legacyFormat() {
+        return legacyFormat(RECORD, timestamp++).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int formatter() {
+        return formatter.format(RECORD, timestamp++);
+    }
+
+    private static String legacyFormat(Map<String, String> logMap, long timestampMillis) {
+        String service = logMap.getOrDefault("service", "unknown-service");
+        String level = logMap.getOrDefault("level", "INFO");
+        String message = logMap.getOrDefault("message", "");
+        String method = logMap.getOrDefault("method", "unknown-method");
+        String exception = logMap.get("exception");
+
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
+        String timestamp = time.format(FORMATTER);
+        String formattedLevel = String.format("%-5s", level);
+        StringBuilder logBuilder = new StringBuilder();
+        logBuilder.append("[").append(service).append(".").append(method).append("] ");
+        logBuilder.append(message);
+        if (exception != null) logBuilder.append(" (").append(exception).append(")");
+
+        return String.format("{%s} %s - %s%n", timestamp, formattedLevel, logBuilder);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LogLineFormatterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
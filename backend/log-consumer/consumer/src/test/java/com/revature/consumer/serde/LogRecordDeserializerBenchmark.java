@@ -0,0 +1,93 @@
+package com.revature.consumer.serde;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.logging.LogRecordCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// ns per deserialized log record: the JSON map the consumer used to read (through
+// JsonDeserializer, configured as in application.properties) against the binary record read
+// through LogRecordDeserializer. main() prints the size of each first.
+//
+// Not part of the build's tests. To run it:
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.revature.consumer.serde.LogRecordDeserializerBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class LogRecordDeserializerBenchmark {
+
+    static final Map<String, String> INFO = Map.of(
+            "service", "dawController",
+            "method", "getDawById",
+            "level", "INFO",
+            "message", "Getting daw by id 6f1c2a4e-9b7d-4c11-8f3e-2d5a7b9c0e12");
+    private static final Map<String, Object> CONFIG = Map.of(
+            "spring.json.value.default.type", "java.util.Map",
+            "spring.json.trusted.packages", "java.util");
+
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+    private JsonDeserializer<Map<String, String>> json;
+    private LogRecordDeserializer binary;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        jsonBytes = new ObjectMapper().writeValueAsBytes(INFO);
+        binaryBytes = LogRecordCodec.encode(INFO);
+        json = new JsonDeserializer<>();
+        json.configure(CONFIG, false);
+        binary = new LogRecordDeserializer();
+        binary.configure(CONFIG, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        json.close();
+        binary.close();
+    }
+
+    @Benchmark
+    public Map<String, String> json() {
+        return json.deserialize("api-calls", jsonBytes);
+    }
+
+    @Benchmark
+    public Map<String, String> binary() {
+        return binary.deserialize("api-calls", binaryBytes);
+    }
+
+    // Same JsonDeserializer path, reached through LogRecordDeserializer's fallback
+    @Benchmark
+    public Map<String, String> jsonFallback() {
+        return binary.deserialize("api-calls", jsonBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException, JsonProcessingException {
+        System.out.printf("json: %d bytes, binary: %d bytes%n",
+                new ObjectMapper().writeValueAsBytes(INFO).length, LogRecordCodec.encode(INFO).length);
+        new Runner(new OptionsBuilder()
+                .include(LogRecordDeserializerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
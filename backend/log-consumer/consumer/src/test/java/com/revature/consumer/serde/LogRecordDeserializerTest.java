@@ -0,0 +1,108 @@
+package com.revature.consumer.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.logging.LogRecordCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogRecordDeserializerTest {
+
+    private static final Map<String, String> RECORD = Map.of(
+            "level", "ERROR",
+            "service", "billing",
+            "method", "charge",
+            "message", "Charge failed: café ☕");
+
+    private LogRecordDeserializer deserializer;
+
+    @BeforeEach
+    void setUp() {
+        // As in application.properties
+        deserializer = new LogRecordDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.VALUE_DEFAULT_TYPE, "java.util.Map",
+                JsonDeserializer.TRUSTED_PACKAGES, "java.util"), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deserializer.close();
+    }
+
+    @Test
+    void deserialize_readsBinaryRecords() {
+        byte[] data = LogRecordCodec.encode(RECORD);
+
+        assertEquals(RECORD, deserializer.deserialize("app-logs", data));
+        assertEquals(RECORD, deserializer.deserialize("app-logs", new RecordHeaders(), data));
+    }
+
+    @Test
+    void deserialize_fallsBackToJsonForOlderProducers() throws Exception {
+        byte[] data = new ObjectMapper().writeValueAsBytes(RECORD);
+
+        assertEquals(RECORD, deserializer.deserialize("app-logs", data));
+        assertEquals(RECORD, deserializer.deserialize("app-logs", new RecordHeaders(), data));
+    }
+
+    @Test
+    void deserialize_treatsALoneMagicByteAsJson() {
+        // Too short to be a binary record, so it's handed to the JSON side, which rejects it
+        byte[] data = {LogRecordCodec.MAGIC};
+        byte[] json = "{}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(Map.of(), deserializer.deserialize("app-logs", json));
+        assertThrows(RuntimeException.class,
+                () -> deserializer.deserialize("app-logs", data));
+    }
+
+    @Test
+    void deserialize_truncatedBinaryRecord_throwsSerializationException() {
+        byte[] encoded = LogRecordCodec.encode(RECORD);
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 5);
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("app-logs", truncated));
+        assertThrows(SerializationException.class,
+                () -> deserializer.deserialize("app-logs", new RecordHeaders(), truncated));
+    }
+
+    @Test
+    void errorHandlingWrapper_turnsACorruptRecordIntoNull() {
+        // The way application.properties configures the consumer
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, LogRecordDeserializer.class.getName());
+        configs.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "java.util.Map");
+        configs.put(JsonDeserializer.TRUSTED_PACKAGES, "java.util");
+        byte[] encoded = LogRecordCodec.encode(RECORD);
+        RecordHeaders headers = new RecordHeaders();
+
+        try (ErrorHandlingDeserializer<Map<String, String>> wrapped = new ErrorHandlingDeserializer<>()) {
+            wrapped.configure(configs, false);
+
+            assertEquals(RECORD, wrapped.deserialize("app-logs", new RecordHeaders(), encoded));
+            assertNull(wrapped.deserialize("app-logs", headers, Arrays.copyOf(encoded, 6)));
+            assertNotNull(headers.lastHeader("springDeserializerExceptionValue"));
+        }
+    }
+
+    @Test
+    void deserialize_passesTombstonesThrough() {
+        assertNull(deserializer.deserialize("app-logs", null));
+        assertNull(deserializer.deserialize("app-logs", new RecordHeaders(), (byte[]) null));
+    }
+}
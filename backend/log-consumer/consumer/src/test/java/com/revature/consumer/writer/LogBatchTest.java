@@ -0,0 +1,86 @@
+package com.revature.consumer.writer;
+
+import com.revature.logging.RotationPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LogBatchTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void add_keepsEachLinesBytesAndLevel() {
+        LogBatch batch = new LogBatch();
+        byte[] reused = "error line\nleftover from a longer line".getBytes(StandardCharsets.UTF_8);
+
+        batch.add("INFO", bytes("info line\n"));
+        batch.add("ERROR", "forumService", reused, "error line\n".length());
+        batch.add("NOTICE", bytes("unknown level\n"));
+
+        assertEquals(3, batch.lines());
+        assertEquals("info line\n", line(batch, 0));
+        assertEquals("error line\n", line(batch, 1));
+        assertEquals(LogFileWriter.LEVELS.indexOf("INFO"), batch.levelIndex(0));
+        assertEquals(LogFileWriter.LEVELS.indexOf("ERROR"), batch.levelIndex(1));
+        assertEquals("forumService", batch.service(1));
+        assertNull(batch.service(0));
+        // Unknown levels are treated as INFO, as by the line-at-a-time writer
+        assertEquals(LogFileWriter.LEVELS.indexOf("INFO"), batch.levelIndex(2));
+    }
+
+    @Test
+    void add_growsPastItsInitialCapacity_andResetReusesIt() {
+        LogBatch batch = new LogBatch();
+        String line = "x".repeat(99) + "\n";
+        for (int i = 0; i < 2000; i++) {
+            batch.add(i % 2 == 0 ? "DEBUG" : "WARN", "svc-" + i, bytes(line), line.length());
+        }
+        assertEquals(2000, batch.lines());
+        assertEquals(line, line(batch, 1999));
+        assertEquals("svc-1999", batch.service(1999));
+
+        batch.reset("errors");
+        assertEquals(0, batch.lines());
+        assertEquals("errors", batch.topic());
+        assertNull(batch.service(1999));
+        batch.add("ERROR", bytes("after reset\n"));
+        assertEquals("after reset\n", line(batch, 0));
+    }
+
+    @Test
+    void write_appendsEachLineToItsLevelFileAndEveryMoreVerboseOne() throws Exception {
+        LogFileWriter writer = new LogFileWriter(dir, 4096, new RotationPolicy(0, Duration.ZERO, false));
+        LogBatch batch = new LogBatch();
+        batch.reset("api-calls");
+        batch.add("DEBUG", bytes("debug\n"));
+        batch.add("ERROR", bytes("error\n"));
+        batch.add("INFO", bytes("info\n"));
+
+        // Flushed before it returns, so the files are complete without close()
+        writer.write(batch);
+
+        assertEquals("debug\nerror\ninfo\n", Files.readString(dir.resolve("TRACE.log")));
+        assertEquals("debug\nerror\ninfo\n", Files.readString(dir.resolve("DEBUG.log")));
+        assertEquals("error\ninfo\n", Files.readString(dir.resolve("INFO.log")));
+        assertEquals("error\n", Files.readString(dir.resolve("WARN.log")));
+        assertEquals("error\n", Files.readString(dir.resolve("ERROR.log")));
+        writer.close();
+    }
+
+    private static byte[] bytes(String line) {
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String line(LogBatch batch, int line) {
+        return new String(batch.data(), batch.start(line), batch.end(line) - batch.start(line), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,92 @@
+package com.revature.consumer.writer;
+
+import com.revature.logging.RotationPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Lines/sec for an INFO line (appended to TRACE, DEBUG and INFO.log).
+//   legacyWriteString: the old LogConsumer.write, a synchronized open/append/close per file
+//   bufferedChannels:  LogFileWriter
+//
+// Not part of the build's tests. To run it:
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.revature.consumer.writer.LogFileWriterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class LogFileWriterBenchmark {
+
+    private static final List<String> LEVELS = List.of("TRACE", "DEBUG", "INFO", "WARN", "ERROR");
+    private static final String LINE =
+            "{2026-01-05 15:03:04.480} INFO  - [DawService.getDawById] Getting daw by id" + System.lineSeparator();
+
+    private Path dir;
+    private LogFileWriter writer;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("log-writer-bench");
+        // Roll at 64MB without gzip so the disk doesn't fill and compression doesn't skew the numbers
+        writer = new LogFileWriter(dir, 64 * 1024, new RotationPolicy(64L * 1024 * 1024, Duration.ZERO, false));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        writer.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void legacyWriteString() throws IOException {
+        legacyWrite("INFO", LINE);
+    }
+
+    @Benchmark
+    public void bufferedChannels() {
+        writer.write("INFO", LINE);
+    }
+
+    private synchronized void legacyWrite(String logLevel, String message) throws IOException {
+        int logIndex = LEVELS.indexOf(logLevel);
+        for (int i = 0; i <= logIndex; i++) {
+            Files.writeString(dir.resolve(LEVELS.get(i) + ".log"), message,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LogFileWriterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
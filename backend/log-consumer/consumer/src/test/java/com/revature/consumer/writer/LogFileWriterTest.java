@@ -0,0 +1,84 @@
+package com.revature.consumer.writer;
+
+import com.revature.logging.RotationPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogFileWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void write_landsInItsLevelFileAndEveryMoreVerboseOne() throws Exception {
+        LogFileWriter writer = new LogFileWriter(dir, 4096, new RotationPolicy(0, Duration.ZERO, false));
+        writer.write("WARN", "warn line\n");
+        writer.write("DEBUG", "debug line\n");
+        writer.write("NOTICE", "unknown level\n");
+        writer.close();
+
+        assertEquals("warn line\ndebug line\nunknown level\n", read("TRACE.log"));
+        assertEquals("warn line\ndebug line\nunknown level\n", read("DEBUG.log"));
+        assertEquals("warn line\nunknown level\n", read("INFO.log"));
+        assertEquals("warn line\n", read("WARN.log"));
+        assertEquals("", read("ERROR.log"));
+    }
+
+    @Test
+    void write_pastMaxBytes_rollsTheFileAndGzipsIt() throws Exception {
+        LogFileWriter writer = new LogFileWriter(dir, 64, new RotationPolicy(100, Duration.ZERO, true));
+        String line = "x".repeat(59) + "\n";
+        for (int i = 0; i < 3; i++) {
+            writer.write("ERROR", line);
+        }
+        // Waits for the compression
+        writer.close();
+
+        List<Path> rolled = files("ERROR-");
+        assertEquals(1, rolled.size());
+        assertTrue(rolled.get(0).getFileName().toString().endsWith(".log.gz"));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(rolled.get(0)))) {
+            assertEquals(line + line, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(line, read("ERROR.log"));
+    }
+
+    @Test
+    void flush_pastMaxAge_rollsOnlyFilesWithSomethingInThem() throws Exception {
+        LogFileWriter writer = new LogFileWriter(dir, 4096, new RotationPolicy(0, Duration.ofMillis(1), false));
+        writer.write("INFO", "old\n");
+        Thread.sleep(20);
+        writer.flush();
+        writer.write("INFO", "new\n");
+        writer.close();
+
+        List<Path> rolled = files("INFO-");
+        assertEquals(1, rolled.size());
+        assertEquals("old\n", Files.readString(rolled.get(0)));
+        assertEquals("new\n", read("INFO.log"));
+        assertEquals(List.of(), files("ERROR-"));
+    }
+
+    private String read(String file) throws IOException {
+        return Files.readString(dir.resolve(file));
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.revature.consumer.writer;
+
+import com.revature.logging.RotationPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogSegmentStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void stream_returnsLinesAtOrAboveTheLevel_inWriteOrder() throws Exception {
+        LogSegmentStore store = new LogSegmentStore(dir, 4096, new RotationPolicy(0, Duration.ZERO, false));
+        store.write(batch("DEBUG", "debug 1\n", "ERROR", "error 1\n", "WARN", "warn 1\n"));
+        store.write(batch("INFO", "info 1\n", "ERROR", "error 2\n"));
+
+        assertEquals(List.of("segment-000001"), store.segments());
+        // Each line is stored once
+        assertEquals("debug 1\nerror 1\nwarn 1\ninfo 1\nerror 2\n", Files.readString(dir.resolve("segment-000001.log")));
+        assertEquals("debug 1\nerror 1\nwarn 1\ninfo 1\nerror 2\n", read("segment-000001", "trace"));
+        assertEquals("error 1\nwarn 1\ninfo 1\nerror 2\n", read("segment-000001", "INFO"));
+        assertEquals("error 1\nwarn 1\nerror 2\n", read("segment-000001", "WARN"));
+        assertEquals("error 1\nerror 2\n", read("segment-000001", "ERROR"));
+        store.close();
+    }
+
+    @Test
+    void write_pastMaxBytes_startsTheNextSegment() throws Exception {
+        LogSegmentStore store = new LogSegmentStore(dir, 4096, new RotationPolicy(20, Duration.ZERO, false));
+        store.write(batch("INFO", "first segment 1\n", "ERROR", "first segment 2\n"));
+        store.write(batch("ERROR", "second segment\n"));
+        store.close();
+
+        assertEquals(List.of("segment-000001", "segment-000002"), store.segments());
+        assertEquals("first segment 2\n", read("segment-000001", "ERROR"));
+        assertEquals("second segment\n", read("segment-000002", "ERROR"));
+    }
+
+    @Test
+    void stream_ignoresATruncatedTrailingIndexEntry() throws Exception {
+        LogSegmentStore store = new LogSegmentStore(dir, 4096, new RotationPolicy(0, Duration.ZERO, false));
+        store.write(batch("WARN", "warn 1\n", "WARN", "warn 2\n"));
+        store.close();
+
+        // As if the process died part way through flushing a third entry
+        Path index = LogSegment.indexFile(dir, "segment-000001", "WARN");
+        Files.write(index, new byte[LogSegment.INDEX_ENTRY_BYTES - 3], StandardOpenOption.APPEND);
+
+        assertEquals("warn 1\nwarn 2\n", read("segment-000001", "WARN"));
+    }
+
+    @Test
+    void stream_readsLinesLargerThanItsWindow() throws Exception {
+        LogSegmentStore store = new LogSegmentStore(dir, 1024, new RotationPolicy(0, Duration.ZERO, false));
+        String big = "x".repeat(100_000) + "\n";
+        store.write(batch("ERROR", "before\n", "ERROR", big, "ERROR", "after\n"));
+        store.close();
+
+        assertEquals("before\n" + big + "after\n", read("segment-000001", "ERROR"));
+    }
+
+    @Test
+    void levelIndex_rejectsUnknownLevels() {
+        assertEquals(3, LogSegmentReader.levelIndex("warn"));
+        assertThrows(IllegalArgumentException.class, () -> LogSegmentReader.levelIndex("FATAL"));
+    }
+
+    // Level, line, level, line, ...
+    private static LogBatch batch(String... levelsAndLines) {
+        LogBatch batch = new LogBatch();
+        for (int i = 0; i < levelsAndLines.length; i += 2) {
+            batch.add(levelsAndLines[i], levelsAndLines[i + 1].getBytes(StandardCharsets.UTF_8));
+        }
+        return batch;
+    }
+
+    private String read(String segment, String minLevel) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LogSegmentReader.stream(dir, segment, LogSegmentReader.levelIndex(minLevel), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
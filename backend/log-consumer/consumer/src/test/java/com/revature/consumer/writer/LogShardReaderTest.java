@@ -0,0 +1,110 @@
+package com.revature.consumer.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LogShardReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void merge_interleavesShardsByTimestamp_keepingContinuationLinesWithTheirRecord() throws Exception {
+        shard("app-logs", "billing", "ERROR.log",
+                "{2026-01-05 15:03:04.100} billing failed\n"
+                        + "java.lang.IllegalStateException: boom\n"
+                        + "\tat Billing.charge(Billing.java:42)\n"
+                        + "{2026-01-05 15:03:04.400} billing failed again\n");
+        shard("app-logs", "auth", "ERROR.log",
+                "{2026-01-05 15:03:04.200} auth failed\n"
+                        + "{2026-01-05 15:03:04.400} auth failed again\n");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long records = LogShardReader.merge(dir, "error", out);
+
+        assertEquals(4, records);
+        // Equal stamps keep shard order: app-logs/auth before app-logs/billing
+        assertEquals(String.join(System.lineSeparator(),
+                "{2026-01-05 15:03:04.100} billing failed",
+                "java.lang.IllegalStateException: boom",
+                "\tat Billing.charge(Billing.java:42)",
+                "{2026-01-05 15:03:04.200} auth failed",
+                "{2026-01-05 15:03:04.400} auth failed again",
+                "{2026-01-05 15:03:04.400} billing failed again") + System.lineSeparator(),
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void merge_readsOnlyTheRequestedLevelFile_andSkipsShardsWithoutIt() throws Exception {
+        shard("app-logs", "billing", "WARN.log", "{2026-01-05 15:03:04.100} billing warned\n");
+        shard("app-logs", "billing", "ERROR.log", "{2026-01-05 15:03:04.100} billing failed\n");
+        shard("other-logs", "auth", "ERROR.log", "{2026-01-05 15:03:04.000} auth failed\n");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1, LogShardReader.merge(dir, "WARN", out));
+        assertEquals("{2026-01-05 15:03:04.100} billing warned" + System.lineSeparator(),
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void merge_readsRolledAndGzippedFilesBeforeTheLiveFile() throws Exception {
+        Path billing = Files.createDirectories(dir.resolve("app-logs").resolve("billing"));
+        gzip(billing.resolve("ERROR-20260105-150304.log.gz"), "{2026-01-05 15:03:04.100} billing 1\n");
+        // Same-second suffixes sort numerically, after the unsuffixed roll
+        gzip(billing.resolve("ERROR-20260105-150304-2.log.gz"), "{2026-01-05 15:03:04.300} billing 3\n");
+        Files.writeString(billing.resolve("ERROR-20260105-150304-10.log"), "{2026-01-05 15:03:04.400} billing 4\n");
+        Files.writeString(billing.resolve("ERROR-20260105-150304-1.log"), "{2026-01-05 15:03:04.200} billing 2\n");
+        // Still being compressed: the .log is complete, the .gz next to it isn't
+        Files.writeString(billing.resolve("ERROR-20260105-150305.log"), "{2026-01-05 15:03:05.000} billing 5\n");
+        Files.write(billing.resolve("ERROR-20260105-150305.log.gz"), new byte[]{0x1f});
+        Files.writeString(billing.resolve("ERROR.log"), "{2026-01-05 15:03:06.000} billing 6\n");
+        Files.writeString(billing.resolve("WARN-20260105-150304.log"), "{2026-01-05 15:03:04.000} billing warned\n");
+        shard("app-logs", "auth", "ERROR-20260105-150304.log", "{2026-01-05 15:03:04.250} auth rolled\n");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(7, LogShardReader.merge(dir, "ERROR", out));
+        assertEquals(String.join(System.lineSeparator(),
+                "{2026-01-05 15:03:04.100} billing 1",
+                "{2026-01-05 15:03:04.200} billing 2",
+                "{2026-01-05 15:03:04.250} auth rolled",
+                "{2026-01-05 15:03:04.300} billing 3",
+                "{2026-01-05 15:03:04.400} billing 4",
+                "{2026-01-05 15:03:05.000} billing 5",
+                "{2026-01-05 15:03:06.000} billing 6") + System.lineSeparator(),
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shards_listsTopicAndServiceDirectoriesSorted() throws Exception {
+        shard("b-logs", "svc", "INFO.log", "");
+        shard("a-logs", "svc-2", "INFO.log", "");
+        shard("a-logs", "svc-1", "INFO.log", "");
+        Files.writeString(dir.resolve("stray.log"), "not a shard\n");
+
+        assertEquals(List.of("a-logs/svc-1", "a-logs/svc-2", "b-logs/svc"), LogShardReader.shards(dir));
+        assertEquals(List.of(), LogShardReader.shards(dir.resolve("missing")));
+    }
+
+    private static void gzip(Path file, String content) throws Exception {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void shard(String topic, String service, String file, String content) throws Exception {
+        Path shard = Files.createDirectories(dir.resolve(topic).resolve(service));
+        Files.writeString(shard.resolve(file), content);
+    }
+}
@@ -0,0 +1,54 @@
+package com.revature.consumer.writer;
+
+import com.revature.logging.RotationPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShardedLogSinkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void directoryName_keepsNamesToOneSafePathSegment() {
+        assertEquals("billing-service_v2.1", ShardedLogSink.directoryName("billing-service_v2.1"));
+        assertEquals(".._etc_passwd", ShardedLogSink.directoryName("../etc/passwd"));
+        assertEquals("a_b_c", ShardedLogSink.directoryName("a\\b c"));
+        assertEquals("_", ShardedLogSink.directoryName(""));
+        assertEquals("_.", ShardedLogSink.directoryName("."));
+        assertEquals("_..", ShardedLogSink.directoryName(".."));
+    }
+
+    @Test
+    void write_splitsTheBatchIntoOneShardPerService() throws Exception {
+        ShardedLogSink sink = new ShardedLogSink(dir, 4096, new RotationPolicy(0, Duration.ZERO, false));
+        LogBatch batch = new LogBatch();
+        batch.reset("app-logs");
+        add(batch, "ERROR", "billing", "billing failed\n");
+        add(batch, "INFO", "auth", "auth ok\n");
+        add(batch, "INFO", null, "who sent this\n");
+        add(batch, "INFO", "..", "sneaky\n");
+        sink.write(batch);
+        sink.close();
+
+        Path topic = dir.resolve("app-logs");
+        assertEquals("billing failed\n", Files.readString(topic.resolve("billing").resolve("ERROR.log")));
+        assertEquals("auth ok\n", Files.readString(topic.resolve("auth").resolve("INFO.log")));
+        assertEquals("", Files.readString(topic.resolve("auth").resolve("ERROR.log")));
+        assertEquals("who sent this\n",
+                Files.readString(topic.resolve(ShardedLogSink.UNKNOWN_SERVICE).resolve("INFO.log")));
+        assertEquals("sneaky\n", Files.readString(topic.resolve("_..").resolve("INFO.log")));
+    }
+
+    private static void add(LogBatch batch, String level, String service, String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        batch.add(level, service, bytes, bytes.length);
+    }
+}
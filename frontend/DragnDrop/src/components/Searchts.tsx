@@ -15,6 +15,8 @@ export default function Search() {
   const [onlyMine, setOnlyMine] = useState<boolean>(false);
   const [daws, setDaws] = useState<DawDTO[]>([]);
   const [loading, setLoading] = useState<boolean>(true);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState<boolean>(false);
   const [selectedDaw, setSelectedDaw] = useState<DawDTO | null>(null);
   const [isDrawerOpen, setIsDrawerOpen] = useState(false);
   const [ratingsPage, setRatingsPage] = useState<RatingsPageDTO | null>(null)
@@ -30,8 +32,9 @@ export default function Search() {
 
     const loadData = async () => {
       try {
-        const data = await dawAPI.getAllDaws();
-        setDaws(data);
+        const page = await dawAPI.getDawPage();
+        setDaws(page.daws);
+        setNextCursor(page.nextCursor);
       } catch (error) {
         console.error("Failed to fetch forums:", error);
       } finally {
@@ -42,9 +45,30 @@ export default function Search() {
     loadData();
   }, [navigate]);
 
+  const handleLoadMore = async () => {
+    if (!nextCursor || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      const page = await dawAPI.getDawPage(nextCursor);
+      setDaws((previous) => [...previous, ...page.daws]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error("Failed to fetch more DAWs:", error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleOpenSidebar = (daw: DawDTO) => {
     setSelectedDaw(daw);
 
+    // The listing only carries summary fields; pull the full signal chain for the drawer
+    if (daw.dawId) {
+      dawAPI.getDawById(daw.dawId)
+        .then(setSelectedDaw)
+        .catch((error) => console.error("Failed to load DAW details:", error));
+    }
+
     const loadPageData = async () => {
 
       if(!selectedDaw?.dawId) return
@@ -178,9 +202,9 @@ export default function Search() {
                     </span>
                   </div>
                   <div className="!flex !flex-col">
-                    <span className="!text-[9px] !text-zinc-600 !uppercase !font-black !tracking-widest">Components</span>
+                    <span className="!text-[9px] !text-zinc-600 !uppercase !font-black !tracking-widest">Exports</span>
                     <span className="!text-xs !text-zinc-400 !font-mono">
-                      {daw.listOfConfigs.length.toString().padStart(2, '0')} ACTIVE_UNITS
+                      {(daw.exportCount ?? 0).toString().padStart(2, '0')} EXPORTS
                     </span>
                   </div>
                 </div>
@@ -193,6 +217,17 @@ export default function Search() {
             </div>
           </Card>
         ))}
+
+        {nextCursor && (
+          <Button
+            minimal
+            loading={loadingMore}
+            onClick={handleLoadMore}
+            className="!self-center !mt-2 !px-6 !py-2 !border !border-white/10 hover:!border-emerald-500/40 !text-zinc-400 hover:!text-emerald-400 !font-mono !text-xs !uppercase !tracking-widest"
+          >
+            Load more
+          </Button>
+        )}
       </div>
 
       <Drawer
@@ -230,7 +265,7 @@ export default function Search() {
                       02_Signal_Chain
                     </h4>
                     <div className="!space-y-4">
-                      {selectedDaw.listOfConfigs.map((config) => (
+                      {selectedDaw.listOfConfigs?.map((config) => (
                         <div key={config.id} className="!bg-zinc-900 !p-4 !rounded-xl !border !border-white/5 hover:!border-emerald-500/20 !transition-colors">
                           <div className="!flex !items-center !justify-between !mb-3">
                             <span className="!text-sm !font-bold !text-zinc-100 !tracking-tight">{config.name}</span>
@@ -5,6 +5,11 @@ import { DawDTO, ConfigDTO } from '../dtos/types';
 
 const API_BASE_URL = 'http://localhost:8080/api'; // update with API URL
 
+export interface DawPage {
+  daws: DawDTO[];
+  nextCursor: string | null;
+}
+
 // Gets a DAW by ID including configs, components, and settings
 export const dawAPI = {
 
@@ -41,26 +46,42 @@ export const dawAPI = {
     }
   },
 
-  // Get all DAWs
-  getAllDaws: async (): Promise<DawDTO[]> => {
+  // Get a page of DAW summaries (no listOfConfigs; use getDawById for the full tree).
+  // nextCursor comes from the X-Next-Cursor response header and is null on the last page.
+  getDawPage: async (cursor?: string, size: number = 20): Promise<DawPage> => {
     try {
-      const response = await fetch(`${API_BASE_URL}/search/allDaws`);
+      const params = new URLSearchParams({ size: size.toString() });
+      if (cursor) params.set('cursor', cursor);
+      const response = await fetch(`${API_BASE_URL}/search/allDaws?${params}`);
       
       if (!response.ok) {
         throw new Error(`Failed to load DAWs: ${response.statusText}`);
       }
 
-      const data = await response.json();
+      const daws: DawDTO[] = await response.json();
+      const nextCursor = response.headers.get('X-Next-Cursor');
       
-      console.log(data);
-      console.log('Fetched all DAWs successfully');
-      return data;
+      console.log(daws);
+      console.log('Fetched a page of DAWs successfully');
+      return { daws, nextCursor };
     } catch (error) {
       console.error('Error loading DAWs:', error);
       throw error;
     }
   },
 
+  // Get every DAW summary, following the cursor page by page (the backend caps a page at 100)
+  getAllDaws: async (size: number = 100): Promise<DawDTO[]> => {
+    const all: DawDTO[] = [];
+    let cursor: string | undefined;
+    do {
+      const page = await dawAPI.getDawPage(cursor, size);
+      all.push(...page.daws);
+      cursor = page.nextCursor ?? undefined;
+    } while (cursor);
+    return all;
+  },
+
   // Save DAW config (requires POST endpoint in backend)
   saveDaw: async (daw: DawDTO): Promise<DawDTO> => {
     try {